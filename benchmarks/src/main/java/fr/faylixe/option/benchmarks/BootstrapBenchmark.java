@@ -0,0 +1,77 @@
+package fr.faylixe.option.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.faylixe.option.OptionableContainer;
+
+/**
+ * Benchmark for complete {@link OptionableContainer#bootstrap(String[])} calls,
+ * with the default parsing engine. It only relies on the original library API,
+ * so that it also runs against the baseline artifact.
+ *
+ * @author fv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BootstrapBenchmark {
+
+	/** Number of annotated fields. **/
+	@Param({"10", "50"})
+	private int fields;
+
+	/** Indicates if fields are assigned through generated binders. **/
+	@Param({"false", "true"})
+	private boolean binder;
+
+	/** Constructor of the generated container. **/
+	private Constructor<? extends OptionableContainer> constructor;
+
+	/** Arguments to bootstrap with. **/
+	private String [] arguments;
+
+	/**
+	 * Generates the benchmarked container.
+	 *
+	 * @throws IOException If container cannot be generated.
+	 * @throws NoSuchMethodException If container has no default constructor.
+	 */
+	@Setup
+	public void setUp() throws IOException, NoSuchMethodException {
+		constructor = GeneratedContainers.generate(fields, 1, binder).getConstructor();
+		arguments = GeneratedContainers.arguments(fields);
+	}
+
+	/**
+	 * Bootstraps a new container instance.
+	 *
+	 * @return Bootstrapped container.
+	 * @throws ReflectiveOperationException If container cannot be instantiated.
+	 */
+	@Benchmark
+	public OptionableContainer bootstrap() throws ReflectiveOperationException {
+		final OptionableContainer container = constructor.newInstance();
+		if (!container.bootstrap(arguments)) {
+			throw new IllegalStateException("Bootstrap failed");
+		}
+		return container;
+	}
+
+}
@@ -0,0 +1,107 @@
+package fr.faylixe.option.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.faylixe.option.OptionableContainer;
+import fr.faylixe.option.OptionableEngine;
+import fr.faylixe.option.OptionableField;
+import fr.faylixe.option.OptionableSchema;
+
+/**
+ * Benchmark for binding every field of a container into a receiver. The
+ * {@link OptionableEngine#NATIVE} default engine parses and binds through
+ * {@link OptionableSchema#bind(String[], Object)}, whereas the
+ * {@link OptionableEngine#COMMONS_CLI} engine goes through
+ * {@link OptionableField#validate(CommandLine, Object)} over a command
+ * line parsed at setup time.
+ *
+ * @author fv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FieldBenchmark {
+
+	/** Number of annotated fields. **/
+	@Param({"10", "50"})
+	private int fields;
+
+	/** Indicates if fields are assigned through generated binders. **/
+	@Param({"false", "true"})
+	private boolean binder;
+
+	/** Parsing engine to use, the default one first. **/
+	@Param({"NATIVE", "COMMONS_CLI"})
+	private OptionableEngine engine;
+
+	/** Schema of the generated container. **/
+	private OptionableSchema schema;
+
+	/** Arguments to bind. **/
+	private String [] arguments;
+
+	/** Parsed command line, for the Commons CLI engine. **/
+	private CommandLine command;
+
+	/** Receiver instance. **/
+	private OptionableContainer receiver;
+
+	/**
+	 * Generates the benchmarked container and parses its command line.
+	 *
+	 * @throws IOException If container cannot be generated.
+	 * @throws ReflectiveOperationException If container cannot be instantiated.
+	 * @throws ParseException If generated command line cannot be parsed.
+	 */
+	@Setup
+	public void setUp() throws IOException, ReflectiveOperationException, ParseException {
+		final Class<? extends OptionableContainer> type = GeneratedContainers.generate(fields, 1, binder);
+		schema = OptionableSchema.of(type);
+		arguments = GeneratedContainers.arguments(fields);
+		final Options options = new Options();
+		schema.getFields().stream().map(OptionableField::toOption).forEach(options::addOption);
+		command = new DefaultParser().parse(options, arguments);
+		receiver = type.getConstructor().newInstance();
+	}
+
+	/**
+	 * Binds every field into the receiver.
+	 *
+	 * @return Receiver instance.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	@Benchmark
+	public Object bind() throws IllegalAccessException {
+		if (engine == OptionableEngine.NATIVE) {
+			schema.bind(arguments, receiver);
+			return receiver;
+		}
+		final List<OptionableField> optionables = schema.getFields();
+		for (int i = 0; i < optionables.size(); i++) {
+			optionables.get(i).validate(command, receiver);
+		}
+		return receiver;
+	}
+
+}
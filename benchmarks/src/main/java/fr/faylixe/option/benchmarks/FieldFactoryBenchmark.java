@@ -0,0 +1,66 @@
+package fr.faylixe.option.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.faylixe.option.OptionableField;
+import fr.faylixe.option.OptionableFieldFactory;
+
+/**
+ * Benchmark for {@link OptionableFieldFactory#create(Class)} over class hierarchies.
+ *
+ * @author fv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FieldFactoryBenchmark {
+
+	/** Number of annotated fields. **/
+	@Param({"10", "50"})
+	private int fields;
+
+	/** Number of classes in the hierarchy. **/
+	@Param({"1", "10"})
+	private int depth;
+
+	/** Leaf class of the generated hierarchy. **/
+	private Class<?> type;
+
+	/**
+	 * Generates the benchmarked hierarchy.
+	 *
+	 * @throws IOException If container cannot be generated.
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		type = GeneratedContainers.generate(fields, depth, false);
+	}
+
+	/**
+	 * Creates fields for the generated hierarchy.
+	 *
+	 * @return Created fields.
+	 */
+	@Benchmark
+	public List<OptionableField> create() {
+		return new OptionableFieldFactory().create(type);
+	}
+
+}
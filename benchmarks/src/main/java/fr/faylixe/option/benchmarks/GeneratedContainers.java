@@ -0,0 +1,144 @@
+package fr.faylixe.option.benchmarks;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import fr.faylixe.option.OptionableContainer;
+
+/**
+ * Generates and compiles {@link OptionableContainer} hierarchies of
+ * annotated fields. As the library requires one distinct character per
+ * option, short names are ASCII letters and digits, which bounds the
+ * number of fields to {@link #MAX_FIELDS}.
+ *
+ * @author fv
+ */
+final class GeneratedContainers {
+
+	/** Package of generated classes. **/
+	private static final String PACKAGE = "fr.faylixe.option.generated";
+
+	/** Types of generated fields, used in turn. **/
+	private static final String [] TYPES = {"int", "long", "double", "String", "boolean"};
+
+	/** Command line values for each generated field type, <tt>null</tt> for flags. **/
+	private static final String [] VALUES = {"42", "4200000000", "3.14", "foo", null};
+
+	/** Short name characters, used in turn. **/
+	private static final String SHORT_NAMES = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+	/** Maximum number of generated fields, one per short name. **/
+	static final int MAX_FIELDS = SHORT_NAMES.length();
+
+	/** Error message for too many fields. **/
+	private static final String TOO_MANY_FIELDS = "At most %d fields can be generated, %d requested";
+
+	/** Processor that generates binders. **/
+	private static final String PROCESSOR = "fr.faylixe.option.processor.OptionableProcessor";
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private GeneratedContainers() {
+		// Do nothing.
+	}
+
+	/**
+	 * Generates, compiles and loads a container hierarchy.
+	 *
+	 * @param fields Total number of annotated fields.
+	 * @param depth Number of classes in the hierarchy, fields being spread among them.
+	 * @param bindable <tt>true</tt> for package private fields with generated binders, <tt>false</tt> for private fields.
+	 * @return Leaf class of the generated hierarchy.
+	 * @throws IOException If sources cannot be written or compiled.
+	 * @throws IllegalArgumentException If more than {@link #MAX_FIELDS} fields are requested.
+	 */
+	static Class<? extends OptionableContainer> generate(final int fields, final int depth, final boolean bindable) throws IOException {
+		if (fields > MAX_FIELDS) {
+			throw new IllegalArgumentException(String.format(TOO_MANY_FIELDS, MAX_FIELDS, fields));
+		}
+		final Path root = Files.createTempDirectory("option-benchmarks");
+		final Path sources = Files.createDirectories(root.resolve("sources"));
+		final Path classes = Files.createDirectories(root.resolve("classes"));
+		final List<String> arguments = new ArrayList<>();
+		arguments.add("-d");
+		arguments.add(classes.toString());
+		arguments.add("-cp");
+		arguments.add(System.getProperty("java.class.path"));
+		arguments.add("-encoding");
+		arguments.add("UTF-8");
+		if (bindable) {
+			arguments.add("-processor");
+			arguments.add(PROCESSOR);
+		}
+		else {
+			arguments.add("-proc:none");
+		}
+		final int perLevel = (fields + depth - 1) / depth;
+		String parent = OptionableContainer.class.getName();
+		String name = null;
+		for (int level = 0; level < depth; level++) {
+			name = "Container" + fields + "x" + depth + (bindable ? "Bound" : "") + "Level" + level;
+			final StringBuilder builder = new StringBuilder();
+			builder.append("package ").append(PACKAGE).append(";\n\n");
+			builder.append("public class ").append(name).append(" extends ").append(parent).append(" {\n");
+			final int end = Math.min(fields, (level + 1) * perLevel);
+			for (int i = level * perLevel; i < end; i++) {
+				builder.append("\t@fr.faylixe.option.Optionable(shortName=\"")
+					.append(SHORT_NAMES.charAt(i))
+					.append("\")\n\t")
+					.append(bindable ? "" : "private ")
+					.append(TYPES[i % TYPES.length])
+					.append(" f")
+					.append(i)
+					.append(";\n");
+			}
+			builder.append("}\n");
+			final Path source = sources.resolve(name + ".java");
+			Files.write(source, builder.toString().getBytes(StandardCharsets.UTF_8));
+			arguments.add(source.toString());
+			parent = name;
+		}
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null || compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])) != 0) {
+			throw new IOException("Unable to compile generated containers");
+		}
+		final URLClassLoader loader = new URLClassLoader(
+				new URL[] {classes.toUri().toURL()},
+				GeneratedContainers.class.getClassLoader());
+		try {
+			return loader.loadClass(PACKAGE + "." + name).asSubclass(OptionableContainer.class);
+		}
+		catch (final ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Builds command line arguments providing a value for every generated field.
+	 *
+	 * @param fields Total number of annotated fields.
+	 * @return Command line arguments.
+	 */
+	static String [] arguments(final int fields) {
+		final List<String> arguments = new ArrayList<>(fields * 2);
+		for (int i = 0; i < fields; i++) {
+			arguments.add("--f" + i);
+			final String value = VALUES[i % VALUES.length];
+			if (value != null) {
+				arguments.add(value);
+			}
+		}
+		return arguments.toArray(new String[arguments.size()]);
+	}
+
+}
@@ -0,0 +1,111 @@
+package fr.faylixe.option.benchmarks;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.faylixe.option.OptionableValueFactories;
+
+/**
+ * Benchmark for {@link OptionableValueFactories#getOptionableValue(Field, String)} per type.
+ *
+ * @author fv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValueFactoriesBenchmark {
+
+	/**
+	 * Holder of one field per benchmarked type.
+	 *
+	 * @author fv
+	 */
+	@SuppressWarnings("unused")
+	private static final class Holder {
+
+		/** Integer field. **/
+		private int integer;
+
+		/** Long field. **/
+		private long longs;
+
+		/** Float field. **/
+		private float floats;
+
+		/** Double field. **/
+		private double doubles;
+
+		/** String field. **/
+		private String string;
+
+		/** Path field. **/
+		private Path path;
+
+		/** Duration field. **/
+		private Duration duration;
+
+		/** URI field. **/
+		private URI uri;
+
+	}
+
+	/** Name of the holder field to convert into, followed by the value to convert. **/
+	@Param({
+		"integer:123456",
+		"longs:4200000000",
+		"floats:3.14159",
+		"doubles:2.718281828459045",
+		"string:foo",
+		"path:/tmp/foo/bar",
+		"duration:PT15M",
+		"uri:https://github.com/Faylixe/option",
+	})
+	private String type;
+
+	/** Target field. **/
+	private Field field;
+
+	/** Value to convert. **/
+	private String value;
+
+	/**
+	 * Resolves the benchmarked field.
+	 *
+	 * @throws NoSuchFieldException If the requested field does not exist.
+	 */
+	@Setup
+	public void setUp() throws NoSuchFieldException {
+		final int separator = type.indexOf(':');
+		field = Holder.class.getDeclaredField(type.substring(0, separator));
+		value = type.substring(separator + 1);
+	}
+
+	/**
+	 * Converts the value for the field type.
+	 *
+	 * @return Converted value.
+	 */
+	@Benchmark
+	public Object getOptionableValue() {
+		return OptionableValueFactories.getOptionableValue(field, value);
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Thin native client of fr.faylixe.option.OptionableDaemon.
+ *
+ * Forwards its arguments, working directory and environment to the daemon
+ * listening on the given Unix domain socket, streams the daemon standard
+ * output and error back, and exits with the application exit code. The wire
+ * protocol is the one described in fr.faylixe.option.OptionableFrames :
+ * integers are 32 bits big endian, and strings are their UTF-8 byte length
+ * followed by their bytes.
+ *
+ * Usage : optionable-client <socket> [arguments...]
+ */
+#include <errno.h>
+#include <limits.h>
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <sys/un.h>
+#include <unistd.h>
+
+/* Request header, as OptionableFrames.MAGIC. */
+#define MAGIC 0x4F505444
+
+/* Frame types, as OptionableFrames.OUT, ERR and EXIT. */
+#define FRAME_OUT 1
+#define FRAME_ERR 2
+#define FRAME_EXIT 3
+
+/* Exit codes, as OptionableResult.EXIT_FAILURE and EXIT_USAGE. */
+#define EXIT_FAILURE_CODE 1
+#define EXIT_USAGE_CODE 2
+
+/* Size of the buffer response payloads are copied through. */
+#define PAYLOAD_SIZE 65536
+
+extern char **environ;
+
+/* Growable request buffer, sent with a single write. */
+struct request {
+	char *data;
+	size_t length;
+	size_t capacity;
+};
+
+/* Reports the given error with errno description, then exits. */
+static void fail(const char *message) {
+	fprintf(stderr, "optionable-client : %s : %s\n", message, strerror(errno));
+	exit(EXIT_FAILURE_CODE);
+}
+
+/* Appends the given bytes to the request. */
+static void append(struct request *request, const void *bytes, size_t length) {
+	if (request->length + length > request->capacity) {
+		size_t capacity = request->capacity == 0 ? 4096 : request->capacity;
+		while (request->length + length > capacity) {
+			capacity *= 2;
+		}
+		request->data = realloc(request->data, capacity);
+		if (request->data == NULL) {
+			fail("cannot allocate request");
+		}
+		request->capacity = capacity;
+	}
+	memcpy(request->data + request->length, bytes, length);
+	request->length += length;
+}
+
+/* Appends the given integer, big endian. */
+static void append_int(struct request *request, uint32_t value) {
+	const unsigned char bytes[4] = {
+		(unsigned char) (value >> 24),
+		(unsigned char) (value >> 16),
+		(unsigned char) (value >> 8),
+		(unsigned char) value
+	};
+	append(request, bytes, sizeof(bytes));
+}
+
+/* Appends the given string as its length followed by its bytes. */
+static void append_string(struct request *request, const char *value, size_t length) {
+	append_int(request, (uint32_t) length);
+	append(request, value, length);
+}
+
+/* Writes the given bytes entirely. */
+static int write_fully(int fd, const char *bytes, size_t length) {
+	while (length > 0) {
+		const ssize_t written = write(fd, bytes, length);
+		if (written < 0) {
+			if (errno == EINTR) {
+				continue;
+			}
+			return -1;
+		}
+		bytes += written;
+		length -= (size_t) written;
+	}
+	return 0;
+}
+
+/* Reads the given number of bytes entirely, failing on end of stream. */
+static void read_fully(int fd, void *buffer, size_t length) {
+	char *bytes = buffer;
+	while (length > 0) {
+		const ssize_t read_count = read(fd, bytes, length);
+		if (read_count < 0 && errno == EINTR) {
+			continue;
+		}
+		if (read_count <= 0) {
+			if (read_count == 0) {
+				errno = EPIPE;
+			}
+			fail("not valid daemon response");
+		}
+		bytes += read_count;
+		length -= (size_t) read_count;
+	}
+}
+
+/* Reads a big endian integer. */
+static uint32_t read_int(int fd) {
+	unsigned char bytes[4];
+	read_fully(fd, bytes, sizeof(bytes));
+	return ((uint32_t) bytes[0] << 24) | ((uint32_t) bytes[1] << 16) | ((uint32_t) bytes[2] << 8) | bytes[3];
+}
+
+/* Connects to the daemon listening on the given socket file. */
+static int connect_daemon(const char *path) {
+	struct sockaddr_un address;
+	if (strlen(path) >= sizeof(address.sun_path)) {
+		errno = ENAMETOOLONG;
+		fail(path);
+	}
+	memset(&address, 0, sizeof(address));
+	address.sun_family = AF_UNIX;
+	strcpy(address.sun_path, path);
+	const int fd = socket(AF_UNIX, SOCK_STREAM, 0);
+	if (fd < 0) {
+		fail("cannot create socket");
+	}
+	if (connect(fd, (struct sockaddr *) &address, sizeof(address)) < 0) {
+		fail(path);
+	}
+	return fd;
+}
+
+/* Builds the request for the given arguments, current directory and environment. */
+static void build(struct request *request, int argc, char **argv) {
+	char directory[PATH_MAX];
+	if (getcwd(directory, sizeof(directory)) == NULL) {
+		fail("cannot read working directory");
+	}
+	append_int(request, MAGIC);
+	append_int(request, (uint32_t) (argc - 2));
+	for (int i = 2; i < argc; i++) {
+		append_string(request, argv[i], strlen(argv[i]));
+	}
+	append_string(request, directory, strlen(directory));
+	uint32_t count = 0;
+	for (char **variable = environ; *variable != NULL; variable++) {
+		if (strchr(*variable, '=') != NULL) {
+			count++;
+		}
+	}
+	append_int(request, count);
+	for (char **variable = environ; *variable != NULL; variable++) {
+		const char *separator = strchr(*variable, '=');
+		if (separator != NULL) {
+			append_string(request, *variable, (size_t) (separator - *variable));
+			append_string(request, separator + 1, strlen(separator + 1));
+		}
+	}
+}
+
+int main(int argc, char **argv) {
+	if (argc < 2) {
+		fprintf(stderr, "Usage : optionable-client <socket> [arguments...]\n");
+		return EXIT_USAGE_CODE;
+	}
+	struct request request = { NULL, 0, 0 };
+	build(&request, argc, argv);
+	const int fd = connect_daemon(argv[1]);
+	if (write_fully(fd, request.data, request.length) < 0) {
+		fail("cannot send request");
+	}
+	free(request.data);
+	char *payload = malloc(PAYLOAD_SIZE);
+	if (payload == NULL) {
+		fail("cannot allocate response buffer");
+	}
+	while (1) {
+		unsigned char type;
+		read_fully(fd, &type, 1);
+		uint32_t length = read_int(fd);
+		if (type == FRAME_EXIT) {
+			if (length != 4) {
+				errno = EPROTO;
+				fail("not valid daemon response");
+			}
+			const int code = (int) read_int(fd);
+			close(fd);
+			return code;
+		}
+		const int target = type == FRAME_ERR ? STDERR_FILENO : STDOUT_FILENO;
+		while (length > 0) {
+			const size_t chunk = length < PAYLOAD_SIZE ? length : PAYLOAD_SIZE;
+			read_fully(fd, payload, chunk);
+			write_fully(target, payload, chunk);
+			length -= (uint32_t) chunk;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package fr.faylixe.option;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lazily converted option value. {@link Optionable} fields declared as
+ * {@link Lazy} or {@link Supplier} only store the raw command line value
+ * while bootstrapping, conversion being performed on first {@link #get()}
+ * call and memoised for subsequent calls, from any thread.
+ * 
+ * @param <T> Type of the converted value.
+ * @author fv
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+	/** Raw command line value, released once converted. **/
+	private String raw;
+
+	/** Function that converts raw value, released once converted. **/
+	private Function<String, ? extends T> converter;
+
+	/** Converted value. **/
+	private volatile T value;
+
+	/** Indicates if the value has been converted. **/
+	private volatile boolean converted;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param raw Raw command line value.
+	 * @param converter Function that converts raw value.
+	 */
+	Lazy(final String raw, final Function<String, ? extends T> converter) {
+		this.raw = raw;
+		this.converter = converter;
+	}
+
+	/**
+	 * Factory method that creates an already converted instance,
+	 * typically used as field default value.
+	 * 
+	 * @param value Value to wrap.
+	 * @param <T> Type of the wrapped value.
+	 * @return Created instance.
+	 */
+	public static <T> Lazy<T> of(final T value) {
+		final Lazy<T> lazy = new Lazy<>(null, null);
+		lazy.value = value;
+		lazy.converted = true;
+		return lazy;
+	}
+
+	/**
+	 * Indicates if the value has already been converted.
+	 * 
+	 * @return <tt>true</tt> if the value has been converted, <tt>false</tt> otherwise.
+	 */
+	public boolean isConverted() {
+		return converted;
+	}
+
+	/**
+	 * Retrieves the converted value, performing conversion if required.
+	 * If conversion fails, the exception is propagated and conversion will
+	 * be attempted again on next call.
+	 * 
+	 * @return Converted value.
+	 * @throws IllegalArgumentException If the raw value cannot be converted.
+	 */
+	@Override
+	public T get() {
+		if (!converted) {
+			synchronized (this) {
+				if (!converted) {
+					value = converter.apply(raw);
+					converted = true;
+					raw = null;
+					converter = null;
+				}
+			}
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,22 @@
+package fr.faylixe.option;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that defines a field receiving the positional
+ * arguments, or operands, which follow the options. The field
+ * must be declared as {@link Iterable}, {@link java.util.Iterator}
+ * or {@link java.util.stream.Stream}, operands being converted
+ * lazily as they are consumed. A container declares at most
+ * one operands field.
+ * 
+ * @author fv
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Operands {
+
+}
@@ -8,11 +8,13 @@ import java.lang.annotation.Target;
 /**
  * Annotation that defines a field that can
  * be optionalized, namely, filled through
- * command line option.
+ * command line option. Constructor parameters
+ * and record components can also be annotated,
+ * options being then injected at construction.
  * 
  * @author fv
  */
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Optionable {
 
@@ -28,4 +30,12 @@ public @interface Optionable {
 	/** @return <tt>true</tt> if option is optional, <tt>false</tt> otherwise. **/
 	boolean required() default false;
 
+	/**
+	 * Separator of values within a single occurrence of a multi valued option,
+	 * repeating the option being always supported. Ignored for single valued option.
+	 * 
+	 * @return Separator of values, empty if values must not be split.
+	 */
+	String separator() default ",";
+
 }
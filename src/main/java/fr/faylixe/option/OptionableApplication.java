@@ -1,5 +1,8 @@
 package fr.faylixe.option;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Abstract application class based on {@link OptionableContainer}.
  * 
@@ -11,6 +14,9 @@ public abstract class OptionableApplication extends OptionableContainer implemen
 	@Optionable(description="Indicates if the program output should be verbose.")
 	private boolean verbose;
 
+	/** Exit code reported by asynchronous execution. **/
+	private volatile int exitCode;
+
 	/**
 	 * Default constructor.
 	 * 
@@ -29,14 +35,88 @@ public abstract class OptionableApplication extends OptionableContainer implemen
 		return verbose;
 	}
 
+	/**
+	 * Sets the exit code reported by asynchronous execution
+	 * once {@link #run()} returns.
+	 * 
+	 * @param exitCode Exit code of this application.
+	 */
+	protected final void setExitCode(final int exitCode) {
+		this.exitCode = exitCode;
+	}
+
 	/** {@inheritDoc} **/
 	@Override
 	public boolean bootstrap(final String[] args) {
 		final boolean isBoostrapped = super.bootstrap(args);
 		if (isBoostrapped) {
-			run();
+			execute();
 		}
 		return isBoostrapped;
 	}
 
+	/**
+	 * Bootstraps this application asynchronously with the default
+	 * executor, which uses virtual threads when available.
+	 * 
+	 * @param args Command line parameters issued from main method.
+	 * @return Future result of the execution, which completes exceptionally only on {@link Error}.
+	 * @see #bootstrapAsync(String[], Executor)
+	 */
+	public final CompletableFuture<OptionableResult> bootstrapAsync(final String [] args) {
+		return bootstrapAsync(args, OptionableExecutors.getDefault());
+	}
+
+	/**
+	 * Bootstraps this application asynchronously with the given <tt>executor</tt>.
+	 * Errors are not printed but reported through the result, with
+	 * {@link OptionableResult#EXIT_USAGE} exit code for command line parameters
+	 * that are not valid and {@link OptionableResult#EXIT_FAILURE} for a failed
+	 * {@link #run()} execution. An {@link Error}, such as an {@link OutOfMemoryError},
+	 * is not a failure of the application and completes the future exceptionally.
+	 * 
+	 * @param args Command line parameters issued from main method.
+	 * @param executor Executor to bootstrap and run this application with.
+	 * @return Future result of the execution, which completes exceptionally only on {@link Error}.
+	 */
+	public final CompletableFuture<OptionableResult> bootstrapAsync(final String [] args, final Executor executor) {
+		return CompletableFuture.supplyAsync(() -> call(args), executor);
+	}
+
+	/**
+	 * Bootstraps and runs this application on the current thread. Only
+	 * exceptions are reported through the result, errors being propagated.
+	 * 
+	 * @param args Command line parameters issued from main method.
+	 * @return Result of the execution.
+	 */
+	final OptionableResult call(final String [] args) {
+		try {
+			bind(args);
+		}
+		catch (final IllegalAccessException | IllegalArgumentException e) {
+			return new OptionableResult(this, OptionableResult.EXIT_USAGE, e);
+		}
+		catch (final RuntimeException e) {
+			return new OptionableResult(this, OptionableResult.EXIT_FAILURE, e);
+		}
+		try {
+			execute();
+		}
+		catch (final RuntimeException e) {
+			return new OptionableResult(this, OptionableResult.EXIT_FAILURE, e);
+		}
+		return new OptionableResult(this, exitCode, null);
+	}
+
+	/**
+	 * Runs this application, measuring the {@link OptionablePhase#RUN} phase.
+	 */
+	private void execute() {
+		final OptionableRecorder recorder = OptionableRecorder.of(getMetrics(), getClass());
+		recorder.begin(OptionablePhase.RUN);
+		run();
+		recorder.end(0);
+	}
+
 }
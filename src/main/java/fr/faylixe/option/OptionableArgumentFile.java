@@ -0,0 +1,241 @@
+package fr.faylixe.option;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lazy tokenizer over an UTF-8 argument file. The file is read through
+ * memory mapped windows of bounded size, or through a fixed size buffer
+ * for streams which cannot be mapped such as standard input, and tokens
+ * are decoded one at a time, so memory use does not depend on the file size.
+ * <p>
+ * Tokens are separated by whitespaces. Single or double quotes group
+ * characters, including whitespaces, into a single token, backslash
+ * escaping the next character within quotes. A <tt>#</tt> outside of
+ * a token starts a comment which runs to the end of the line.
+ *
+ * @author fv
+ */
+final class OptionableArgumentFile {
+
+	/** Default size of mapped windows. **/
+	static final long DEFAULT_WINDOW = 64L << 20;
+
+	/** Size of the buffer streams are read through. **/
+	private static final int STREAM_BUFFER_SIZE = 64 << 10;
+
+	/** Initial size of the token buffer. **/
+	private static final int INITIAL_TOKEN_SIZE = 64;
+
+	/** Error message for unterminated quote. **/
+	private static final String UNTERMINATED = "Unterminated quote in argument file %s";
+
+	/** End of file marker. **/
+	private static final int EOF = -1;
+
+	/** Path of the file. **/
+	private final Path path;
+
+	/** Size of the file. **/
+	private final long size;
+
+	/** Size of mapped windows. **/
+	private final long window;
+
+	/** Stream to read from, <tt>null</tt> if the file is mapped. **/
+	private final ReadableByteChannel stream;
+
+	/** Offset of the next window to map. **/
+	private long offset;
+
+	/** Currently mapped window, or stream buffer. **/
+	private ByteBuffer buffer;
+
+	/** Reusable buffer for current token bytes. **/
+	private byte [] token;
+
+	/** Length of the current token. **/
+	private int length;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param path Path of the file.
+	 * @param window Size of mapped windows.
+	 * @throws IOException If the file size cannot be read.
+	 */
+	OptionableArgumentFile(final Path path, final long window) throws IOException {
+		this.path = path;
+		this.window = window;
+		this.stream = null;
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			this.size = channel.size();
+		}
+		this.token = new byte[INITIAL_TOKEN_SIZE];
+	}
+
+	/**
+	 * Constructor for streams, which are read sequentially and are not closed.
+	 *
+	 * @param path Path identifying the stream, for error reporting.
+	 * @param stream Stream to read from.
+	 */
+	OptionableArgumentFile(final Path path, final ReadableByteChannel stream) {
+		this.path = path;
+		this.window = STREAM_BUFFER_SIZE;
+		this.size = -1;
+		this.stream = stream;
+		this.token = new byte[INITIAL_TOKEN_SIZE];
+	}
+
+	/** @return Path of the file. **/
+	Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Reads the next byte, mapping the next window if required.
+	 * The channel is only opened while mapping, as mapping
+	 * remains valid once the channel is closed.
+	 *
+	 * @return Next byte, or {@link #EOF} if the end of file has been reached.
+	 * @throws IOException If the next window cannot be mapped.
+	 */
+	private int read() throws IOException {
+		if (buffer == null || !buffer.hasRemaining()) {
+			if (stream != null) {
+				return fill();
+			}
+			if (offset >= size) {
+				return EOF;
+			}
+			final long mapped = Math.min(window, size - offset);
+			try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				buffer = channel.map(MapMode.READ_ONLY, offset, mapped);
+			}
+			offset += mapped;
+		}
+		return buffer.get() & 0xFF;
+	}
+
+	/**
+	 * Refills the stream buffer, then reads its first byte.
+	 *
+	 * @return Next byte, or {@link #EOF} if the end of stream has been reached.
+	 * @throws IOException If the stream cannot be read.
+	 */
+	private int fill() throws IOException {
+		if (buffer == null) {
+			buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+		}
+		// Called through Buffer, as ByteBuffer overloads do not exist on Java 8.
+		((Buffer) buffer).clear();
+		int read = 0;
+		while (read == 0) {
+			read = stream.read(buffer);
+		}
+		((Buffer) buffer).flip();
+		return read < 0 ? EOF : buffer.get() & 0xFF;
+	}
+
+	/**
+	 * Appends the given byte to the current token.
+	 *
+	 * @param value Byte to append.
+	 */
+	private void append(final int value) {
+		if (length == token.length) {
+			token = Arrays.copyOf(token, length * 2);
+		}
+		token[length++] = (byte) value;
+	}
+
+	/**
+	 * Indicates if the given byte is a whitespace.
+	 *
+	 * @param value Byte to check.
+	 * @return <tt>true</tt> if the given byte is a whitespace, <tt>false</tt> otherwise.
+	 */
+	private static boolean isWhitespace(final int value) {
+		return value == ' ' || value == '\t' || value == '\n' || value == '\r' || value == '\f';
+	}
+
+	/**
+	 * Translates the given escaped character.
+	 *
+	 * @param value Character following a backslash.
+	 * @return Translated character.
+	 */
+	private static int unescape(final int value) {
+		switch (value) {
+			case 'n':
+				return '\n';
+			case 't':
+				return '\t';
+			case 'r':
+				return '\r';
+			case 'f':
+				return '\f';
+			default:
+				return value;
+		}
+	}
+
+	/**
+	 * Reads the next token.
+	 *
+	 * @return Next token, or <tt>null</tt> if the end of file has been reached.
+	 * @throws IOException If the file cannot be read.
+	 * @throws IllegalArgumentException If a quote is not terminated.
+	 */
+	String next() throws IOException {
+		int current = read();
+		while (isWhitespace(current) || current == '#') {
+			if (current == '#') {
+				while (current != EOF && current != '\n' && current != '\r') {
+					current = read();
+				}
+			}
+			else {
+				current = read();
+			}
+		}
+		if (current == EOF) {
+			return null;
+		}
+		length = 0;
+		int quote = 0;
+		while (current != EOF && (quote != 0 || !isWhitespace(current))) {
+			if (quote == 0 && (current == '"' || current == '\'')) {
+				quote = current;
+			}
+			else if (current == quote) {
+				quote = 0;
+			}
+			else if (quote != 0 && current == '\\') {
+				current = read();
+				if (current == EOF) {
+					break;
+				}
+				append(unescape(current));
+			}
+			else {
+				append(current);
+			}
+			current = read();
+		}
+		if (quote != 0) {
+			throw new IllegalArgumentException(String.format(UNTERMINATED, path));
+		}
+		return new String(token, 0, length, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,187 @@
+package fr.faylixe.option;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over command line arguments that expands <tt>@file</tt>
+ * arguments into the tokens of the denoted file. Files are tokenized
+ * lazily, while iterating, and may themselves reference other argument
+ * files. A leading <tt>@@</tt> escapes a literal argument starting with
+ * <tt>@</tt>, and <tt>@-</tt> reads tokens from standard input.
+ *
+ * @author fv
+ */
+public final class OptionableArguments implements Iterator<String> {
+
+	/** Argument file prefix. **/
+	private static final char FILE_PREFIX = '@';
+
+	/** Argument file name denoting standard input. **/
+	private static final String STANDARD_INPUT = "-";
+
+	/** Error message for unreadable argument file. **/
+	private static final String NOT_READABLE = "Unable to read argument file %s";
+
+	/** Error message for standard input read on behalf of another process. **/
+	private static final String NOT_LOCAL = "Standard input of a remote client cannot be read";
+
+	/** Error message for recursive argument file. **/
+	private static final String RECURSIVE = "Recursive argument file %s";
+
+	/** Command line arguments. **/
+	private final String [] args;
+
+	/** Size of argument file mapped windows. **/
+	private final long window;
+
+	/** Argument files being read, innermost first. **/
+	private final Deque<OptionableArgumentFile> files;
+
+	/** Index of the next command line argument. **/
+	private int index;
+
+	/** Next token if already read. **/
+	private String next;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param args Command line arguments to expand.
+	 */
+	public OptionableArguments(final String [] args) {
+		this(args, OptionableArgumentFile.DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Constructor with custom mapping window.
+	 *
+	 * @param args Command line arguments to expand.
+	 * @param window Size of argument file mapped windows.
+	 */
+	OptionableArguments(final String [] args, final long window) {
+		this.args = args;
+		this.window = window;
+		this.files = new ArrayDeque<>();
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			next = advance();
+		}
+		return next != null;
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final String token = next;
+		next = null;
+		return token;
+	}
+
+	/**
+	 * Reads the next token, opening argument files as they are met.
+	 *
+	 * @return Next token, or <tt>null</tt> if all arguments have been read.
+	 * @throws IllegalArgumentException If an argument file cannot be read.
+	 */
+	private String advance() {
+		while (true) {
+			final String token = read();
+			if (token == null) {
+				return null;
+			}
+			if (token.length() < 2 || token.charAt(0) != FILE_PREFIX) {
+				return token;
+			}
+			if (token.charAt(1) == FILE_PREFIX) {
+				return token.substring(1);
+			}
+			final String name = token.substring(1);
+			if (STANDARD_INPUT.equals(name)) {
+				openStandardInput();
+			}
+			else {
+				open(OptionableContext.getWorkingDirectory().resolve(name));
+			}
+		}
+	}
+
+	/**
+	 * Reads the next raw token, from the innermost argument file
+	 * or from command line once all files have been read.
+	 *
+	 * @return Next raw token, or <tt>null</tt> if all arguments have been read.
+	 * @throws IllegalArgumentException If an argument file cannot be read.
+	 */
+	private String read() {
+		while (!files.isEmpty()) {
+			final OptionableArgumentFile file = files.peek();
+			try {
+				final String token = file.next();
+				if (token != null) {
+					return token;
+				}
+			}
+			catch (final IOException e) {
+				throw new IllegalArgumentException(String.format(NOT_READABLE, file.getPath()), e);
+			}
+			files.pop();
+		}
+		return index < args.length ? args[index++] : null;
+	}
+
+	/**
+	 * Opens standard input as an argument file. Within a context, such as a
+	 * daemon request, standard input is the host one rather than the client
+	 * one, and is therefore not read.
+	 *
+	 * @throws IllegalArgumentException If standard input is already being read, or belongs to another process.
+	 */
+	private void openStandardInput() {
+		if (OptionableContext.isEntered()) {
+			throw new IllegalArgumentException(NOT_LOCAL);
+		}
+		final Path path = Paths.get(STANDARD_INPUT);
+		for (final OptionableArgumentFile file : files) {
+			if (file.getPath().equals(path)) {
+				throw new IllegalArgumentException(String.format(RECURSIVE, STANDARD_INPUT));
+			}
+		}
+		files.push(new OptionableArgumentFile(path, Channels.newChannel(System.in)));
+	}
+
+	/**
+	 * Opens the given argument file.
+	 *
+	 * @param path Path of the file to open.
+	 * @throws IllegalArgumentException If the file cannot be read or is already being read.
+	 */
+	private void open(final Path path) {
+		try {
+			final Path real = path.toRealPath();
+			for (final OptionableArgumentFile file : files) {
+				if (file.getPath().equals(real)) {
+					throw new IllegalArgumentException(String.format(RECURSIVE, path));
+				}
+			}
+			files.push(new OptionableArgumentFile(real, window));
+		}
+		catch (final IOException e) {
+			throw new IllegalArgumentException(String.format(NOT_READABLE, path), e);
+		}
+	}
+
+}
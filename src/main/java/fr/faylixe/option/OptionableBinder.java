@@ -0,0 +1,36 @@
+package fr.faylixe.option;
+
+/**
+ * A {@link OptionableBinder} assigns option values directly into
+ * the fields of a given container class, without going through
+ * reflection. Implementations are generated at compile time by
+ * {@link fr.faylixe.option.processor.OptionableProcessor} and named
+ * after the container binary name followed by {@link #SUFFIX}.
+ * 
+ * @author fv
+ */
+public interface OptionableBinder {
+
+	/** Suffix appended to container class binary name for naming its binder. **/
+	String SUFFIX = "$$OptionableBinder";
+
+	/**
+	 * Retrieves the binding index of the given field.
+	 * 
+	 * @param field Name of the field declared by the container class.
+	 * @return Index of the field, or <tt>-1</tt> if the field is not handled by this binder.
+	 */
+	int indexOf(String field);
+
+	/**
+	 * Converts and assigns the given <tt>value</tt> into
+	 * the field denoted by the given <tt>index</tt>.
+	 * 
+	 * @param receiver Target container instance.
+	 * @param index Field index as returned by {@link #indexOf(String)}.
+	 * @param value Value retrieved from command line, <tt>null</tt> for flags.
+	 * @throws IllegalArgumentException If the given <tt>value</tt> cannot be converted.
+	 */
+	void bind(Object receiver, int index, String value);
+
+}
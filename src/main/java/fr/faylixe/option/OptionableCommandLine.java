@@ -0,0 +1,89 @@
+package fr.faylixe.option;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.UnrecognizedOptionException;
+
+/**
+ * Bootstrapping implementation for the {@link OptionableEngine#COMMONS_CLI}
+ * engine. Kept apart from {@link OptionableContainer} so that Apache Commons CLI
+ * classes are only loaded when this engine is selected.
+ * 
+ * @author fv
+ */
+final class OptionableCommandLine {
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableCommandLine() {
+		// Do nothing.
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and fills the given <tt>receiver</tt> fields.
+	 * 
+	 * @param fields Fields of the <tt>receiver</tt> class.
+	 * @param args Command line parameters, materialized before parsing.
+	 * @param receiver Target container instance.
+	 * @return Arguments which are not options, to be bound as operands.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	static Iterator<String> bind(
+			final List<OptionableField> fields,
+			final Iterator<String> args,
+			final Object receiver) throws IllegalAccessException {
+		final CommandLineParser parser = new DefaultParser();
+		final List<String> tokens = new ArrayList<>();
+		args.forEachRemaining(tokens::add);
+		final CommandLine command;
+		try {
+			command = parser.parse(getOptions(fields), tokens.toArray(new String[tokens.size()]));
+		}
+		catch (final UnrecognizedOptionException e) {
+			throw new OptionableUnknownOptionException(e.getOption(), e);
+		}
+		catch (final ParseException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+		for (final OptionableField field : fields) {
+			field.validate(command, receiver);
+		}
+		return command.getArgList().iterator();
+	}
+
+	/**
+	 * Prints the help message of the given <tt>fields</tt> to standard output.
+	 * 
+	 * @param fields Fields to print help for.
+	 * @param usage Container usage description.
+	 */
+	static void printHelp(final List<OptionableField> fields, final String usage) {
+		new HelpFormatter().printHelp(usage, getOptions(fields));
+	}
+
+	/**
+	 * Converts the given <tt>fields</tt> into options.
+	 * 
+	 * @param fields Fields to convert.
+	 * @return Created options.
+	 */
+	private static Options getOptions(final List<OptionableField> fields) {
+		final Options options = new Options();
+		fields
+			.stream()
+			.map(OptionableField::toOption)
+			.forEach(options::addOption);
+		return options;
+	}
+
+}
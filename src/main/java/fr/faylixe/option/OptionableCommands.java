@@ -0,0 +1,218 @@
+package fr.faylixe.option;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of subcommands, which dispatches command line parameters to
+ * the container registered under the name given as first parameter.
+ * Commands are registered by class name or by factory, so that only the
+ * selected command class is loaded and has its schema built, whatever the
+ * number of registered commands is.
+ * <p>
+ * Classes annotated with {@link Subcommand} are recorded at compile time
+ * into the {@link #TABLE} resource, which is read by {@link #load(ClassLoader)}.
+ * 
+ * @author fv
+ */
+public final class OptionableCommands {
+
+	/** Resource listing {@link Subcommand} classes, as <tt>name=binaryName</tt> lines. **/
+	public static final String TABLE = "META-INF/option/commands";
+
+	/** Error message for duplicate command. **/
+	private static final String DUPLICATE = "Command %s is already registered";
+
+	/** Error message for missing command. **/
+	private static final String MISSING_COMMAND = "Missing command";
+
+	/** Error message for unknown command. **/
+	private static final String UNKNOWN_COMMAND = "Unknown command: %s";
+
+	/** Error message for command that cannot be created. **/
+	private static final String NOT_CREATED = "Unable to create command %s";
+
+	/** Error message for not readable command table. **/
+	private static final String NOT_READABLE = "Unable to read command table %s";
+
+	/** Command factories indexed by name. **/
+	private final Map<String, Supplier<? extends OptionableContainer>> commands;
+
+	/** Class loader used for loading commands registered by class name. **/
+	private final ClassLoader loader;
+
+	/**
+	 * Default constructor.
+	 */
+	public OptionableCommands() {
+		this(OptionableCommands.class.getClassLoader());
+	}
+
+	/**
+	 * Constructor with custom class loader.
+	 * 
+	 * @param loader Class loader used for loading commands registered by class name.
+	 */
+	public OptionableCommands(final ClassLoader loader) {
+		this.commands = new HashMap<>();
+		this.loader = loader;
+	}
+
+	/**
+	 * Creates a registry from all {@link #TABLE} resources
+	 * visible from the given <tt>loader</tt>.
+	 * 
+	 * @param loader Class loader to read tables and load commands from.
+	 * @return Created registry.
+	 * @throws IllegalStateException If a table cannot be read or a command name is duplicated.
+	 */
+	public static OptionableCommands load(final ClassLoader loader) {
+		final OptionableCommands commands = new OptionableCommands(loader);
+		try {
+			final Enumeration<URL> tables = loader.getResources(TABLE);
+			while (tables.hasMoreElements()) {
+				commands.read(tables.nextElement());
+			}
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(String.format(NOT_READABLE, TABLE), e);
+		}
+		return commands;
+	}
+
+	/**
+	 * Registers the commands listed in the given <tt>table</tt>.
+	 * 
+	 * @param table Table to read.
+	 * @throws IllegalStateException If the table cannot be read or a command name is duplicated.
+	 */
+	private void read(final URL table) {
+		try (final BufferedReader reader = new BufferedReader(new InputStreamReader(table.openStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int separator = line.indexOf('=');
+				if (separator > 0) {
+					register(line.substring(0, separator), line.substring(separator + 1));
+				}
+			}
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(String.format(NOT_READABLE, table), e);
+		}
+	}
+
+	/**
+	 * Registers a command by class name. The class is neither loaded nor
+	 * initialized until the command is selected, and must declare
+	 * a constructor without parameter.
+	 * 
+	 * @param name Name of the command.
+	 * @param className Binary name of the command class.
+	 * @return This registry.
+	 * @throws IllegalStateException If a command is already registered with the given <tt>name</tt>.
+	 */
+	public OptionableCommands register(final String name, final String className) {
+		return register(name, () -> create(name, className));
+	}
+
+	/**
+	 * Registers a command by factory.
+	 * 
+	 * @param name Name of the command.
+	 * @param factory Factory of the command container.
+	 * @return This registry.
+	 * @throws IllegalStateException If a command is already registered with the given <tt>name</tt>.
+	 */
+	public OptionableCommands register(final String name, final Supplier<? extends OptionableContainer> factory) {
+		if (commands.putIfAbsent(name, factory) != null) {
+			throw new IllegalStateException(String.format(DUPLICATE, name));
+		}
+		return this;
+	}
+
+	/** @return Unmodifiable set of registered command names. **/
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(commands.keySet());
+	}
+
+	/**
+	 * Creates the container of the given command.
+	 * 
+	 * @param name Name of the command.
+	 * @return Created container, <tt>null</tt> if no command is registered with the given <tt>name</tt>.
+	 * @throws IllegalStateException If the command container cannot be created.
+	 */
+	public OptionableContainer get(final String name) {
+		final Supplier<? extends OptionableContainer> factory = commands.get(name);
+		return factory == null ? null : factory.get();
+	}
+
+	/**
+	 * Bootstraps the command named by the first of the given <tt>args</tt>
+	 * with the remaining ones. Available commands are printed if the
+	 * command is missing or unknown.
+	 * 
+	 * @param args Command line parameters issued from main method.
+	 * @return <tt>true</tt> if the bootstrapping went well, <tt>false</tt> otherwise.
+	 * @throws IllegalStateException If the command container cannot be created.
+	 */
+	public boolean bootstrap(final String [] args) {
+		final OptionableContainer container = args.length == 0 ? null : get(args[0]);
+		if (container == null) {
+			System.err.println(OptionableContainer.PARSING_ERROR + (args.length == 0 ? MISSING_COMMAND : String.format(UNKNOWN_COMMAND, args[0])));
+			printHelp(System.out);
+			return false;
+		}
+		return container.bootstrap(Arrays.copyOfRange(args, 1, args.length));
+	}
+
+	/**
+	 * Prints available commands.
+	 * 
+	 * @param stream Stream to print commands into.
+	 */
+	public void printHelp(final PrintStream stream) {
+		stream.println("commands:");
+		for (final String name : new TreeMap<>(commands).keySet()) {
+			stream.println("  " + name);
+		}
+	}
+
+	/**
+	 * Loads the given command class and creates an instance.
+	 * 
+	 * @param name Name of the command.
+	 * @param className Binary name of the command class.
+	 * @return Created container.
+	 * @throws IllegalStateException If the command container cannot be created.
+	 */
+	private OptionableContainer create(final String name, final String className) {
+		try {
+			final Class<? extends OptionableContainer> type = Class
+					.forName(className, true, loader)
+					.asSubclass(OptionableContainer.class);
+			final Constructor<? extends OptionableContainer> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		}
+		catch (final ReflectiveOperationException | ClassCastException e) {
+			final Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+			throw new IllegalStateException(String.format(NOT_CREATED, name), cause);
+		}
+	}
+
+}
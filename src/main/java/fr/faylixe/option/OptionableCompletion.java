@@ -0,0 +1,331 @@
+package fr.faylixe.option;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Generates bash and zsh completion scripts from an {@link OptionableSchema}.
+ * Scripts are self contained, so that completing does not start any JVM :
+ * long and short option names are completed, as well as enumeration constants
+ * and files for path options.
+ * <p>
+ * Installed scripts start with a hash of the schema they have been generated
+ * from, so that {@link #install(Shell, String, Path)} only rewrites a script
+ * when the schema has changed and can be called on each application startup.
+ * 
+ * @author fv
+ */
+public final class OptionableCompletion {
+
+	/** Version of generated scripts layout, part of the schema hash. **/
+	private static final int VERSION = 1;
+
+	/** Header line prefix holding the schema hash. **/
+	private static final String HEADER = "# optionable schema ";
+
+	/** Number of hash bytes kept. **/
+	private static final int HASH_LENGTH = 8;
+
+	/** Digest algorithm used for hashing schemas. **/
+	private static final String ALGORITHM = "SHA-256";
+
+	/** Supported shells. **/
+	public enum Shell {
+
+		/** Bash shell, through the <tt>complete</tt> builtin. **/
+		BASH,
+
+		/** Zsh shell, through the <tt>_arguments</tt> completion function. **/
+		ZSH;
+
+		/**
+		 * Retrieves the conventional script file name for the given <tt>program</tt>.
+		 * 
+		 * @param program Name of the completed program.
+		 * @return Script file name.
+		 */
+		public String getFileName(final String program) {
+			return this == BASH ? program + ".bash" : "_" + program;
+		}
+
+	}
+
+	/** Fields of the completed schema. **/
+	private final List<OptionableField> fields;
+
+	/** Hash of the completed schema. **/
+	private final String hash;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param schema Completed schema.
+	 */
+	private OptionableCompletion(final OptionableSchema schema) {
+		this.fields = schema.getFields();
+		this.hash = hash(fields);
+	}
+
+	/**
+	 * Creates the completion of the given container <tt>type</tt>.
+	 * 
+	 * @param type Container class to complete options for.
+	 * @return Created completion.
+	 */
+	public static OptionableCompletion of(final Class<?> type) {
+		return new OptionableCompletion(OptionableSchema.of(type));
+	}
+
+	/** @return Hash of the completed schema, changing whenever generated scripts would. **/
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * Generates the completion script for the given <tt>shell</tt>.
+	 * 
+	 * @param shell Shell to generate script for.
+	 * @param program Name of the completed program.
+	 * @return Generated script.
+	 */
+	public String generate(final Shell shell, final String program) {
+		final StringBuilder builder = new StringBuilder();
+		if (shell == Shell.ZSH) {
+			builder.append("#compdef ").append(program).append('\n');
+		}
+		builder.append(HEADER).append(hash).append('\n');
+		if (shell == Shell.BASH) {
+			generateBash(builder, program);
+		}
+		else {
+			generateZsh(builder);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes the completion script for the given <tt>shell</tt> into the given
+	 * <tt>directory</tt>, unless the installed script has been generated from
+	 * the same schema.
+	 * 
+	 * @param shell Shell to generate script for.
+	 * @param program Name of the completed program.
+	 * @param directory Directory to install script into, created if missing.
+	 * @return Path of the installed script.
+	 * @throws IOException If the script cannot be written.
+	 */
+	public Path install(final Shell shell, final String program, final Path directory) throws IOException {
+		final Path script = directory.resolve(shell.getFileName(program));
+		if (!hash.equals(readHash(script))) {
+			Files.createDirectories(directory);
+			final Path temporary = Files.createTempFile(directory, script.getFileName().toString(), ".tmp");
+			try {
+				Files.write(temporary, generate(shell, program).getBytes(StandardCharsets.UTF_8));
+				Files.move(temporary, script, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		return script;
+	}
+
+	/**
+	 * Reads the schema hash of the given installed <tt>script</tt>.
+	 * 
+	 * @param script Installed script.
+	 * @return Schema hash, <tt>null</tt> if the script does not exist or has no hash.
+	 * @throws IOException If the script cannot be read.
+	 */
+	private static String readHash(final Path script) throws IOException {
+		try (final BufferedReader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+			for (int i = 0; i < 2; i++) {
+				final String line = reader.readLine();
+				if (line != null && line.startsWith(HEADER)) {
+					return line.substring(HEADER.length());
+				}
+			}
+			return null;
+		}
+		catch (final NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Computes the hash of the given <tt>fields</tt>, over all
+	 * properties which are part of generated scripts.
+	 * 
+	 * @param fields Fields to hash.
+	 * @return Hexadecimal hash.
+	 */
+	private static String hash(final List<OptionableField> fields) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		final StringBuilder builder = new StringBuilder().append(VERSION).append('\n');
+		for (final OptionableField field : fields) {
+			builder
+				.append(field.getShortName()).append('\0')
+				.append(field.getLongName()).append('\0')
+				.append(field.getDescription()).append('\0')
+				.append(field.isFlag()).append('\0')
+				.append(field.isMultiple()).append('\0')
+				.append(getValueName(field)).append('\0')
+				.append(String.join(" ", getCandidates(field))).append('\n');
+		}
+		final byte [] bytes = digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+		final StringBuilder hex = new StringBuilder();
+		for (int i = 0; i < HASH_LENGTH; i++) {
+			hex.append(String.format("%02x", bytes[i]));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Indicates if values of the given <tt>field</tt> are files.
+	 * 
+	 * @param field Field to check.
+	 * @return <tt>true</tt> if values are paths or files, <tt>false</tt> otherwise.
+	 */
+	private static boolean isFile(final OptionableField field) {
+		final Class<?> type = field.getValueType();
+		return type == Path.class || type == File.class;
+	}
+
+	/**
+	 * Retrieves the value name of the given <tt>field</tt>, from its value type.
+	 * 
+	 * @param field Field to get value name for.
+	 * @return Lower case value type simple name.
+	 */
+	private static String getValueName(final OptionableField field) {
+		return field.getValueType().getSimpleName().toLowerCase();
+	}
+
+	/**
+	 * Retrieves the value candidates of the given <tt>field</tt>.
+	 * 
+	 * @param field Field to get candidates for.
+	 * @return Enumeration constant names, empty if values are not enumerated.
+	 */
+	private static String [] getCandidates(final OptionableField field) {
+		final Object [] constants = field.getValueType().getEnumConstants();
+		if (constants == null) {
+			return new String[0];
+		}
+		final String [] candidates = new String[constants.length];
+		for (int i = 0; i < constants.length; i++) {
+			candidates[i] = ((Enum<?>) constants[i]).name();
+		}
+		return candidates;
+	}
+
+	/**
+	 * Generates the bash completion function.
+	 * 
+	 * @param builder Builder to append script to.
+	 * @param program Name of the completed program.
+	 */
+	private void generateBash(final StringBuilder builder, final String program) {
+		final String function = "_" + program.replaceAll("[^A-Za-z0-9_]", "_") + "_completion";
+		final StringBuilder options = new StringBuilder();
+		builder
+			.append(function).append("() {\n")
+			.append("\tlocal cur=\"${COMP_WORDS[COMP_CWORD]}\"\n")
+			.append("\tlocal prev=\"${COMP_WORDS[COMP_CWORD-1]}\"\n")
+			.append("\tcase \"$prev\" in\n");
+		for (final OptionableField field : fields) {
+			final String names = "-" + field.getShortName() + " --" + field.getLongName();
+			options.append(options.length() == 0 ? "" : " ").append(names);
+			if (field.isFlag()) {
+				continue;
+			}
+			builder.append("\t\t").append(names.replace(' ', '|')).append(")\n");
+			final String [] candidates = getCandidates(field);
+			if (candidates.length > 0) {
+				builder.append("\t\t\tCOMPREPLY=( $(compgen -W \"").append(String.join(" ", candidates)).append("\" -- \"$cur\") )\n");
+			}
+			else if (isFile(field)) {
+				builder.append("\t\t\tCOMPREPLY=( $(compgen -f -- \"$cur\") )\n");
+			}
+			else {
+				builder.append("\t\t\tCOMPREPLY=()\n");
+			}
+			builder.append("\t\t\treturn 0\n\t\t\t;;\n");
+		}
+		builder
+			.append("\tesac\n")
+			.append("\tCOMPREPLY=( $(compgen -W \"").append(options).append("\" -- \"$cur\") )\n")
+			.append("}\n")
+			.append("complete -o default -F ").append(function).append(' ').append(program).append('\n');
+	}
+
+	/**
+	 * Generates the zsh completion function body.
+	 * 
+	 * @param builder Builder to append script to.
+	 */
+	private void generateZsh(final StringBuilder builder) {
+		builder.append("_arguments -s");
+		for (final OptionableField field : fields) {
+			final String shortName = "-" + field.getShortName();
+			final String longName = "--" + field.getLongName();
+			builder.append(" \\\n\t'");
+			if (field.isMultiple()) {
+				builder.append('*');
+			}
+			else {
+				builder.append('(').append(shortName).append(' ').append(longName).append(')');
+			}
+			builder
+				.append("'{").append(shortName).append(',').append(longName).append("}'[")
+				.append(escapeZsh(field.getDescription())).append(']');
+			if (!field.isFlag()) {
+				builder.append(':').append(getValueName(field)).append(':');
+				final String [] candidates = getCandidates(field);
+				if (candidates.length > 0) {
+					builder.append('(').append(String.join(" ", candidates)).append(')');
+				}
+				else if (isFile(field)) {
+					builder.append("_files");
+				}
+				else {
+					builder.append(' ');
+				}
+			}
+			builder.append('\'');
+		}
+		builder.append('\n');
+	}
+
+	/**
+	 * Escapes the given option <tt>description</tt> for a single
+	 * quoted zsh <tt>_arguments</tt> specification.
+	 * 
+	 * @param description Description to escape.
+	 * @return Escaped description.
+	 */
+	private static String escapeZsh(final String description) {
+		return description
+				.replace("\\", "\\\\")
+				.replace("[", "\\[")
+				.replace("]", "\\]")
+				.replace(":", "\\:")
+				.replace("'", "'\\''");
+	}
+
+}
@@ -0,0 +1,328 @@
+package fr.faylixe.option;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+/**
+ * Constructor used for creating option holders from parsed values. For
+ * records, this is the canonical constructor and every component is an
+ * option. For other classes, this is the constructor declaring {@link Optionable}
+ * parameters if any, and the no argument constructor otherwise.
+ * <p>
+ * The constructor is resolved once per class and invoked through a cached
+ * spreading handle, so that creating an instance does not perform any
+ * reflective lookup nor any per field write for parameter options.
+ *
+ * @author fv
+ */
+final class OptionableConstructor {
+
+	/** Name of the records base class. **/
+	private static final String RECORD = "java.lang.Record";
+
+	/** Error message for class without usable constructor. **/
+	private static final String NOT_INSTANTIABLE = "No option constructor found for %s";
+
+	/** Error message for class with several option constructors. **/
+	private static final String AMBIGUOUS = "Several constructors of %s declare options";
+
+	/** Error message for record components that cannot be read. **/
+	private static final String NOT_READABLE = "Unable to read record components of %s";
+
+	/** Constructor cache, resolved once per class. **/
+	private static final ClassValue<OptionableConstructor> CONSTRUCTORS = new ClassValue<OptionableConstructor>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected OptionableConstructor computeValue(final Class<?> type) {
+			return new OptionableConstructor(type);
+		}
+
+	};
+
+	/** Indicates if the resolved constructor parameters are options. **/
+	private final boolean injected;
+
+	/** Indicates if all parameters are options, whether annotated or not. **/
+	private final boolean record;
+
+	/** Names of parameters, <tt>null</tt> for unnamed ones. **/
+	private final String [] names;
+
+	/** Types of parameters. **/
+	private final Class<?> [] types;
+
+	/** Generic types of parameters. **/
+	private final Type [] genericTypes;
+
+	/** Option annotations of parameters, <tt>null</tt> for not annotated ones. **/
+	private final Optionable [] optionables;
+
+	/** Default values of parameters, namely <tt>null</tt> or primitive zero. **/
+	private final Object [] defaults;
+
+	/** Constructor handle, taking spread arguments array. **/
+	private final MethodHandle handle;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param type Class to resolve constructor for.
+	 * @throws IllegalStateException If no constructor can be used.
+	 */
+	private OptionableConstructor(final Class<?> type) {
+		this.record = isRecord(type);
+		final Constructor<?> constructor;
+		final Parameter [] elements;
+		if (record) {
+			final Object [] components = getRecordComponents(type);
+			final int count = components.length;
+			this.names = new String[count];
+			this.types = new Class<?>[count];
+			this.genericTypes = new Type[count];
+			try {
+				final Class<?> componentType = components.getClass().getComponentType();
+				final Method getName = componentType.getMethod("getName");
+				final Method getType = componentType.getMethod("getType");
+				final Method getGenericType = componentType.getMethod("getGenericType");
+				for (int i = 0; i < count; i++) {
+					names[i] = (String) getName.invoke(components[i]);
+					types[i] = (Class<?>) getType.invoke(components[i]);
+					genericTypes[i] = (Type) getGenericType.invoke(components[i]);
+				}
+				constructor = type.getDeclaredConstructor(types);
+				elements = constructor.getParameters();
+			}
+			catch (final ReflectiveOperationException e) {
+				throw new IllegalStateException(String.format(NOT_READABLE, type.getName()), e);
+			}
+		}
+		else {
+			constructor = findConstructor(type);
+			final Parameter [] parameters = constructor.getParameters();
+			this.names = new String[parameters.length];
+			this.types = constructor.getParameterTypes();
+			this.genericTypes = constructor.getGenericParameterTypes();
+			elements = parameters;
+			for (int i = 0; i < parameters.length; i++) {
+				names[i] = parameters[i].isNamePresent() ? parameters[i].getName() : null;
+			}
+		}
+		this.optionables = new Optionable[elements.length];
+		this.defaults = new Object[elements.length];
+		boolean annotated = false;
+		for (int i = 0; i < elements.length; i++) {
+			optionables[i] = elements[i].getAnnotation(Optionable.class);
+			annotated |= optionables[i] != null;
+			defaults[i] = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+		}
+		this.injected = record || annotated;
+		try {
+			constructor.setAccessible(true);
+			this.handle = MethodHandles
+					.lookup()
+					.unreflectConstructor(constructor)
+					.asSpreader(Object[].class, types.length)
+					.asType(MethodType.methodType(Object.class, Object[].class));
+		}
+		catch (final IllegalAccessException | RuntimeException e) {
+			throw new IllegalStateException(String.format(NOT_INSTANTIABLE, type.getName()), e);
+		}
+	}
+
+	/**
+	 * Retrieves the constructor of the given <tt>type</tt>.
+	 *
+	 * @param type Class to retrieve constructor for.
+	 * @return Cached constructor.
+	 * @throws IllegalStateException If no constructor can be used.
+	 */
+	static OptionableConstructor of(final Class<?> type) {
+		return CONSTRUCTORS.get(type);
+	}
+
+	/**
+	 * Indicates if options of the given <tt>type</tt> are constructor
+	 * parameters, namely if it is a record or if one of its constructors
+	 * declares {@link Optionable} parameters.
+	 *
+	 * @param type Class to check.
+	 * @return <tt>true</tt> if options are constructor parameters, <tt>false</tt> if they are fields.
+	 */
+	static boolean isInjected(final Class<?> type) {
+		if (isRecord(type)) {
+			return true;
+		}
+		for (final Constructor<?> constructor : type.getDeclaredConstructors()) {
+			if (isAnnotated(constructor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Indicates if the given <tt>type</tt> is a record.
+	 *
+	 * @param type Class to check.
+	 * @return <tt>true</tt> if the given <tt>type</tt> is a record, <tt>false</tt> otherwise.
+	 */
+	private static boolean isRecord(final Class<?> type) {
+		final Class<?> parent = type.getSuperclass();
+		return parent != null && RECORD.equals(parent.getName());
+	}
+
+	/**
+	 * Indicates if one of the given <tt>constructor</tt> parameters is annotated.
+	 *
+	 * @param constructor Constructor to check.
+	 * @return <tt>true</tt> if a parameter is {@link Optionable}, <tt>false</tt> otherwise.
+	 */
+	private static boolean isAnnotated(final Constructor<?> constructor) {
+		for (final Annotation [] annotations : constructor.getParameterAnnotations()) {
+			for (final Annotation annotation : annotations) {
+				if (annotation instanceof Optionable) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the constructor declaring {@link Optionable} parameters,
+	 * or the no argument constructor if there is none.
+	 *
+	 * @param type Class to find constructor for.
+	 * @return Found constructor.
+	 * @throws IllegalStateException If no or several constructors can be used.
+	 */
+	private static Constructor<?> findConstructor(final Class<?> type) {
+		Constructor<?> found = null;
+		Constructor<?> fallback = null;
+		for (final Constructor<?> constructor : type.getDeclaredConstructors()) {
+			if (isAnnotated(constructor)) {
+				if (found != null) {
+					throw new IllegalStateException(String.format(AMBIGUOUS, type.getName()));
+				}
+				found = constructor;
+			}
+			else if (constructor.getParameterCount() == 0) {
+				fallback = constructor;
+			}
+		}
+		if (found == null && fallback == null) {
+			throw new IllegalStateException(String.format(NOT_INSTANTIABLE, type.getName()));
+		}
+		return found == null ? fallback : found;
+	}
+
+	/**
+	 * Reads the components of the given record <tt>type</tt>. Records
+	 * are only available since Java 16, and are therefore read reflectively.
+	 *
+	 * @param type Record class.
+	 * @return Record components.
+	 * @throws IllegalStateException If components cannot be read.
+	 */
+	private static Object [] getRecordComponents(final Class<?> type) {
+		try {
+			return (Object []) Class.class.getMethod("getRecordComponents").invoke(type);
+		}
+		catch (final ReflectiveOperationException e) {
+			throw new IllegalStateException(String.format(NOT_READABLE, type.getName()), e);
+		}
+	}
+
+	/** @return <tt>true</tt> if constructor parameters are options, <tt>false</tt> otherwise. **/
+	boolean isInjected() {
+		return injected;
+	}
+
+	/** @return Number of constructor parameters. **/
+	int getParameterCount() {
+		return types.length;
+	}
+
+	/**
+	 * Indicates if the parameter at the given <tt>position</tt> is an option.
+	 *
+	 * @param position Position of the parameter.
+	 * @return <tt>true</tt> if the parameter is an option, <tt>false</tt> otherwise.
+	 */
+	boolean isOption(final int position) {
+		return record || optionables[position] != null;
+	}
+
+	/**
+	 * Retrieves the name of the parameter at the given <tt>position</tt>.
+	 *
+	 * @param position Position of the parameter.
+	 * @return Parameter name, <tt>null</tt> if not available.
+	 */
+	String getName(final int position) {
+		return names[position];
+	}
+
+	/**
+	 * Retrieves the type of the parameter at the given <tt>position</tt>.
+	 *
+	 * @param position Position of the parameter.
+	 * @return Parameter type.
+	 */
+	Class<?> getType(final int position) {
+		return types[position];
+	}
+
+	/**
+	 * Retrieves the generic type of the parameter at the given <tt>position</tt>.
+	 *
+	 * @param position Position of the parameter.
+	 * @return Parameter generic type.
+	 */
+	Type getGenericType(final int position) {
+		return genericTypes[position];
+	}
+
+	/**
+	 * Retrieves the annotation of the parameter at the given <tt>position</tt>.
+	 *
+	 * @param position Position of the parameter.
+	 * @return Parameter annotation, <tt>null</tt> if not annotated.
+	 */
+	Optionable getOptionable(final int position) {
+		return optionables[position];
+	}
+
+	/** @return New arguments array, filled with parameters default value. **/
+	Object [] createArguments() {
+		return defaults.clone();
+	}
+
+	/**
+	 * Invokes the constructor with the given <tt>arguments</tt>.
+	 *
+	 * @param arguments Constructor arguments.
+	 * @return Created instance.
+	 * @throws IllegalArgumentException If the constructor rejects the given <tt>arguments</tt>.
+	 */
+	Object newInstance(final Object [] arguments) {
+		try {
+			return handle.invokeExact(arguments);
+		}
+		catch (final RuntimeException | Error e) {
+			throw e;
+		}
+		catch (final Throwable e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+}
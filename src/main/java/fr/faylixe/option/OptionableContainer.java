@@ -1,13 +1,10 @@
 package fr.faylixe.option;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-
-import org.apache.commons.cli.CommandLine;
-import org.apache.commons.cli.CommandLineParser;
-import org.apache.commons.cli.DefaultParser;
-import org.apache.commons.cli.HelpFormatter;
-import org.apache.commons.cli.Options;
-import org.apache.commons.cli.ParseException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Abstract class that handles option parsing through
@@ -18,14 +15,40 @@ import org.apache.commons.cli.ParseException;
  */
 public class OptionableContainer {
 
+	/** Error message prefix for parsing error. **/
+	static final String PARSING_ERROR = "An error occurs while parsing command line parameter : ";
+
+	/** Error message for sources used with an engine which does not support them. **/
+	private static final String SOURCES_NOT_SUPPORTED = "Option sources are not supported by the %s engine";
+
+	/** Message suggesting options close to an unknown one. **/
+	private static final String SUGGESTIONS = "Did you mean %s ?";
+
 	/** Container usage description. **/
 	private String usage;
 
+	/** Engine used for parsing command line. **/
+	private OptionableEngine engine;
+
+	/** Indicates if <tt>@file</tt> arguments should be expanded. **/
+	private boolean argumentFiles;
+
+	/** Sources for options missing from command line, by decreasing priority. **/
+	private final List<OptionableSource> sources;
+
+	/** Callback notified with bootstrap phases cost, <tt>null</tt> if none. **/
+	private OptionableMetrics metrics;
+
+	/** Pool to convert option values on, <tt>null</tt> for sequential conversion. **/
+	private ForkJoinPool conversionPool;
+
 	/**
 	 * Default constructor.
 	 */
 	protected OptionableContainer() {
 		this.usage = "";
+		this.engine = OptionableEngine.NATIVE;
+		this.sources = new ArrayList<>();
 	}
 
 	/**
@@ -37,6 +60,81 @@ public class OptionableContainer {
 		this.usage = usage;
 	}
 
+	/**
+	 * Engine setter.
+	 * 
+	 * @param engine Engine used for parsing command line.
+	 * @throws IllegalStateException If sources have been added and the given <tt>engine</tt> does not support them.
+	 */
+	public final void setEngine(final OptionableEngine engine) {
+		if (engine == OptionableEngine.COMMONS_CLI && !sources.isEmpty()) {
+			throw new IllegalStateException(String.format(SOURCES_NOT_SUPPORTED, engine));
+		}
+		this.engine = engine;
+	}
+
+	/**
+	 * Enables or disables argument files expansion. When enabled, any
+	 * <tt>@file</tt> argument is replaced by the tokens of the denoted
+	 * file, read lazily through {@link OptionableArguments}.
+	 * 
+	 * @param argumentFiles <tt>true</tt> if <tt>@file</tt> arguments should be expanded.
+	 */
+	public final void setArgumentFiles(final boolean argumentFiles) {
+		this.argumentFiles = argumentFiles;
+	}
+
+	/**
+	 * Adds a source for options missing from command line. Sources are
+	 * consulted in the order they have been added, so that the usual layering
+	 * is achieved by adding system properties, then environment, then
+	 * configuration file, fields keeping their default value otherwise.
+	 * Sources are only supported by the {@link OptionableEngine#NATIVE} engine.
+	 * 
+	 * @param source Source to add, with lower priority than previously added ones.
+	 * @throws IllegalStateException If the current engine does not support sources.
+	 */
+	public final void addSource(final OptionableSource source) {
+		if (engine == OptionableEngine.COMMONS_CLI) {
+			throw new IllegalStateException(String.format(SOURCES_NOT_SUPPORTED, engine));
+		}
+		sources.add(source);
+	}
+
+	/**
+	 * Metrics setter. Phases are also reported as JDK Flight Recorder
+	 * events whenever a recording is running, regardless of this callback.
+	 * 
+	 * @param metrics Callback notified with bootstrap phases cost, <tt>null</tt> if none.
+	 */
+	public final void setMetrics(final OptionableMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Sets the pool option values are converted on. When set, the values
+	 * of all provided options are converted in parallel and fields are only
+	 * assigned once every conversion has succeeded, which benefits containers
+	 * with expensive converters. On failure, the reported error is the one of
+	 * the first failing option in schema order. Parallel conversion is only
+	 * supported by the {@link OptionableEngine#NATIVE} engine.
+	 * 
+	 * @param conversionPool Pool to convert option values on, <tt>null</tt> for sequential conversion.
+	 */
+	public final void setConversionPool(final ForkJoinPool conversionPool) {
+		this.conversionPool = conversionPool;
+	}
+
+	/** @return Callback notified with bootstrap phases cost, <tt>null</tt> if none. **/
+	final OptionableMetrics getMetrics() {
+		return metrics;
+	}
+
+	/** @return Sources for options missing from command line, by decreasing priority. **/
+	final List<OptionableSource> getSources() {
+		return sources;
+	}
+
 	/**
 	 * This is where the magic goes, annotated field are converted to option
 	 * and given command line parameters are evaluated to fill application's
@@ -46,27 +144,61 @@ public class OptionableContainer {
 	 * @return <tt>true</tt> if the bootstrapping went well, <tt>false</tt> otherwise.
 	 */
 	public boolean bootstrap(final String [] args) {
-		final OptionableFieldFactory factory = new OptionableFieldFactory();
-		final List<OptionableField> fields = factory.create(getClass());
-		final Options options = new Options();
-		fields
-			.stream()
-			.map(OptionableField::toOption)
-			.forEach(options::addOption);
-		final HelpFormatter formatter = new HelpFormatter();
-		final CommandLineParser parser = new DefaultParser();
 		try {
-			final CommandLine command = parser.parse(options, args);
-			for (final OptionableField field : fields) {
-				field.validate(command, this);
-			}
+			bind(args);
 			return true;
 		}
-		catch (final ParseException | IllegalAccessException | IllegalArgumentException e) {
-			System.err.println("An error occurs while parsing command line parameter : " + e.getMessage());
-			formatter.printHelp(usage, options);
+		catch (final IllegalAccessException | IllegalArgumentException e) {
+			printError(e);
 		}
 		return false;
 	}
 
+	/**
+	 * Prints the given parsing <tt>error</tt> followed by the help message,
+	 * or by the closest option names if the error is an unknown option
+	 * close to existing ones.
+	 * 
+	 * @param error Error raised while evaluating command line parameters.
+	 */
+	final void printError(final Throwable error) {
+		System.err.println(PARSING_ERROR + error.getMessage());
+		final OptionableSchema schema = OptionableSchema.of(getClass());
+		if (error instanceof OptionableUnknownOptionException) {
+			final List<String> suggestions = schema.suggest(((OptionableUnknownOptionException) error).getOption());
+			if (!suggestions.isEmpty()) {
+				System.err.println(String.format(SUGGESTIONS, "--" + String.join(", --", suggestions)));
+				return;
+			}
+		}
+		if (engine == OptionableEngine.COMMONS_CLI) {
+			OptionableCommandLine.printHelp(schema.getFields(), usage);
+		}
+		else {
+			schema.printHelp(usage, System.out);
+		}
+	}
+
+	/**
+	 * Evaluates the given command line parameters to fill this
+	 * container attributes, without reporting errors.
+	 * 
+	 * @param args Command line parameters issued from main method.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	final void bind(final String [] args) throws IllegalAccessException {
+		final OptionableRecorder recorder = OptionableRecorder.of(metrics, getClass());
+		recorder.begin(OptionablePhase.SCHEMA);
+		final OptionableSchema schema = OptionableSchema.of(getClass());
+		recorder.end(schema.getFields().size());
+		final Iterator<String> arguments = argumentFiles ? new OptionableArguments(args) : Arrays.asList(args).iterator();
+		if (engine == OptionableEngine.COMMONS_CLI) {
+			schema.bindOperands(this, null, OptionableCommandLine.bind(schema.getFields(), arguments, this));
+		}
+		else {
+			schema.bind(arguments, this, sources, conversionPool, recorder);
+		}
+	}
+
 }
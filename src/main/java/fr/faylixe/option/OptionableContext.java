@@ -0,0 +1,160 @@
+package fr.faylixe.option;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Execution context of the current thread, namely the working directory
+ * and environment command line values are interpreted against. Outside
+ * of any context, these are the process ones. Hosts running containers
+ * on behalf of other processes, such as {@link OptionableDaemon}, enter
+ * the context of the process they serve for the duration of a request.
+ * Conversions deferred to other threads or to a later time, such as pooled
+ * or lazy ones, capture the context when they are created.
+ * 
+ * @author fv
+ */
+final class OptionableContext {
+
+	/** Context entered by the current thread, if any. **/
+	private static final ThreadLocal<OptionableContext> CURRENT = new ThreadLocal<>();
+
+	/** Working directory. **/
+	private final Path directory;
+
+	/** Unmodifiable environment. **/
+	private final Map<String, String> environment;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param directory Absolute working directory.
+	 * @param environment Unmodifiable environment.
+	 */
+	OptionableContext(final Path directory, final Map<String, String> environment) {
+		this.directory = directory;
+		this.environment = environment;
+	}
+
+	/**
+	 * Enters the given <tt>context</tt> on the current thread.
+	 * 
+	 * @param context Context to enter.
+	 */
+	static void enter(final OptionableContext context) {
+		CURRENT.set(context);
+	}
+
+	/**
+	 * Exits the context entered by the current thread, if any.
+	 */
+	static void exit() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Indicates if the current thread has entered a context.
+	 * 
+	 * @return <tt>true</tt> if a context has been entered, <tt>false</tt> otherwise.
+	 */
+	static boolean isEntered() {
+		return CURRENT.get() != null;
+	}
+
+	/** @return Working directory of the current thread context. **/
+	static Path getWorkingDirectory() {
+		final OptionableContext context = CURRENT.get();
+		return context == null ? Paths.get("").toAbsolutePath() : context.directory;
+	}
+
+	/**
+	 * Resolves the given relative <tt>value</tt> against the working directory
+	 * of the current thread context. Values are left unchanged outside of any
+	 * context, so that they keep being resolved by the process.
+	 * 
+	 * @param value {@link Path} or {@link File} to resolve.
+	 * @return Resolved value.
+	 */
+	static Object resolve(final Object value) {
+		final OptionableContext context = CURRENT.get();
+		if (context != null) {
+			if (value instanceof Path && !((Path) value).isAbsolute()) {
+				return context.directory.resolve((Path) value);
+			}
+			if (value instanceof File && !((File) value).isAbsolute()) {
+				return context.directory.resolve(((File) value).getPath()).toFile();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Decorates the given <tt>task</tt> so that it runs within the context
+	 * of the current thread, whatever thread it eventually runs on.
+	 * 
+	 * @param task Task to decorate.
+	 * @return Decorated task, the given <tt>task</tt> itself outside of any context.
+	 */
+	static Runnable capture(final Runnable task) {
+		final OptionableContext context = CURRENT.get();
+		if (context == null) {
+			return task;
+		}
+		return () -> context.within(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Decorates the given <tt>function</tt> so that it is applied within the
+	 * context of the current thread, whatever thread and time it is applied at.
+	 * 
+	 * @param function Function to decorate.
+	 * @param <T> Type of the function input.
+	 * @param <R> Type of the function result.
+	 * @return Decorated function, the given <tt>function</tt> itself outside of any context.
+	 */
+	static <T, R> Function<T, R> capture(final Function<T, R> function) {
+		final OptionableContext context = CURRENT.get();
+		if (context == null) {
+			return function;
+		}
+		return value -> context.within(() -> function.apply(value));
+	}
+
+	/**
+	 * Performs the given <tt>action</tt> within this context,
+	 * restoring the context of the current thread afterward.
+	 * 
+	 * @param action Action to perform.
+	 * @param <R> Type of the action result.
+	 * @return Result of the action.
+	 */
+	private <R> R within(final Supplier<R> action) {
+		final OptionableContext previous = CURRENT.get();
+		CURRENT.set(this);
+		try {
+			return action.get();
+		}
+		finally {
+			if (previous == null) {
+				CURRENT.remove();
+			}
+			else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/** @return Unmodifiable environment of the current thread context. **/
+	static Map<String, String> getEnvironment() {
+		final OptionableContext context = CURRENT.get();
+		return context == null ? System.getenv() : context.environment;
+	}
+
+}
@@ -0,0 +1,220 @@
+package fr.faylixe.option;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size bounded cache of converted option values, keyed by converter
+ * and raw value, with least recently used eviction. Only converters
+ * producing immutable values are cached, namely built-in path, duration,
+ * URI and pattern converters and {@link OptionableValueConverter} services
+ * declaring {@link OptionableValueConverter#isImmutable()}.
+ * <p>
+ * Entries are spread over independently locked segments so that
+ * concurrent bootstraps do not contend on a single lock, and conversions
+ * run outside of any lock. A cache is enabled through
+ * {@link OptionableValueFactories#setConversionCache(OptionableConversionCache)}.
+ * 
+ * @author fv
+ */
+public final class OptionableConversionCache {
+
+	/** Error message for not valid size. **/
+	private static final String NOT_VALID_SIZE = "Cache size must be positive : %d";
+
+	/** Maximum number of segments. **/
+	private static final int MAX_SEGMENTS = 16;
+
+	/** Cache segments, selected by key hash. **/
+	private final Segment [] segments;
+
+	/** Number of lookups which found a cached value. **/
+	private final LongAdder hits;
+
+	/** Number of lookups which required a conversion. **/
+	private final LongAdder misses;
+
+	/** Number of evicted entries. **/
+	private final LongAdder evictions;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param maximumSize Maximum number of cached values.
+	 * @throws IllegalArgumentException If the given <tt>maximumSize</tt> is not positive.
+	 */
+	public OptionableConversionCache(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException(String.format(NOT_VALID_SIZE, maximumSize));
+		}
+		final int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+		}
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+	}
+
+	/**
+	 * Retrieves the converted value of the given raw <tt>value</tt>,
+	 * converting and caching it if not already cached. Failed and
+	 * <tt>null</tt> conversions are not cached.
+	 * 
+	 * @param converter Converter to apply.
+	 * @param value Raw value to convert.
+	 * @return Converted value.
+	 */
+	Object get(final Function<String, ?> converter, final String value) {
+		final Key key = new Key(converter, value);
+		final Segment segment = segments[spread(key.hashCode()) & (segments.length - 1)];
+		Object converted;
+		synchronized (segment) {
+			converted = segment.get(key);
+		}
+		if (converted != null) {
+			hits.increment();
+			return converted;
+		}
+		misses.increment();
+		converted = converter.apply(value);
+		if (converted != null) {
+			synchronized (segment) {
+				final Object previous = segment.putIfAbsent(key, converted);
+				if (previous != null) {
+					return previous;
+				}
+			}
+		}
+		return converted;
+	}
+
+	/**
+	 * Spreads higher bits of the given hash to lower ones.
+	 * 
+	 * @param hash Hash to spread.
+	 * @return Spread hash.
+	 */
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/** @return Number of lookups which found a cached value. **/
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/** @return Number of lookups which required a conversion. **/
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/** @return Number of entries evicted to honor the maximum size. **/
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/** @return Number of cached values. **/
+	public int size() {
+		int size = 0;
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all cached values, keeping statistics.
+	 */
+	public void clear() {
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Cache key, made of converter identity and raw value.
+	 * 
+	 * @author fv
+	 */
+	private static final class Key {
+
+		/** Converter to apply. **/
+		private final Function<String, ?> converter;
+
+		/** Raw value to convert. **/
+		private final String value;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param converter Converter to apply.
+		 * @param value Raw value to convert.
+		 */
+		private Key(final Function<String, ?> converter, final String value) {
+			this.converter = converter;
+			this.value = value;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public boolean equals(final Object object) {
+			if (!(object instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key) object;
+			return converter == key.converter && value.equals(key.value);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(converter) + value.hashCode();
+		}
+
+	}
+
+	/**
+	 * Access ordered segment, evicting its least recently used
+	 * entry once its capacity is exceeded.
+	 * 
+	 * @author fv
+	 */
+	private final class Segment extends LinkedHashMap<Key, Object> {
+
+		/** Serialization version. **/
+		private static final long serialVersionUID = 1L;
+
+		/** Maximum number of entries of this segment. **/
+		private final int capacity;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param capacity Maximum number of entries of this segment.
+		 */
+		private Segment(final int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Key, Object> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+}
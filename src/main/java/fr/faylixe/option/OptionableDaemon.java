@@ -0,0 +1,423 @@
+package fr.faylixe.option;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Resident server which runs {@link OptionableApplication} instances on
+ * behalf of {@link OptionableDaemonClient} requests received over a Unix
+ * domain socket, so that invocations do not pay for JVM startup and warmup.
+ * <p>
+ * The application schema and constructor are resolved once when the daemon
+ * starts, and each request bootstraps a fresh application instance with the
+ * client arguments. While a request is being served, {@link System#out} and
+ * {@link System#err} writes of the serving thread are streamed back to the
+ * client, and {@link #getWorkingDirectory()} and {@link #getEnvironment()}
+ * return the client ones. The socket file is only accessible to the daemon
+ * owner, as connecting runs the application with the daemon privileges.
+ * Unix domain sockets require Java 16 or later.
+ * 
+ * @author fv
+ */
+public final class OptionableDaemon implements Closeable {
+
+	/** Name of the accepting thread. **/
+	private static final String THREAD_NAME = "optionable-daemon";
+
+	/** Error message for not absolute client working directory. **/
+	private static final String NOT_ABSOLUTE = "Client working directory %s is not absolute";
+
+	/** Error message for daemon stopped after accept failures. **/
+	private static final String STOPPED = "Daemon stopped after %d consecutive accept failures";
+
+	/** Delay before accepting again after a first failure, in milliseconds. **/
+	private static final long INITIAL_BACKOFF = 10;
+
+	/** Maximum delay before accepting again after a failure, in milliseconds. **/
+	private static final long MAX_BACKOFF = 1000;
+
+	/** Number of consecutive accept failures after which the daemon is closed. **/
+	private static final int MAX_FAILURES = 16;
+
+	/** Request being served by the current thread, if any. **/
+	private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+	/** Indicates if standard streams have been redirected. **/
+	private static boolean redirected;
+
+	/** Path of the socket file. **/
+	private final Path socket;
+
+	/** Class of the served application. **/
+	private final Class<? extends OptionableApplication> type;
+
+	/** Executor serving requests. **/
+	private final Executor executor;
+
+	/** Server channel accepting requests. **/
+	private final ServerSocketChannel server;
+
+	/** Thread accepting requests. **/
+	private final Thread acceptor;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param socket Path of the socket file.
+	 * @param type Class of the served application.
+	 * @param executor Executor serving requests.
+	 * @param server Server channel accepting requests.
+	 */
+	private OptionableDaemon(
+			final Path socket,
+			final Class<? extends OptionableApplication> type,
+			final Executor executor,
+			final ServerSocketChannel server) {
+		this.socket = socket;
+		this.type = type;
+		this.executor = executor;
+		this.server = server;
+		this.acceptor = new Thread(this::accept, THREAD_NAME);
+		this.acceptor.setDaemon(true);
+	}
+
+	/**
+	 * Starts a daemon serving the given application <tt>type</tt> on the
+	 * given <tt>socket</tt> file, with the default executor.
+	 * 
+	 * @param socket Path of the socket file to create.
+	 * @param type Class of the served application, which must declare a no argument constructor.
+	 * @return Started daemon.
+	 * @throws IOException If the socket cannot be created.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 * @see #start(Path, Class, Executor)
+	 */
+	public static OptionableDaemon start(
+			final Path socket,
+			final Class<? extends OptionableApplication> type) throws IOException {
+		return start(socket, type, OptionableExecutors.getDefault());
+	}
+
+	/**
+	 * Starts a daemon serving the given application <tt>type</tt> on the
+	 * given <tt>socket</tt> file.
+	 * 
+	 * @param socket Path of the socket file to create.
+	 * @param type Class of the served application, which must declare a no argument constructor.
+	 * @param executor Executor serving requests.
+	 * @return Started daemon.
+	 * @throws IOException If the socket cannot be created.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	public static OptionableDaemon start(
+			final Path socket,
+			final Class<? extends OptionableApplication> type,
+			final Executor executor) throws IOException {
+		OptionableSchema.of(type);
+		redirect();
+		final OptionableDaemon daemon = new OptionableDaemon(socket, type, executor, OptionableSockets.openServer(socket));
+		daemon.acceptor.start();
+		return daemon;
+	}
+
+	/**
+	 * Retrieves the working directory of the client whose request is being
+	 * served by the current thread, or the process one outside of requests.
+	 * 
+	 * @return Current working directory.
+	 */
+	public static Path getWorkingDirectory() {
+		return OptionableContext.getWorkingDirectory();
+	}
+
+	/**
+	 * Retrieves the environment of the client whose request is being
+	 * served by the current thread, or the process one outside of requests.
+	 * 
+	 * @return Unmodifiable current environment.
+	 */
+	public static Map<String, String> getEnvironment() {
+		return OptionableContext.getEnvironment();
+	}
+
+	/**
+	 * Waits until this daemon is closed.
+	 * 
+	 * @throws InterruptedException If the current thread is interrupted while waiting.
+	 */
+	public void await() throws InterruptedException {
+		acceptor.join();
+	}
+
+	/**
+	 * Stops accepting requests and deletes the socket file. Requests
+	 * being served are completed.
+	 * 
+	 * @throws IOException If the socket cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			server.close();
+		}
+		finally {
+			Files.deleteIfExists(socket);
+		}
+	}
+
+	/**
+	 * Accepts requests until this daemon is closed. Failures are retried
+	 * with an exponential backoff, and the daemon is closed once too many
+	 * consecutive accepts failed, so that a persistent error does not spin.
+	 */
+	private void accept() {
+		int failures = 0;
+		long backoff = INITIAL_BACKOFF;
+		while (server.isOpen()) {
+			try {
+				final SocketChannel client = server.accept();
+				failures = 0;
+				backoff = INITIAL_BACKOFF;
+				executor.execute(() -> serve(client));
+			}
+			catch (final ClosedChannelException e) {
+				return;
+			}
+			catch (final IOException e) {
+				if (++failures >= MAX_FAILURES) {
+					System.err.println(String.format(STOPPED, failures));
+					e.printStackTrace();
+					closeQuietly();
+					return;
+				}
+				try {
+					Thread.sleep(backoff);
+				}
+				catch (final InterruptedException interrupted) {
+					closeQuietly();
+					return;
+				}
+				backoff = Math.min(backoff * 2, MAX_BACKOFF);
+			}
+		}
+	}
+
+	/**
+	 * Closes this daemon, ignoring errors.
+	 */
+	private void closeQuietly() {
+		try {
+			close();
+		}
+		catch (final IOException e) {
+			// Nothing more can be done.
+		}
+	}
+
+	/**
+	 * Serves the request of the given <tt>client</tt>.
+	 * 
+	 * @param client Connected client channel.
+	 */
+	private void serve(final SocketChannel client) {
+		try (final SocketChannel channel = client) {
+			final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			final Request request = Request.read(input, output);
+			final int code;
+			CURRENT.set(request);
+			OptionableContext.enter(request.context);
+			try {
+				code = execute(request.arguments);
+			}
+			finally {
+				System.out.flush();
+				System.err.flush();
+				OptionableContext.exit();
+				CURRENT.remove();
+			}
+			OptionableFrames.writeExit(output, code);
+		}
+		catch (final IOException e) {
+			// Client is gone, nothing to report to.
+		}
+	}
+
+	/**
+	 * Creates and executes an application instance, reporting errors
+	 * to the client standard error.
+	 * 
+	 * @param args Command line parameters of the application.
+	 * @return Exit code of the application.
+	 */
+	private int execute(final String [] args) {
+		final OptionableApplication application;
+		try {
+			application = OptionableLauncher.create(type);
+		}
+		catch (final IllegalStateException e) {
+			e.printStackTrace();
+			return OptionableResult.EXIT_FAILURE;
+		}
+		final OptionableResult result = application.call(args);
+		final Throwable failure = result.getFailure();
+		if (failure != null) {
+			if (result.getExitCode() == OptionableResult.EXIT_USAGE) {
+				application.printError(failure);
+			}
+			else {
+				failure.printStackTrace();
+			}
+		}
+		return result.getExitCode();
+	}
+
+	/**
+	 * Replaces standard streams by streams which write into the current
+	 * request streams if any, and into the original streams otherwise.
+	 */
+	private static synchronized void redirect() {
+		if (!redirected) {
+			System.setOut(new PrintStream(new Redirection(System.out, false), true));
+			System.setErr(new PrintStream(new Redirection(System.err, true), true));
+			redirected = true;
+		}
+	}
+
+	/**
+	 * Client request being served.
+	 * 
+	 * @author fv
+	 */
+	private static final class Request {
+
+		/** Command line parameters. **/
+		private final String [] arguments;
+
+		/** Client working directory and environment. **/
+		private final OptionableContext context;
+
+		/** Client standard output. **/
+		private final OutputStream out;
+
+		/** Client standard error. **/
+		private final OutputStream err;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param arguments Command line parameters.
+		 * @param directory Client working directory.
+		 * @param environment Client environment.
+		 * @param output Stream to write response frames into.
+		 */
+		private Request(
+				final String [] arguments,
+				final Path directory,
+				final Map<String, String> environment,
+				final DataOutputStream output) {
+			this.arguments = arguments;
+			this.context = new OptionableContext(directory, environment);
+			this.out = new OptionableFrames.FrameOutputStream(output, OptionableFrames.OUT);
+			this.err = new OptionableFrames.FrameOutputStream(output, OptionableFrames.ERR);
+		}
+
+		/**
+		 * Reads a request.
+		 * 
+		 * @param input Stream to read request from.
+		 * @param output Stream to write response frames into.
+		 * @return Read request.
+		 * @throws IOException If the request cannot be read or is not valid.
+		 */
+		private static Request read(final DataInputStream input, final DataOutputStream output) throws IOException {
+			OptionableFrames.checkMagic(input.readInt());
+			final String [] arguments = new String[OptionableFrames.readLength(input, "request")];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = OptionableFrames.readString(input);
+			}
+			final Path directory = Paths.get(OptionableFrames.readString(input));
+			if (!directory.isAbsolute()) {
+				throw new IOException(String.format(NOT_ABSOLUTE, directory));
+			}
+			final int size = OptionableFrames.readLength(input, "request");
+			final Map<String, String> environment = new HashMap<>();
+			for (int i = 0; i < size; i++) {
+				environment.put(OptionableFrames.readString(input), OptionableFrames.readString(input));
+			}
+			return new Request(arguments, directory, Collections.unmodifiableMap(environment), output);
+		}
+
+	}
+
+	/**
+	 * Output stream which dispatches writes to the current request streams.
+	 * 
+	 * @author fv
+	 */
+	private static final class Redirection extends OutputStream {
+
+		/** Stream to write into outside of requests. **/
+		private final OutputStream fallback;
+
+		/** Indicates if this stream redirects standard error. **/
+		private final boolean error;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param fallback Stream to write into outside of requests.
+		 * @param error Indicates if this stream redirects standard error.
+		 */
+		private Redirection(final OutputStream fallback, final boolean error) {
+			this.fallback = fallback;
+			this.error = error;
+		}
+
+		/** @return Stream to write into for the current thread. **/
+		private OutputStream getTarget() {
+			final Request request = CURRENT.get();
+			if (request == null) {
+				return fallback;
+			}
+			return error ? request.err : request.out;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void write(final int value) throws IOException {
+			getTarget().write(value);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void write(final byte [] buffer, final int offset, final int length) throws IOException {
+			getTarget().write(buffer, offset, length);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void flush() throws IOException {
+			getTarget().flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,124 @@
+package fr.faylixe.option;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Client of {@link OptionableDaemon}, which forwards its arguments, working
+ * directory and environment to a running daemon, streams the daemon output
+ * back, and exits with the application exit code.
+ * 
+ * @author fv
+ */
+public final class OptionableDaemonClient {
+
+	/** Usage message. **/
+	private static final String USAGE = "Usage : OptionableDaemonClient <socket> [arguments...]";
+
+	/** Error message for response without exit code. **/
+	private static final String NOT_VALID = "Not valid daemon response";
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableDaemonClient() {
+		// Do nothing.
+	}
+
+	/**
+	 * Runs the application of the daemon listening on the given <tt>socket</tt>
+	 * with the current working directory and environment.
+	 * 
+	 * @param socket Path of the daemon socket file.
+	 * @param args Command line parameters of the application.
+	 * @param out Stream to write application standard output into.
+	 * @param err Stream to write application standard error into.
+	 * @return Exit code of the application.
+	 * @throws IOException If the daemon cannot be reached.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	public static int run(
+			final Path socket,
+			final String [] args,
+			final OutputStream out,
+			final OutputStream err) throws IOException {
+		return run(socket, args, Paths.get("").toAbsolutePath(), System.getenv(), out, err);
+	}
+
+	/**
+	 * Runs the application of the daemon listening on the given <tt>socket</tt>.
+	 * 
+	 * @param socket Path of the daemon socket file.
+	 * @param args Command line parameters of the application.
+	 * @param directory Working directory to run the application in.
+	 * @param environment Environment to run the application with.
+	 * @param out Stream to write application standard output into.
+	 * @param err Stream to write application standard error into.
+	 * @return Exit code of the application.
+	 * @throws IOException If the daemon cannot be reached.
+	 */
+	static int run(
+			final Path socket,
+			final String [] args,
+			final Path directory,
+			final Map<String, String> environment,
+			final OutputStream out,
+			final OutputStream err) throws IOException {
+		try (final SocketChannel channel = OptionableSockets.connect(socket)) {
+			final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			output.writeInt(OptionableFrames.MAGIC);
+			output.writeInt(args.length);
+			for (final String arg : args) {
+				OptionableFrames.writeString(output, arg);
+			}
+			OptionableFrames.writeString(output, directory.toString());
+			output.writeInt(environment.size());
+			for (final Map.Entry<String, String> variable : environment.entrySet()) {
+				OptionableFrames.writeString(output, variable.getKey());
+				OptionableFrames.writeString(output, variable.getValue());
+			}
+			output.flush();
+			final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			while (true) {
+				final byte type = input.readByte();
+				final int length = OptionableFrames.readLength(input, "response");
+				if (type == OptionableFrames.EXIT) {
+					if (length != Integer.BYTES) {
+						throw new IOException(NOT_VALID);
+					}
+					out.flush();
+					err.flush();
+					return input.readInt();
+				}
+				final byte [] payload = new byte[length];
+				input.readFully(payload);
+				(type == OptionableFrames.ERR ? err : out).write(payload);
+			}
+		}
+	}
+
+	/**
+	 * Client entry point.
+	 * 
+	 * @param args Path of the daemon socket file, followed by the application command line parameters.
+	 * @throws IOException If the daemon cannot be reached.
+	 */
+	public static void main(final String [] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println(USAGE);
+			System.exit(OptionableResult.EXIT_USAGE);
+		}
+		System.exit(run(Paths.get(args[0]), Arrays.copyOfRange(args, 1, args.length), System.out, System.err));
+	}
+
+}
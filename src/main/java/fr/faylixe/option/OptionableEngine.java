@@ -0,0 +1,18 @@
+package fr.faylixe.option;
+
+/**
+ * Enumeration of available command line parsing engines.
+ * 
+ * @author fv
+ */
+public enum OptionableEngine {
+
+	/** Built-in engine working directly from the resolved fields, default one. **/
+	NATIVE,
+
+	/** Legacy engine based on Apache Commons CLI {@code DefaultParser}. **/
+	COMMONS_CLI,
+
+	;
+
+}
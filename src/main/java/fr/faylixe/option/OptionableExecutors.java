@@ -0,0 +1,61 @@
+package fr.faylixe.option;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides the default executor of asynchronous applications,
+ * namely a virtual thread per task executor on runtimes that
+ * support virtual threads, and a cached pool of daemon threads
+ * otherwise.
+ * 
+ * @author fv
+ */
+final class OptionableExecutors {
+
+	/** Name of pooled threads. **/
+	private static final String THREAD_NAME = "optionable-application";
+
+	/** Default executor, created on first use. **/
+	private static final ExecutorService DEFAULT = createDefault();
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableExecutors() {
+		// Do nothing.
+	}
+
+	/** @return Default executor. **/
+	static ExecutorService getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Creates the default executor. Virtual threads executor is
+	 * looked up reflectively, as it is not available at compile time.
+	 * 
+	 * @return Created executor.
+	 */
+	private static ExecutorService createDefault() {
+		try {
+			return (ExecutorService) MethodHandles
+					.publicLookup()
+					.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+					.invoke();
+		}
+		catch (final NoSuchMethodException | IllegalAccessException e) {
+			return Executors.newCachedThreadPool(task -> {
+				final Thread thread = new Thread(task, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		catch (final Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
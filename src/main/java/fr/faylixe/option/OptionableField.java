@@ -1,6 +1,19 @@
 package fr.faylixe.option;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
@@ -14,9 +27,68 @@ import org.apache.commons.cli.Option;
  */
 public final class OptionableField {
 
-	/** Target field that is decorated. **/
+	/** Binder used for classes without generated binder. **/
+	private static final OptionableBinder NO_BINDER = new OptionableBinder() {
+
+		/** {@inheritDoc} **/
+		@Override
+		public int indexOf(final String field) {
+			return -1;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void bind(final Object receiver, final int index, final String value) {
+			throw new IllegalArgumentException();
+		}
+
+	};
+
+	/** Converted value denoting that the field must keep its current value. **/
+	static final Object SKIP = new Object();
+
+	/** Error message for option which is not backed by a field. **/
+	private static final String NOT_ASSIGNABLE = "Option %s is a constructor parameter and cannot be assigned";
+
+	/** Error message for constructor parameter option used where a field is required. **/
+	private static final String NOT_FIELD = "Option %s is a constructor parameter, which is only supported when creating instances through OptionableSchema";
+
+	/** Generated binder cache, resolved once per declaring class. **/
+	private static final ClassValue<OptionableBinder> BINDERS = new ClassValue<OptionableBinder>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected OptionableBinder computeValue(final Class<?> type) {
+			final ClassLoader loader = type.getClassLoader();
+			if (loader == null) {
+				return NO_BINDER;
+			}
+			try {
+				final Class<?> binder = Class.forName(type.getName() + OptionableBinder.SUFFIX, true, loader);
+				return (OptionableBinder) binder.getConstructor().newInstance();
+			}
+			catch (final ReflectiveOperationException | LinkageError | ClassCastException e) {
+				return NO_BINDER;
+			}
+		}
+
+	};
+
+	/** Target field that is decorated, <tt>null</tt> for constructor parameter. **/
 	private final Field field;
 
+	/** Name of the decorated field or parameter. **/
+	private final String name;
+
+	/** Type of the decorated field or parameter. **/
+	private final Class<?> type;
+
+	/** Generic type of the decorated field or parameter. **/
+	private final Type genericType;
+
+	/** Position of the decorated constructor parameter, <tt>-1</tt> for field. **/
+	private final int position;
+
 	/** Long name for the corresponding option. **/
 	private final String longName;
 
@@ -32,6 +104,30 @@ public final class OptionableField {
 	/** Indicates if this option is a flag. **/
 	private final boolean flag;
 
+	/** Separator of values within an occurrence, empty if occurrences are not split. **/
+	private final String separator;
+
+	/** Generated binder of the field declaring class. **/
+	private final OptionableBinder binder;
+
+	/** Index of this field in the generated binder, <tt>-1</tt> if not bound. **/
+	private final int index;
+
+	/** Reflective writer used when no binder is available, <tt>null</tt> otherwise. **/
+	private final OptionableFieldWriter<String> writer;
+
+	/** Reflective writer for multi valued field, <tt>null</tt> for single valued field. **/
+	private final OptionableFieldWriter<OptionableValues> collector;
+
+	/** Indicates if this option accepts several values. **/
+	private final boolean multiple;
+
+	/** Writer copying field value from another receiver, created on first use. **/
+	private volatile OptionableFieldWriter<Object> copier;
+
+	/** Converter and writer used by two phase binding, created on first use. **/
+	private volatile Conversion conversion;
+
 	/**
 	 * Default constructor.
 	 * 
@@ -47,13 +143,330 @@ public final class OptionableField {
 			final String longName,
 			final String description,
 			final boolean required) {
+		this(field, shortName, longName, description, required, OptionableValues.SEPARATOR);
+	}
+
+	/**
+	 * Constructor with explicit separator of values for multi valued field.
+	 * 
+	 * @param field Field decorated by this class.
+	 * @param shortName Short name for the corresponding option.
+	 * @param longName Long name for the corresponding option. 
+	 * @param description Field description.
+	 * @param required Indicates if this field is required or not.
+	 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+	 */
+	protected OptionableField(
+			final Field field,
+			final String shortName,
+			final String longName,
+			final String description,
+			final boolean required,
+			final String separator) {
 		this.field = field;
+		this.name = field.getName();
+		this.type = field.getType();
+		this.genericType = field.getGenericType();
+		this.position = -1;
 		this.shortName = shortName;
 		this.longName = longName;
 		this.description = description;
 		this.required = required;
-		final Class<?> type = field.getType();
 		this.flag = OptionableValueFactories.BOOLEAN.support(type);
+		this.separator = separator;
+		this.binder = BINDERS.get(field.getDeclaringClass());
+		this.index = OptionableValueFactories.isOverridden(type) ? -1 : binder.indexOf(name);
+		this.collector = createCollector(field, separator);
+		this.multiple = collector != null;
+		this.writer = index < 0 && collector == null ? createWriter(field, flag) : null;
+	}
+
+	/**
+	 * Constructor for constructor parameter, whose values
+	 * are only converted and never assigned.
+	 * 
+	 * @param name Name of the parameter.
+	 * @param type Type of the parameter.
+	 * @param genericType Generic type of the parameter.
+	 * @param position Position of the parameter in the constructor.
+	 * @param shortName Short name for the corresponding option.
+	 * @param longName Long name for the corresponding option. 
+	 * @param description Parameter description.
+	 * @param required Indicates if this parameter is required or not.
+	 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+	 */
+	OptionableField(
+			final String name,
+			final Class<?> type,
+			final Type genericType,
+			final int position,
+			final String shortName,
+			final String longName,
+			final String description,
+			final boolean required,
+			final String separator) {
+		this.field = null;
+		this.name = name;
+		this.type = type;
+		this.genericType = genericType;
+		this.position = position;
+		this.shortName = shortName;
+		this.longName = longName;
+		this.description = description;
+		this.required = required;
+		this.flag = OptionableValueFactories.BOOLEAN.support(type);
+		this.separator = separator;
+		this.binder = NO_BINDER;
+		this.index = -1;
+		this.collector = null;
+		this.multiple = getCollectionFactory(name, type, genericType, separator) != null;
+		this.writer = null;
+	}
+
+	/**
+	 * Factory method that resolves a type exact writer for the given
+	 * <tt>field</tt>. Primitive fields are parsed and written without
+	 * any boxing, unless their converter is overridden by a service.
+	 * 
+	 * @param field Field to create writer for.
+	 * @param flag Indicates if the given <tt>field</tt> is a flag.
+	 * @return Created writer.
+	 */
+	private static OptionableFieldWriter<String> createWriter(final Field field, final boolean flag) {
+		final MethodHandle setter;
+		try {
+			field.setAccessible(true);
+			setter = MethodHandles.lookup().unreflectSetter(field);
+		}
+		catch (final IllegalAccessException | RuntimeException e) {
+			return (receiver, value) -> {
+				throw e;
+			};
+		}
+		final Class<?> type = field.getType();
+		final boolean direct = !OptionableValueFactories.isOverridden(type);
+		if (type == Boolean.TYPE) {
+			final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, true);
+			};
+		}
+		if (direct && type == Integer.TYPE) {
+			final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, OptionableNumbers.parseInt(value));
+			};
+		}
+		if (direct && type == Long.TYPE) {
+			final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, OptionableNumbers.parseLong(value));
+			};
+		}
+		if (direct && type == Float.TYPE) {
+			final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, OptionableNumbers.parseFloat(value));
+			};
+		}
+		if (direct && type == Double.TYPE) {
+			final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, OptionableNumbers.parseDouble(value));
+			};
+		}
+		final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		if (flag) {
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, (Object) Boolean.TRUE);
+			};
+		}
+		if (type == Lazy.class || type == Supplier.class) {
+			final Function<String, ?> converter = OptionableValueFactories.getConverter(getParameter(field.getGenericType()));
+			if (converter == null) {
+				return (receiver, value) -> OptionableValueFactories.getOptionableValue(field, value);
+			}
+			return (receiver, value) -> {
+				handle.invokeExact(receiver, (Object) new Lazy<>(value, OptionableContext.capture(converter)));
+			};
+		}
+		final Function<String, ?> converter = OptionableValueFactories.getConverter(type);
+		if (converter == null) {
+			return (receiver, value) -> OptionableValueFactories.getOptionableValue(field, value);
+		}
+		return (receiver, value) -> {
+			final Object object = converter.apply(value);
+			if (object != null) {
+				handle.invokeExact(receiver, object);
+			}
+		};
+	}
+
+	/**
+	 * Factory method that resolves a writer for the given <tt>field</tt>
+	 * if it is multi valued, namely an array, a {@link List} or a {@link Set}.
+	 * 
+	 * @param field Field to create writer for.
+	 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+	 * @return Created writer, <tt>null</tt> if the given <tt>field</tt> is single valued.
+	 */
+	private static OptionableFieldWriter<OptionableValues> createCollector(final Field field, final String separator) {
+		final Function<OptionableValues, Object> factory = getCollectionFactory(field.getName(), field.getType(), field.getGenericType(), separator);
+		if (factory == null) {
+			return null;
+		}
+		final MethodHandle handle;
+		try {
+			field.setAccessible(true);
+			handle = MethodHandles
+					.lookup()
+					.unreflectSetter(field)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		catch (final IllegalAccessException | RuntimeException e) {
+			return (receiver, values) -> {
+				throw e;
+			};
+		}
+		return (receiver, values) -> {
+			handle.invokeExact(receiver, factory.apply(values));
+		};
+	}
+
+	/**
+	 * Resolves the function that builds the value of a multi valued
+	 * field or parameter. Primitive arrays are filled directly,
+	 * without boxing elements, unless their element converter is
+	 * overridden by a service.
+	 * 
+	 * @param name Name of the field or parameter, for error reporting.
+	 * @param type Type of the field or parameter.
+	 * @param genericType Generic type of the field or parameter.
+	 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+	 * @return Function that builds the value, <tt>null</tt> if the given <tt>type</tt> is single valued.
+	 */
+	private static Function<OptionableValues, Object> getCollectionFactory(
+			final String name,
+			final Class<?> type,
+			final Type genericType,
+			final String separator) {
+		if (type == int[].class && !OptionableValueFactories.isOverridden(Integer.TYPE)) {
+			return values -> {
+				final int [] array = new int[values.count(separator)];
+				values.forEach(separator, (value, start, end, i) -> array[i] = OptionableNumbers.parseInt(value, start, end));
+				return array;
+			};
+		}
+		if (type == long[].class && !OptionableValueFactories.isOverridden(Long.TYPE)) {
+			return values -> {
+				final long [] array = new long[values.count(separator)];
+				values.forEach(separator, (value, start, end, i) -> array[i] = OptionableNumbers.parseLong(value, start, end));
+				return array;
+			};
+		}
+		if (type == double[].class && !OptionableValueFactories.isOverridden(Double.TYPE)) {
+			return values -> {
+				final double [] array = new double[values.count(separator)];
+				values.forEach(separator, (value, start, end, i) -> array[i] = OptionableNumbers.parseDouble(value, start, end));
+				return array;
+			};
+		}
+		final boolean set = Set.class.isAssignableFrom(type) && type.isAssignableFrom(LinkedHashSet.class);
+		final boolean list = Collection.class.isAssignableFrom(type) && type.isAssignableFrom(ArrayList.class);
+		if (!type.isArray() && !set && !list) {
+			return null;
+		}
+		final Class<?> element = type.isArray() ? type.getComponentType() : getParameter(genericType);
+		final Function<String, ?> converter = OptionableValueFactories.getConverter(element);
+		if (converter == null) {
+			return values -> OptionableValueFactories.getOptionableValue(type, name, null);
+		}
+		if (type.isArray()) {
+			return values -> {
+				final Object array = Array.newInstance(element, values.count(separator));
+				values.forEach(separator, (value, start, end, i) -> Array.set(array, i, converter.apply(value.substring(start, end))));
+				return array;
+			};
+		}
+		return values -> {
+			final int count = values.count(separator);
+			final Collection<Object> collection = set ? new LinkedHashSet<>(count * 2) : new ArrayList<>(count);
+			values.forEach(separator, (value, start, end, i) -> collection.add(converter.apply(value.substring(start, end))));
+			return collection;
+		};
+	}
+
+	/**
+	 * Retrieves the raw type of the first type parameter of the given generic <tt>type</tt>.
+	 * 
+	 * @param type Generic type of a field or parameter.
+	 * @return Raw type of the first type parameter, {@link Object} if not resolvable.
+	 */
+	private static Class<?> getParameter(final Type type) {
+		if (type instanceof ParameterizedType) {
+			Type parameter = ((ParameterizedType) type).getActualTypeArguments()[0];
+			if (parameter instanceof ParameterizedType) {
+				parameter = ((ParameterizedType) parameter).getRawType();
+			}
+			if (parameter instanceof Class) {
+				return (Class<?>) parameter;
+			}
+		}
+		return Object.class;
+	}
+
+	/**
+	 * Factory method that resolves a function converting values of a field
+	 * or parameter without assigning them, so that conversion and assignment
+	 * can happen separately. Primitive values are boxed.
+	 * 
+	 * @param name Name of the field or parameter, for error reporting.
+	 * @param type Type of the field or parameter.
+	 * @param genericType Generic type of the field or parameter.
+	 * @param flag Indicates if the option is a flag.
+	 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+	 * @return Created converter, which returns {@link #SKIP} if the value must not be assigned.
+	 */
+	private static Function<Object, Object> createConverter(
+			final String name,
+			final Class<?> type,
+			final Type genericType,
+			final boolean flag,
+			final String separator) {
+		final Function<OptionableValues, Object> factory = getCollectionFactory(name, type, genericType, separator);
+		if (factory != null) {
+			return value -> factory.apply(value instanceof OptionableValues
+					? (OptionableValues) value
+					: new OptionableValues(new String[] {(String) value}));
+		}
+		if (flag) {
+			return value -> Boolean.TRUE;
+		}
+		final boolean direct = !OptionableValueFactories.isOverridden(type);
+		if (direct && type == Integer.TYPE) {
+			return value -> OptionableNumbers.parseInt((String) value);
+		}
+		if (direct && type == Long.TYPE) {
+			return value -> OptionableNumbers.parseLong((String) value);
+		}
+		if (direct && type == Float.TYPE) {
+			return value -> OptionableNumbers.parseFloat((String) value);
+		}
+		if (direct && type == Double.TYPE) {
+			return value -> OptionableNumbers.parseDouble((String) value);
+		}
+		final boolean lazy = type == Lazy.class || type == Supplier.class;
+		final Function<String, ?> converter = OptionableValueFactories.getConverter(lazy ? getParameter(genericType) : type);
+		if (converter == null) {
+			return value -> OptionableValueFactories.getOptionableValue(type, name, (String) value);
+		}
+		if (lazy) {
+			return value -> new Lazy<>((String) value, OptionableContext.capture(converter));
+		}
+		return value -> {
+			final Object object = converter.apply((String) value);
+			return object == null ? SKIP : object;
+		};
 	}
 
 	/**
@@ -63,8 +476,10 @@ public final class OptionableField {
 	 * 
 	 * @param receiver Receiver object to validate.
 	 * @throws IllegalArgumentException If the given <tt>receiver</tt> is not valid.
+	 * @throws IllegalStateException If this option is a constructor parameter.
 	 */
 	private void validateReceiver(final Object receiver) {
+		checkField();
 		if (receiver == null) {
 			throw new IllegalArgumentException("Cannot configure null receiver");
 		}
@@ -76,7 +491,66 @@ public final class OptionableField {
 	}
 
 	/**
-	 * Factory method that builds an Option instance.
+	 * Ensures this option is backed by a field.
+	 * 
+	 * @throws IllegalStateException If this option is a constructor parameter.
+	 */
+	private void checkField() {
+		if (field == null) {
+			throw new IllegalStateException(String.format(NOT_FIELD, longName));
+		}
+	}
+
+	/** @return Short name for the corresponding option. **/
+	String getShortName() {
+		return shortName;
+	}
+
+	/** @return Long name for the corresponding option. **/
+	String getLongName() {
+		return longName;
+	}
+
+	/** @return Field description. **/
+	String getDescription() {
+		return description;
+	}
+
+	/** @return <tt>true</tt> if this field is required, <tt>false</tt> otherwise. **/
+	boolean isRequired() {
+		return required;
+	}
+
+	/** @return <tt>true</tt> if this option accepts several values, <tt>false</tt> otherwise. **/
+	boolean isMultiple() {
+		return multiple;
+	}
+
+	/** @return Position of the decorated constructor parameter, <tt>-1</tt> for field. **/
+	int getPosition() {
+		return position;
+	}
+
+	/** @return <tt>true</tt> if this option is a flag, <tt>false</tt> otherwise. **/
+	boolean isFlag() {
+		return flag;
+	}
+
+	/** @return Type of option values, namely element type for multi valued and lazy options. **/
+	Class<?> getValueType() {
+		if (type.isArray()) {
+			return type.getComponentType();
+		}
+		if (isMultiple() || type == Lazy.class || type == Supplier.class) {
+			return getParameter(genericType);
+		}
+		return type;
+	}
+
+	/**
+	 * Factory method that builds an Option instance. Multi valued options
+	 * take one argument per occurrence, as with the built-in engine, values
+	 * being split afterward using the option separator.
 	 * 
 	 * @return This field as an {@link Option}.
 	 */
@@ -86,7 +560,7 @@ public final class OptionableField {
 			.longOpt(longName)
 			.desc(description)
 			.required(required)
-			.type(field.getType())
+			.type(type)
 			.hasArg(!flag)
 			.build();
 	}
@@ -98,22 +572,198 @@ public final class OptionableField {
 	 * @param command {@link CommandLine} evaluated.
 	 * @param receiver Target field receiver class.
 	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 * @throws IllegalStateException If this option is a constructor parameter.
 	 */
 	public void validate(final CommandLine command, final Object receiver) throws IllegalAccessException {
 		validateReceiver(receiver);
 		if (command.hasOption(longName)) {
-			field.setAccessible(true);
-			if (flag) {
-				field.set(receiver, true);
+			if (isMultiple()) {
+				bind(receiver, new OptionableValues(command.getOptionValues(longName)));
 			}
 			else {
-				final String value = command.getOptionValue(longName);
-				final Object object = OptionableValueFactories.getOptionableValue(field, value);
-				if (object != null) {
-					field.set(receiver, object);
-				}
+				bind(receiver, flag ? null : command.getOptionValue(longName));
 			}
 		}
 	}
+
+	/**
+	 * Converts and assigns the given <tt>value</tt> into
+	 * this field for the given <tt>receiver</tt>.
+	 * 
+	 * @param receiver Target field receiver, assumed valid.
+	 * @param value Value retrieved from command line, <tt>null</tt> for flags.
+	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 */
+	void bind(final Object receiver, final String value) throws IllegalAccessException {
+		if (field == null) {
+			throw new IllegalAccessException(String.format(NOT_ASSIGNABLE, longName));
+		}
+		if (collector != null) {
+			bind(receiver, new OptionableValues(new String[] {value}));
+			return;
+		}
+		if (writer == null) {
+			binder.bind(receiver, index, value);
+			return;
+		}
+		write(writer, receiver, value);
+	}
+
+	/**
+	 * Converts and assigns the given <tt>values</tt> into
+	 * this multi valued field for the given <tt>receiver</tt>.
+	 * 
+	 * @param receiver Target field receiver, assumed valid.
+	 * @param values Values collected from command line.
+	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 */
+	void bind(final Object receiver, final OptionableValues values) throws IllegalAccessException {
+		if (field == null) {
+			throw new IllegalAccessException(String.format(NOT_ASSIGNABLE, longName));
+		}
+		write(collector, receiver, values);
+	}
+
+	/**
+	 * Converts the given parsed <tt>value</tt> without assigning it,
+	 * so that it can be assigned later through {@link #assign(Object, Object)}.
+	 * This method does not access any receiver and may be called concurrently.
+	 * 
+	 * @param value Value retrieved from command line, either a {@link String} or {@link OptionableValues}.
+	 * @return Converted value.
+	 * @throws IllegalArgumentException If the given <tt>value</tt> cannot be converted.
+	 */
+	Object convert(final Object value) {
+		return getConversion().converter.apply(value);
+	}
+
+	/**
+	 * Assigns the given <tt>converted</tt> value into this
+	 * field for the given <tt>receiver</tt>.
+	 * 
+	 * @param receiver Target field receiver, assumed valid.
+	 * @param converted Value returned by {@link #convert(Object)}.
+	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 */
+	void assign(final Object receiver, final Object converted) throws IllegalAccessException {
+		if (field == null) {
+			throw new IllegalAccessException(String.format(NOT_ASSIGNABLE, longName));
+		}
+		if (converted != SKIP) {
+			write(getConversion().writer, receiver, converted);
+		}
+	}
+
+	/** @return Converter and writer used by two phase binding. **/
+	private Conversion getConversion() {
+		Conversion current = conversion;
+		if (current == null) {
+			current = new Conversion(field, createConverter(name, type, genericType, flag, separator));
+			conversion = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Copies the value of this field from the given
+	 * <tt>source</tt> into the given <tt>receiver</tt>.
+	 * 
+	 * @param source Receiver to copy field value from.
+	 * @param receiver Receiver to copy field value into.
+	 * @throws IllegalAccessException If accessing the field value is not permitted.
+	 * @throws IllegalStateException If this option is a constructor parameter.
+	 */
+	void copy(final Object source, final Object receiver) throws IllegalAccessException {
+		OptionableFieldWriter<Object> writer = copier;
+		if (writer == null) {
+			checkField();
+			field.setAccessible(true);
+			final MethodHandles.Lookup lookup = MethodHandles.lookup();
+			final MethodHandle getter = lookup
+					.unreflectGetter(field)
+					.asType(MethodType.methodType(Object.class, Object.class));
+			final MethodHandle handle = MethodHandles.filterArguments(
+					lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class)),
+					1,
+					getter);
+			writer = (target, from) -> {
+				handle.invokeExact(target, from);
+			};
+			copier = writer;
+		}
+		write(writer, receiver, source);
+	}
+
+	/**
+	 * Invokes the given <tt>writer</tt>, propagating
+	 * expected exception and wrapping others.
+	 * 
+	 * @param writer Writer to invoke.
+	 * @param receiver Target field receiver.
+	 * @param value Value to write.
+	 * @param <V> Type of the value to write.
+	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 */
+	private static <V> void write(
+			final OptionableFieldWriter<V> writer,
+			final Object receiver,
+			final V value) throws IllegalAccessException {
+		try {
+			writer.write(receiver, value);
+		}
+		catch (final IllegalAccessException | RuntimeException | Error e) {
+			throw e;
+		}
+		catch (final Throwable e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
 	
+	/**
+	 * Converter and writer of a field, used when
+	 * conversion and assignment happen separately.
+	 * 
+	 * @author fv
+	 */
+	private static final class Conversion {
+
+		/** Function converting parsed values. **/
+		private final Function<Object, Object> converter;
+
+		/** Writer assigning converted values, <tt>null</tt> for constructor parameter. **/
+		private final OptionableFieldWriter<Object> writer;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param field Field to assign values to, <tt>null</tt> for constructor parameter.
+		 * @param converter Function converting parsed values.
+		 */
+		private Conversion(final Field field, final Function<Object, Object> converter) {
+			this.converter = converter;
+			OptionableFieldWriter<Object> writer;
+			if (field == null) {
+				this.writer = null;
+				return;
+			}
+			try {
+				field.setAccessible(true);
+				final MethodHandle handle = MethodHandles
+						.lookup()
+						.unreflectSetter(field)
+						.asType(MethodType.methodType(void.class, Object.class, Object.class));
+				writer = (receiver, value) -> {
+					handle.invokeExact(receiver, value);
+				};
+			}
+			catch (final IllegalAccessException | RuntimeException e) {
+				writer = (receiver, value) -> {
+					throw e;
+				};
+			}
+			this.writer = writer;
+		}
+
+	}
+
 }
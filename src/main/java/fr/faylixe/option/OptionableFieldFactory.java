@@ -23,6 +23,42 @@ public final class OptionableFieldFactory {
 	/** Error message for original name not available exception. **/
 	private static final String ORIGINAL_NOT_AVAILABLE = "Original option name %s is not available.";
 
+	/** Description of record components without annotation. **/
+	private static final String DEFAULT_DESCRIPTION = "Description not provided.";
+
+	/** Error message for constructor parameter without name. **/
+	private static final String NOT_NAMED = "Parameter %d of %s constructor requires a long name.";
+
+	/** Resolved fields cache, computed once per class and released along with it. **/
+	private static final ClassValue<Segment> SEGMENTS = new ClassValue<Segment>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected Segment computeValue(final Class<?> type) {
+			final Class<?> parent = type.getSuperclass();
+			if (parent == null) {
+				return Segment.EMPTY;
+			}
+			final Segment segment = SEGMENTS.get(parent);
+			OptionableFieldFactory factory = new OptionableFieldFactory(segment.longs, segment.shorts);
+			List<OptionableField> declared = OptionableConstructor.isInjected(type)
+					? null
+					: factory.createIndexed(type, OptionableIndex.read(type));
+			if (declared == null) {
+				factory = new OptionableFieldFactory(segment.longs, segment.shorts);
+				declared = factory.createDeclared(type);
+			}
+			if (declared.isEmpty()) {
+				return segment;
+			}
+			final List<OptionableField> fields = new ArrayList<>(segment.fields.size() + declared.size());
+			fields.addAll(segment.fields);
+			fields.addAll(declared);
+			return new Segment(fields, factory.longs, factory.shorts);
+		}
+
+	};
+
 	/** Set of long option registered. **/
 	private final Set<String> longs;
 
@@ -37,6 +73,17 @@ public final class OptionableFieldFactory {
 		this.shorts = new HashSet<>();
 	}
 
+	/**
+	 * Constructor that starts from already registered names.
+	 * 
+	 * @param longs Set of long option already registered.
+	 * @param shorts Set of short option already registered.
+	 */
+	private OptionableFieldFactory(final Set<String> longs, final Set<String> shorts) {
+		this.longs = new HashSet<>(longs);
+		this.shorts = new HashSet<>(shorts);
+	}
+
 	/**
 	 * Indicates if the given <tt>name</tt> is valid as a long option.
 	 * 
@@ -76,14 +123,15 @@ public final class OptionableFieldFactory {
 	 */
 	private OptionableField toOptionableField(final Field field) {
 		final Optionable optionable = field.getAnnotation(Optionable.class);
-		final String shortName = getShortOption(field, optionable.shortName());
-		final String longName = getLongOption(field, optionable.longName());
+		final String shortName = getShortOption(field.getName(), optionable.shortName());
+		final String longName = getLongOption(field.getName(), optionable.longName());
 		return new OptionableField(
 				field,
 				shortName,
 				longName,
 				optionable.description(),
-				optionable.required());
+				optionable.required(),
+				optionable.separator());
 	}
 
 	/**
@@ -91,13 +139,13 @@ public final class OptionableFieldFactory {
 	 * field regarding of the provided user given
 	 * name. The name will be added to the internal cache.
 	 * 
-	 * @param field Optionable field to get long name for.
+	 * @param name Name of the optionable field or parameter.
 	 * @param original User given name through field annotation.
 	 * @return Field name or <tt>original</tt> name.
 	 * @throws IllegalStateException If no name can be used.
 	 */
-	private String getLongOption(final Field field, final String original) {
-		return getOption(field, original, this::isLongOptionAvailable, longs::add);
+	private String getLongOption(final String name, final String original) {
+		return getOption(name, original, this::isLongOptionAvailable, longs::add);
 	}
 
 	/**
@@ -105,13 +153,13 @@ public final class OptionableFieldFactory {
 	 * field regarding of the provided user given
 	 * name. The name will be added to the internal cache.
 	 * 
-	 * @param field Optionable field to get short name for.
+	 * @param name Name of the optionable field or parameter.
 	 * @param original User given name through field annotation.
 	 * @return Field name or <tt>original</tt> name.
 	 * @throws IllegalStateException If no name can be used.
 	 */
-	private String getShortOption(final Field field, final String original) {
-		return getOption(field, original, this::isShortOptionAvailable, this::addShort).substring(0, 1);
+	private String getShortOption(final String name, final String original) {
+		return getOption(name, original, this::isShortOptionAvailable, this::addShort).substring(0, 1);
 	}
 
 	/**
@@ -119,7 +167,7 @@ public final class OptionableFieldFactory {
 	 * of the provided user given name. The name will be
 	 * added to the internal cache.
 	 * 
-	 * @param field Optionable field to get long name for.
+	 * @param name Name of the optionable field or parameter.
 	 * @param original User given name through field annotation.
 	 * @param predicate Predicates that check is a given name is available.
 	 * @param consumer Consumer that handles selected name.
@@ -127,7 +175,7 @@ public final class OptionableFieldFactory {
 	 * @throws IllegalStateException If no name can be used.
 	 */
 	private static String getOption(
-			final Field field,
+			final String name,
 			final String original,
 			final Predicate<String> predicate,
 			final Consumer<String> consumer) {
@@ -138,7 +186,6 @@ public final class OptionableFieldFactory {
 			}
 			throw new IllegalStateException(String.format(ORIGINAL_NOT_AVAILABLE, original));
 		}
-		final String name = field.getName();
 		if (!predicate.test(name)) {
 			throw new IllegalStateException(String.format(FIELD_NOT_AVAILABLE, name));
 		}
@@ -158,10 +205,26 @@ public final class OptionableFieldFactory {
 			return Collections.emptyList();
 		}
 		final List<OptionableField> parents = create(application.getSuperclass());
-		final Field [] fields = application.getDeclaredFields();
-		final int size = fields.length + parents.size();
-		final List<OptionableField> options = new ArrayList<>(size);
+		final List<OptionableField> declared = createDeclared(application);
+		final List<OptionableField> options = new ArrayList<>(parents.size() + declared.size());
 		options.addAll(parents);
+		options.addAll(declared);
+		return options;
+	}
+
+	/**
+	 * Creates {@link OptionableField} for the fields declared
+	 * by the given <tt>type</tt> only, ignoring its parents.
+	 * 
+	 * @param type Class to create declared fields for.
+	 * @return Created option list.
+	 */
+	private List<OptionableField> createDeclared(final Class<?> type) {
+		if (OptionableConstructor.isInjected(type)) {
+			return createInjected(type, OptionableConstructor.of(type));
+		}
+		final Field [] fields = type.getDeclaredFields();
+		final List<OptionableField> options = new ArrayList<>(fields.length);
 		for (final Field field : fields) {
 			if (field.isAnnotationPresent(Optionable.class)) {
 				options.add(toOptionableField(field));
@@ -170,4 +233,143 @@ public final class OptionableFieldFactory {
 		return options;
 	}
 
+	/**
+	 * Creates {@link OptionableField} for the option parameters of the given
+	 * <tt>constructor</tt>. Parameter names are used as option names, unless
+	 * overridden through {@link Optionable}, and are only available for record
+	 * components and classes compiled with the <tt>-parameters</tt> flag.
+	 * 
+	 * @param type Class to create declared options for.
+	 * @param constructor Option constructor of the given <tt>type</tt>.
+	 * @return Created option list.
+	 * @throws IllegalStateException If a parameter has no name.
+	 */
+	private List<OptionableField> createInjected(final Class<?> type, final OptionableConstructor constructor) {
+		final List<OptionableField> options = new ArrayList<>(constructor.getParameterCount());
+		for (int i = 0; i < constructor.getParameterCount(); i++) {
+			if (!constructor.isOption(i)) {
+				continue;
+			}
+			final Optionable optionable = constructor.getOptionable(i);
+			final String originalLong = optionable == null ? "" : optionable.longName();
+			final String name = constructor.getName(i) == null ? originalLong : constructor.getName(i);
+			if (name.isEmpty()) {
+				throw new IllegalStateException(String.format(NOT_NAMED, i, type.getName()));
+			}
+			final String shortName = getShortOption(name, optionable == null ? "" : optionable.shortName());
+			final String longName = getLongOption(name, originalLong);
+			options.add(new OptionableField(
+					name,
+					constructor.getType(i),
+					constructor.getGenericType(i),
+					i,
+					shortName,
+					longName,
+					optionable == null ? DEFAULT_DESCRIPTION : optionable.description(),
+					optionable != null && optionable.required(),
+					optionable == null ? OptionableValues.SEPARATOR : optionable.separator()));
+		}
+		return options;
+	}
+
+	/**
+	 * Creates {@link OptionableField} for the fields declared by the given
+	 * <tt>type</tt> from its build time <tt>index</tt>, without parsing
+	 * annotations. The index is considered stale if the class hierarchy,
+	 * the signature of annotated fields, a field or its type do not match,
+	 * or if an indexed name is no longer available.
+	 * 
+	 * @param type Class to create declared fields for.
+	 * @param index Build time index of the given <tt>type</tt>, <tt>null</tt> if none.
+	 * @return Created option list, <tt>null</tt> if the index is missing or stale.
+	 */
+	List<OptionableField> createIndexed(final Class<?> type, final OptionableIndex index) {
+		if (index == null
+				|| !index.getSuperclass().equals(type.getSuperclass().getName())
+				|| index.getSignature() != OptionableIndex.signature(type)) {
+			return null;
+		}
+		final List<OptionableIndex.Entry> entries = index.getEntries();
+		final List<OptionableField> options = new ArrayList<>(entries.size());
+		for (final OptionableIndex.Entry entry : entries) {
+			final String shortName = entry.getShortName();
+			final String longName = entry.getLongName();
+			if (shortName.isEmpty() || !isShortOptionAvailable(shortName) || !isLongOptionAvailable(longName)) {
+				return null;
+			}
+			final Field field;
+			try {
+				field = type.getDeclaredField(entry.getName());
+			}
+			catch (final NoSuchFieldException e) {
+				return null;
+			}
+			if (!field.getType().getName().equals(entry.getType())) {
+				return null;
+			}
+			addShort(shortName);
+			longs.add(longName);
+			options.add(new OptionableField(
+					field,
+					shortName,
+					longName,
+					entry.getDescription(),
+					entry.isRequired(),
+					entry.getSeparator()));
+		}
+		return options;
+	}
+
+	/**
+	 * Retrieves the {@link OptionableField} list for the given <tt>type</tt>
+	 * from the per class cache. Reflection is performed only the first time a
+	 * class is requested, parent classes resolution being shared between all
+	 * of their children.
+	 * 
+	 * @param type Target class where field should be optionalized.
+	 * @return Unmodifiable cached option list.
+	 * @throws IllegalStateException If an option name conflict is detected.
+	 */
+	static List<OptionableField> getOptionableFields(final Class<?> type) {
+		return SEGMENTS.get(type).fields;
+	}
+
+	/**
+	 * Immutable resolution result for a given class hierarchy, namely
+	 * the created fields and the registered option names.
+	 * 
+	 * @author fv
+	 */
+	private static final class Segment {
+
+		/** Segment for classes without any parent. **/
+		private static final Segment EMPTY = new Segment(
+				Collections.<OptionableField>emptyList(),
+				Collections.<String>emptySet(),
+				Collections.<String>emptySet());
+
+		/** Fields resolved for the whole hierarchy. **/
+		private final List<OptionableField> fields;
+
+		/** Long option names registered by the hierarchy. **/
+		private final Set<String> longs;
+
+		/** Short option names registered by the hierarchy. **/
+		private final Set<String> shorts;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param fields Fields resolved for the whole hierarchy.
+		 * @param longs Long option names registered by the hierarchy.
+		 * @param shorts Short option names registered by the hierarchy.
+		 */
+		private Segment(final List<OptionableField> fields, final Set<String> longs, final Set<String> shorts) {
+			this.fields = Collections.unmodifiableList(fields);
+			this.longs = Collections.unmodifiableSet(longs);
+			this.shorts = Collections.unmodifiableSet(shorts);
+		}
+
+	}
+
 }
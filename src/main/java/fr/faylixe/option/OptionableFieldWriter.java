@@ -0,0 +1,24 @@
+package fr.faylixe.option;
+
+/**
+ * Functional interface for writing a command line
+ * value into a receiver field, resolved once per
+ * {@link OptionableField}.
+ * 
+ * @param <V> Type of raw value handled, a single value or collected {@link OptionableValues}.
+ * @author fv
+ */
+@FunctionalInterface
+interface OptionableFieldWriter<V> {
+
+	/**
+	 * Converts and writes the given <tt>value</tt>
+	 * into the <tt>receiver</tt> field.
+	 * 
+	 * @param receiver Target field receiver instance.
+	 * @param value Value retrieved from command line, <tt>null</tt> for flags.
+	 * @throws Throwable If conversion or writing failed.
+	 */
+	void write(Object receiver, V value) throws Throwable;
+
+}
@@ -0,0 +1,107 @@
+package fr.faylixe.option;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Isolates JDK Flight Recorder API usage, so that this class is
+ * only loaded by {@link OptionableRecorder} once Flight Recorder
+ * is known to be provided by the runtime.
+ * 
+ * @author fv
+ */
+final class OptionableFlightRecorder {
+
+	/**
+	 * Flight Recorder event for a bootstrap phase.
+	 * 
+	 * @author fv
+	 */
+	@Name("fr.faylixe.option.Phase")
+	@Label("Option Bootstrap Phase")
+	@Category("Option")
+	@Description("Phase of a command line container bootstrap")
+	static final class PhaseEvent extends Event {
+
+		/** Class of the bootstrapped container. **/
+		@Label("Container")
+		Class<?> container;
+
+		/** Completed phase. **/
+		@Label("Phase")
+		String phase;
+
+		/** Number of fields involved in the phase. **/
+		@Label("Fields")
+		int fields;
+
+		/** Bytes allocated by the bootstrapping thread during the phase. **/
+		@Label("Allocated")
+		@DataAmount
+		long allocated;
+
+	}
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableFlightRecorder() {
+		// Do nothing.
+	}
+
+	/**
+	 * Indicates if Flight Recorder has been initialized,
+	 * namely if a recording has been started.
+	 * 
+	 * @return <tt>true</tt> if Flight Recorder is initialized, <tt>false</tt> otherwise.
+	 */
+	static boolean isInitialized() {
+		return FlightRecorder.isInitialized();
+	}
+
+	/**
+	 * Begins a phase event.
+	 * 
+	 * @return Begun event, <tt>null</tt> if phase events are not enabled.
+	 */
+	static Object begin() {
+		final PhaseEvent event = new PhaseEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commits the given phase event.
+	 * 
+	 * @param event Event returned by {@link #begin()}.
+	 * @param type Class of the bootstrapped container.
+	 * @param phase Completed phase.
+	 * @param fields Number of fields involved in the phase.
+	 * @param allocated Bytes allocated by the bootstrapping thread during the phase.
+	 */
+	static void commit(
+			final Object event,
+			final Class<?> type,
+			final OptionablePhase phase,
+			final int fields,
+			final long allocated) {
+		final PhaseEvent phaseEvent = (PhaseEvent) event;
+		phaseEvent.end();
+		if (phaseEvent.shouldCommit()) {
+			phaseEvent.container = type;
+			phaseEvent.phase = phase.name();
+			phaseEvent.fields = fields;
+			phaseEvent.allocated = allocated;
+			phaseEvent.commit();
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+package fr.faylixe.option;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire protocol shared by {@link OptionableDaemon} and {@link OptionableDaemonClient}.
+ * <p>
+ * A request starts with {@link #MAGIC}, followed by the argument count and
+ * arguments, the client working directory, and the environment variable count
+ * and name value pairs. Strings are written as their UTF-8 byte length followed
+ * by their bytes. The response is a sequence of frames made of a type byte, a
+ * payload length and the payload, ended by an {@link #EXIT} frame whose payload
+ * is the exit code.
+ * 
+ * @author fv
+ */
+final class OptionableFrames {
+
+	/** Request header. **/
+	static final int MAGIC = 0x4F505444;
+
+	/** Frame of standard output bytes. **/
+	static final byte OUT = 1;
+
+	/** Frame of standard error bytes. **/
+	static final byte ERR = 2;
+
+	/** Frame of exit code, ending the response. **/
+	static final byte EXIT = 3;
+
+	/** Error message for not valid request or response. **/
+	private static final String NOT_VALID = "Not valid daemon %s";
+
+	/** Maximum accepted string length. **/
+	private static final int MAX_LENGTH = 1 << 24;
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableFrames() {
+		// Do nothing.
+	}
+
+	/**
+	 * Writes the given <tt>value</tt>.
+	 * 
+	 * @param output Stream to write into.
+	 * @param value String to write.
+	 * @throws IOException If the string cannot be written.
+	 */
+	static void writeString(final DataOutputStream output, final String value) throws IOException {
+		final byte [] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Reads a string.
+	 * 
+	 * @param input Stream to read from.
+	 * @return Read string.
+	 * @throws IOException If the string cannot be read or has a not valid length.
+	 */
+	static String readString(final DataInputStream input) throws IOException {
+		final byte [] bytes = new byte[readLength(input, "request")];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a length or count, checking its bounds.
+	 * 
+	 * @param input Stream to read from.
+	 * @param kind Kind of message being read, for error reporting.
+	 * @return Read length.
+	 * @throws IOException If the length cannot be read or is not valid.
+	 */
+	static int readLength(final DataInputStream input, final String kind) throws IOException {
+		final int length = input.readInt();
+		if (length < 0 || length > MAX_LENGTH) {
+			throw new IOException(String.format(NOT_VALID, kind));
+		}
+		return length;
+	}
+
+	/**
+	 * Checks the given request header.
+	 * 
+	 * @param magic Read header.
+	 * @throws IOException If the header is not valid.
+	 */
+	static void checkMagic(final int magic) throws IOException {
+		if (magic != MAGIC) {
+			throw new IOException(String.format(NOT_VALID, "request"));
+		}
+	}
+
+	/**
+	 * Writes a frame.
+	 * 
+	 * @param output Stream to write into.
+	 * @param type Type of the frame.
+	 * @param payload Payload buffer.
+	 * @param offset Offset of the payload in the buffer.
+	 * @param length Length of the payload.
+	 * @throws IOException If the frame cannot be written.
+	 */
+	static void writeFrame(
+			final DataOutputStream output,
+			final byte type,
+			final byte [] payload,
+			final int offset,
+			final int length) throws IOException {
+		synchronized (output) {
+			output.writeByte(type);
+			output.writeInt(length);
+			output.write(payload, offset, length);
+			output.flush();
+		}
+	}
+
+	/**
+	 * Writes the exit frame.
+	 * 
+	 * @param output Stream to write into.
+	 * @param code Exit code.
+	 * @throws IOException If the frame cannot be written.
+	 */
+	static void writeExit(final DataOutputStream output, final int code) throws IOException {
+		synchronized (output) {
+			output.writeByte(EXIT);
+			output.writeInt(Integer.BYTES);
+			output.writeInt(code);
+			output.flush();
+		}
+	}
+
+	/**
+	 * Output stream which writes bytes as frames of a given type.
+	 * 
+	 * @author fv
+	 */
+	static final class FrameOutputStream extends OutputStream {
+
+		/** Stream to write frames into. **/
+		private final DataOutputStream output;
+
+		/** Type of written frames. **/
+		private final byte type;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param output Stream to write frames into.
+		 * @param type Type of written frames.
+		 */
+		FrameOutputStream(final DataOutputStream output, final byte type) {
+			this.output = output;
+			this.type = type;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void write(final int value) throws IOException {
+			write(new byte[]{(byte) value}, 0, 1);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void write(final byte [] buffer, final int offset, final int length) throws IOException {
+			if (length > 0) {
+				writeFrame(output, type, buffer, offset, length);
+			}
+		}
+
+	}
+
+}
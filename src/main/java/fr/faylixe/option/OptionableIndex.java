@@ -0,0 +1,297 @@
+package fr.faylixe.option;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Build time index of the {@link Optionable} fields declared by a
+ * container class, written by the annotation processor under
+ * {@link #PREFIX} followed by the class binary name. It records field
+ * names and types along with their resolved option names, so that
+ * schemas can be built without resolving names again.
+ * <p>
+ * The index is binary, as written by {@link DataOutputStream} : a magic
+ * number, the superclass binary name, the {@link #signature(Class)} of the
+ * annotated fields, the number of fields, then for each field its name,
+ * type name, short name, long name, description, required flag and
+ * separator of values.
+ * 
+ * @author fv
+ */
+public final class OptionableIndex {
+
+	/** Resource path prefix of indexes. **/
+	public static final String PREFIX = "META-INF/option/index/";
+
+	/** Magic number of the index format. **/
+	private static final int MAGIC = 0x4F505433;
+
+	/** Binary name of the superclass of the indexed class. **/
+	private final String superclass;
+
+	/** Signature of the annotated fields declared by the indexed class. **/
+	private final int signature;
+
+	/** Indexed fields, in declaration order. **/
+	private final List<Entry> entries;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param superclass Binary name of the superclass of the indexed class.
+	 * @param signature Signature of the annotated fields declared by the indexed class.
+	 * @param entries Indexed fields, in declaration order.
+	 */
+	public OptionableIndex(final String superclass, final int signature, final List<Entry> entries) {
+		this.superclass = superclass;
+		this.signature = signature;
+		this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+	}
+
+	/** @return Binary name of the superclass of the indexed class. **/
+	String getSuperclass() {
+		return superclass;
+	}
+
+	/** @return Signature of the annotated fields declared by the indexed class. **/
+	int getSignature() {
+		return signature;
+	}
+
+	/** @return Indexed fields, in declaration order. **/
+	List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Computes the signature of an annotated field from its name and
+	 * raw annotation values. The signature of a class is the sum of its
+	 * fields signatures, so that it does not depend on declaration order.
+	 * 
+	 * @param name Name of the field.
+	 * @param optionable Annotation of the field.
+	 * @return Signature of the field.
+	 */
+	public static int signature(final String name, final Optionable optionable) {
+		return Objects.hash(
+				name,
+				optionable.shortName(),
+				optionable.longName(),
+				optionable.description(),
+				optionable.required(),
+				optionable.separator());
+	}
+
+	/**
+	 * Computes the signature of the {@link Optionable} fields declared by
+	 * the given <tt>type</tt>, used to detect an index that was built
+	 * before a field was added, removed or had its annotation changed.
+	 * 
+	 * @param type Class to compute signature for.
+	 * @return Signature of the annotated fields declared by the given <tt>type</tt>.
+	 */
+	static int signature(final Class<?> type) {
+		int signature = 0;
+		for (final Field field : type.getDeclaredFields()) {
+			final Optionable optionable = field.getAnnotation(Optionable.class);
+			if (optionable != null) {
+				signature += signature(field.getName(), optionable);
+			}
+		}
+		return signature;
+	}
+
+	/**
+	 * Writes this index into the given <tt>stream</tt>.
+	 * 
+	 * @param stream Stream to write index into.
+	 * @throws IOException If the index cannot be written.
+	 */
+	public void write(final OutputStream stream) throws IOException {
+		final DataOutputStream output = new DataOutputStream(stream);
+		output.writeInt(MAGIC);
+		output.writeUTF(superclass);
+		output.writeInt(signature);
+		output.writeInt(entries.size());
+		for (final Entry entry : entries) {
+			output.writeUTF(entry.name);
+			output.writeUTF(entry.type);
+			output.writeUTF(entry.shortName);
+			output.writeUTF(entry.longName);
+			output.writeUTF(entry.description);
+			output.writeBoolean(entry.required);
+			output.writeUTF(entry.separator);
+		}
+		output.flush();
+	}
+
+	/**
+	 * Reads an index from the given <tt>stream</tt>.
+	 * 
+	 * @param stream Stream to read index from.
+	 * @return Read index.
+	 * @throws IOException If the index cannot be read or is not valid.
+	 */
+	static OptionableIndex read(final InputStream stream) throws IOException {
+		final DataInputStream input = new DataInputStream(stream);
+		if (input.readInt() != MAGIC) {
+			throw new IOException();
+		}
+		final String superclass = input.readUTF();
+		final int signature = input.readInt();
+		final int size = input.readInt();
+		final List<Entry> entries = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			entries.add(new Entry(
+					input.readUTF(),
+					input.readUTF(),
+					input.readUTF(),
+					input.readUTF(),
+					input.readUTF(),
+					input.readBoolean(),
+					input.readUTF()));
+		}
+		return new OptionableIndex(superclass, signature, entries);
+	}
+
+	/**
+	 * Reads the index of the given <tt>type</tt>.
+	 * 
+	 * @param type Class to read index for.
+	 * @return Read index, <tt>null</tt> if not available or not valid.
+	 */
+	static OptionableIndex read(final Class<?> type) {
+		final ClassLoader loader = type.getClassLoader();
+		if (loader == null) {
+			return null;
+		}
+		try (final InputStream stream = loader.getResourceAsStream(PREFIX + type.getName())) {
+			return stream == null ? null : read(stream);
+		}
+		catch (final IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Indexed field.
+	 * 
+	 * @author fv
+	 */
+	public static final class Entry {
+
+		/** Name of the field. **/
+		private final String name;
+
+		/** Name of the field type, as returned by {@link Class#getName()}. **/
+		private final String type;
+
+		/** Resolved short option name. **/
+		private final String shortName;
+
+		/** Resolved long option name. **/
+		private final String longName;
+
+		/** Option description. **/
+		private final String description;
+
+		/** Indicates if the option is required. **/
+		private final boolean required;
+
+		/** Separator of values within an occurrence, empty if occurrences are not split. **/
+		private final String separator;
+
+		/**
+		 * Default constructor, using the default separator of values.
+		 * 
+		 * @param name Name of the field.
+		 * @param type Name of the field type, as returned by {@link Class#getName()}.
+		 * @param shortName Resolved short option name.
+		 * @param longName Resolved long option name.
+		 * @param description Option description.
+		 * @param required Indicates if the option is required.
+		 */
+		public Entry(
+				final String name,
+				final String type,
+				final String shortName,
+				final String longName,
+				final String description,
+				final boolean required) {
+			this(name, type, shortName, longName, description, required, OptionableValues.SEPARATOR);
+		}
+
+		/**
+		 * Constructor with explicit separator of values.
+		 * 
+		 * @param name Name of the field.
+		 * @param type Name of the field type, as returned by {@link Class#getName()}.
+		 * @param shortName Resolved short option name.
+		 * @param longName Resolved long option name.
+		 * @param description Option description.
+		 * @param required Indicates if the option is required.
+		 * @param separator Separator of values within an occurrence, empty if occurrences are not split.
+		 */
+		public Entry(
+				final String name,
+				final String type,
+				final String shortName,
+				final String longName,
+				final String description,
+				final boolean required,
+				final String separator) {
+			this.name = name;
+			this.type = type;
+			this.shortName = shortName;
+			this.longName = longName;
+			this.description = description;
+			this.required = required;
+			this.separator = separator;
+		}
+
+		/** @return Name of the field. **/
+		String getName() {
+			return name;
+		}
+
+		/** @return Name of the field type, as returned by {@link Class#getName()}. **/
+		String getType() {
+			return type;
+		}
+
+		/** @return Resolved short option name. **/
+		String getShortName() {
+			return shortName;
+		}
+
+		/** @return Resolved long option name. **/
+		String getLongName() {
+			return longName;
+		}
+
+		/** @return Option description. **/
+		String getDescription() {
+			return description;
+		}
+
+		/** @return <tt>true</tt> if the option is required, <tt>false</tt> otherwise. **/
+		boolean isRequired() {
+			return required;
+		}
+
+		/** @return Separator of values within an occurrence, empty if occurrences are not split. **/
+		String getSeparator() {
+			return separator;
+		}
+
+	}
+
+}
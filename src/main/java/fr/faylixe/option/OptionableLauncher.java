@@ -0,0 +1,160 @@
+package fr.faylixe.option;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Launches a batch of {@link OptionableApplication} executions concurrently.
+ * Schemas and constructors are resolved once per distinct application class
+ * before any execution starts, so that executions of the same class only
+ * pay for parsing, binding and running. Each execution failure is reported
+ * through its own {@link OptionableResult}, the batch future never completing
+ * exceptionally.
+ * 
+ * @author fv
+ */
+public final class OptionableLauncher {
+
+	/** Error message for application that cannot be created. **/
+	private static final String NOT_CREATED = "Unable to create application %s";
+
+	/** Constructor cache, resolved once per class. **/
+	private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected Constructor<?> computeValue(final Class<?> type) {
+			try {
+				final Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				return constructor;
+			}
+			catch (final NoSuchMethodException e) {
+				return null;
+			}
+		}
+
+	};
+
+	/** Executor to run applications with. **/
+	private final Executor executor;
+
+	/** Application classes to launch, in submission order. **/
+	private final List<Class<? extends OptionableApplication>> types;
+
+	/** Command line parameters of each application, in submission order. **/
+	private final List<String []> arguments;
+
+	/**
+	 * Default constructor, using virtual threads when available.
+	 */
+	public OptionableLauncher() {
+		this(OptionableExecutors.getDefault());
+	}
+
+	/**
+	 * Constructor with custom executor.
+	 * 
+	 * @param executor Executor to run applications with.
+	 */
+	public OptionableLauncher(final Executor executor) {
+		this.executor = executor;
+		this.types = new ArrayList<>();
+		this.arguments = new ArrayList<>();
+	}
+
+	/**
+	 * Adds an application execution to this launcher.
+	 * 
+	 * @param type Class of the application to execute, which must declare a no argument constructor.
+	 * @param args Command line parameters of the application.
+	 * @return This launcher instance.
+	 */
+	public OptionableLauncher add(final Class<? extends OptionableApplication> type, final String... args) {
+		types.add(type);
+		arguments.add(args.clone());
+		return this;
+	}
+
+	/**
+	 * Launches all added applications.
+	 * 
+	 * @return Future list of results, in submission order.
+	 */
+	public CompletableFuture<List<OptionableResult>> launch() {
+		final Set<Class<? extends OptionableApplication>> distinct = new LinkedHashSet<>(types);
+		for (final Class<? extends OptionableApplication> type : distinct) {
+			CONSTRUCTORS.get(type);
+			try {
+				OptionableSchema.of(type);
+			}
+			catch (final IllegalStateException e) {
+				// Reported by each execution of this class.
+			}
+		}
+		final List<CompletableFuture<OptionableResult>> futures = new ArrayList<>(types.size());
+		for (int i = 0; i < types.size(); i++) {
+			final Class<? extends OptionableApplication> type = types.get(i);
+			final String [] args = arguments.get(i);
+			futures.add(CompletableFuture.supplyAsync(() -> execute(type, args), executor));
+		}
+		return CompletableFuture
+				.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+				.thenApply(ignored -> {
+					final List<OptionableResult> results = new ArrayList<>(futures.size());
+					for (final CompletableFuture<OptionableResult> future : futures) {
+						results.add(future.join());
+					}
+					return results;
+				});
+	}
+
+	/**
+	 * Creates and executes an application on the current thread.
+	 * 
+	 * @param type Class of the application to execute.
+	 * @param args Command line parameters of the application.
+	 * @return Result of the execution.
+	 */
+	private static OptionableResult execute(final Class<? extends OptionableApplication> type, final String [] args) {
+		final OptionableApplication application;
+		try {
+			application = create(type);
+		}
+		catch (final IllegalStateException e) {
+			return new OptionableResult(null, OptionableResult.EXIT_FAILURE, e);
+		}
+		return application.call(args);
+	}
+
+	/**
+	 * Creates an instance of the given application <tt>type</tt>.
+	 * 
+	 * @param type Class of the application to create.
+	 * @return Created application.
+	 * @throws IllegalStateException If the application cannot be created.
+	 */
+	static OptionableApplication create(final Class<? extends OptionableApplication> type) {
+		final Constructor<?> constructor = CONSTRUCTORS.get(type);
+		if (constructor == null) {
+			throw new IllegalStateException(String.format(NOT_CREATED, type.getName()));
+		}
+		try {
+			return type.cast(constructor.newInstance());
+		}
+		catch (final ReflectiveOperationException e) {
+			final Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+			throw new IllegalStateException(String.format(NOT_CREATED, type.getName()), cause);
+		}
+		catch (final RuntimeException e) {
+			throw new IllegalStateException(String.format(NOT_CREATED, type.getName()), e);
+		}
+	}
+
+}
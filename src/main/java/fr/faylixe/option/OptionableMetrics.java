@@ -0,0 +1,23 @@
+package fr.faylixe.option;
+
+/**
+ * Callback notified with the cost of each bootstrap phase
+ * of a container, as set through {@link OptionableContainer#setMetrics(OptionableMetrics)}.
+ * 
+ * @author fv
+ */
+@FunctionalInterface
+public interface OptionableMetrics {
+
+	/**
+	 * Records a completed phase.
+	 * 
+	 * @param type Class of the bootstrapped container.
+	 * @param phase Completed phase.
+	 * @param duration Duration of the phase, in nanoseconds.
+	 * @param fields Number of fields involved in the phase.
+	 * @param allocated Bytes allocated by the bootstrapping thread during the phase, <tt>-1</tt> if not supported.
+	 */
+	void record(Class<?> type, OptionablePhase phase, long duration, int fields, long allocated);
+
+}
@@ -0,0 +1,46 @@
+package fr.faylixe.option;
+
+/**
+ * {@link NumberFormatException} raised by {@link OptionableNumbers},
+ * which locates the offending character within the parsed value.
+ * 
+ * @author fv
+ */
+public final class OptionableNumberFormatException extends NumberFormatException {
+
+	/** Serialization index. **/
+	private static final long serialVersionUID = 1L;
+
+	/** Message format, taking reason, offset and input. **/
+	private static final String FORMAT = "%s at index %d in \"%s\"";
+
+	/** Value being parsed. **/
+	private final String input;
+
+	/** Offset of the error within the parsed value. **/
+	private final int errorOffset;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param reason Description of the error.
+	 * @param input Value being parsed.
+	 * @param errorOffset Offset of the error within the parsed value.
+	 */
+	OptionableNumberFormatException(final String reason, final String input, final int errorOffset) {
+		super(String.format(FORMAT, reason, errorOffset, input));
+		this.input = input;
+		this.errorOffset = errorOffset;
+	}
+
+	/** @return Value being parsed. **/
+	public String getInput() {
+		return input;
+	}
+
+	/** @return Offset of the error within the parsed value. **/
+	public int getErrorOffset() {
+		return errorOffset;
+	}
+
+}
@@ -0,0 +1,585 @@
+package fr.faylixe.option;
+
+/**
+ * Numeric parsing routines that work directly on a range of a
+ * {@link CharSequence}, so that values are read from the argument
+ * characters without creating intermediate strings nor boxing results.
+ * <p>
+ * Integers accept an optional sign and are checked for overflow. When
+ * enabled through {@link #setExtendedSyntax(boolean)}, integers also accept
+ * a <tt>0x</tt> hexadecimal prefix, and both integers and floating point
+ * values accept underscores between digits. Floating point values use an
+ * exact fast path for the common case of short decimal values, then the
+ * Eisel-Lemire algorithm for long ones, falling back to the JDK parser in
+ * the rare cases they cannot decide. Errors are reported as
+ * {@link OptionableNumberFormatException} that locate the offending character.
+ * 
+ * @author fv
+ */
+public final class OptionableNumbers {
+
+	/** Error reason for empty value. **/
+	private static final String EMPTY = "Empty number";
+
+	/** Error reason for missing digits. **/
+	private static final String MISSING_DIGITS = "Missing digits";
+
+	/** Error reason for unexpected character. **/
+	private static final String INVALID_CHARACTER = "Invalid character";
+
+	/** Error reason for misplaced underscore. **/
+	private static final String INVALID_UNDERSCORE = "Underscore must be placed between digits";
+
+	/** Error reason for overflow. **/
+	private static final String OUT_OF_RANGE = "Value out of range";
+
+	/** Digits separator. **/
+	private static final char UNDERSCORE = '_';
+
+	/** Maximum number of significant digits kept in a mantissa, which is unsigned as 19 digits may exceed {@link Long#MAX_VALUE}. **/
+	private static final int MAX_DIGITS = 19;
+
+	/** Number of significant bits of a double. **/
+	private static final int DOUBLE_PRECISION = 53;
+
+	/** Number of significant bits of a float. **/
+	private static final int FLOAT_PRECISION = 24;
+
+	/** Exponent bias of a double. **/
+	private static final int DOUBLE_BIAS = 1023;
+
+	/** Exponent bias of a float. **/
+	private static final int FLOAT_BIAS = 127;
+
+	/** Mask of the lower half of a long. **/
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+
+	/** Exclusive bound of mantissa exactly representable as double. **/
+	private static final long DOUBLE_EXACT = 1L << 53;
+
+	/** Exclusive bound of mantissa exactly representable as float. **/
+	private static final long FLOAT_EXACT = 1L << 24;
+
+	/** Bound of absolute exponent value kept while parsing. **/
+	private static final int MAX_EXPONENT = 100000;
+
+	/** Powers of ten exactly representable as double. **/
+	private static final double [] DOUBLE_POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** Powers of ten exactly representable as float. **/
+	private static final float [] FLOAT_POWERS = {
+		1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	/** Indicates if hexadecimal prefix and underscores are accepted. **/
+	private static volatile boolean extendedSyntax;
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableNumbers() {
+		// Do nothing.
+	}
+
+	/**
+	 * Enables or disables the extended syntax, namely the <tt>0x</tt> hexadecimal
+	 * prefix for integers and underscores between digits, such as <tt>1_000_000</tt>.
+	 * The extended syntax is disabled by default and applies to every container.
+	 * 
+	 * @param enabled <tt>true</tt> to accept the extended syntax, <tt>false</tt> otherwise.
+	 */
+	public static void setExtendedSyntax(final boolean enabled) {
+		extendedSyntax = enabled;
+	}
+
+	/**
+	 * Parses the given <tt>value</tt> as an integer.
+	 * 
+	 * @param value Value to parse.
+	 * @return Parsed integer.
+	 * @throws OptionableNumberFormatException If the given <tt>value</tt> is not a valid integer.
+	 */
+	public static int parseInt(final CharSequence value) {
+		return parseInt(value, 0, value.length());
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as an integer.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @return Parsed integer.
+	 * @throws OptionableNumberFormatException If the given range is not a valid integer.
+	 */
+	public static int parseInt(final CharSequence value, final int start, final int end) {
+		final long result = parseLong(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		return (int) result;
+	}
+
+	/**
+	 * Parses the given <tt>value</tt> as a long.
+	 * 
+	 * @param value Value to parse.
+	 * @return Parsed long.
+	 * @throws OptionableNumberFormatException If the given <tt>value</tt> is not a valid long.
+	 */
+	public static long parseLong(final CharSequence value) {
+		return parseLong(value, 0, value.length());
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as a long.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @return Parsed long.
+	 * @throws OptionableNumberFormatException If the given range is not a valid long.
+	 */
+	public static long parseLong(final CharSequence value, final int start, final int end) {
+		return parseLong(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Parses the given <tt>value</tt> as a float.
+	 * 
+	 * @param value Value to parse.
+	 * @return Parsed float.
+	 * @throws OptionableNumberFormatException If the given <tt>value</tt> is not a valid float.
+	 */
+	public static float parseFloat(final CharSequence value) {
+		return parseFloat(value, 0, value.length());
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as a float.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @return Parsed float.
+	 * @throws OptionableNumberFormatException If the given range is not a valid float.
+	 */
+	public static float parseFloat(final CharSequence value, final int start, final int end) {
+		return (float) parseDecimal(value, start, end, true);
+	}
+
+	/**
+	 * Parses the given <tt>value</tt> as a double.
+	 * 
+	 * @param value Value to parse.
+	 * @return Parsed double.
+	 * @throws OptionableNumberFormatException If the given <tt>value</tt> is not a valid double.
+	 */
+	public static double parseDouble(final CharSequence value) {
+		return parseDouble(value, 0, value.length());
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as a double.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @return Parsed double.
+	 * @throws OptionableNumberFormatException If the given range is not a valid double.
+	 */
+	public static double parseDouble(final CharSequence value, final int start, final int end) {
+		return parseDecimal(value, start, end, false);
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as a long within the given bounds.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @param min Minimum allowed value.
+	 * @param max Maximum allowed value.
+	 * @return Parsed long.
+	 * @throws OptionableNumberFormatException If the given range is not a valid number within bounds.
+	 */
+	private static long parseLong(
+			final CharSequence value,
+			final int start,
+			final int end,
+			final long min,
+			final long max) {
+		if (start >= end) {
+			throw error(EMPTY, value, start, end, start);
+		}
+		int i = start;
+		final char first = value.charAt(i);
+		final boolean negative = first == '-';
+		if (negative || first == '+') {
+			i++;
+		}
+		final boolean extended = extendedSyntax;
+		int radix = 10;
+		if (extended && end - i > 2 && value.charAt(i) == '0' && (value.charAt(i + 1) | 0x20) == 'x') {
+			radix = 16;
+			i += 2;
+		}
+		if (i == end) {
+			throw error(MISSING_DIGITS, value, start, end, i);
+		}
+		// Accumulates negatively, as the negative range is the largest.
+		final long limit = negative ? min : -max;
+		final long multiplicationLimit = limit / radix;
+		final int digits = i;
+		long result = 0;
+		for (; i < end; i++) {
+			final char current = value.charAt(i);
+			if (current == UNDERSCORE && extended) {
+				checkUnderscore(value, digits, end, i, radix, start);
+				continue;
+			}
+			final int digit = digit(current, radix);
+			if (digit < 0) {
+				throw error(INVALID_CHARACTER, value, start, end, i);
+			}
+			if (result < multiplicationLimit) {
+				throw error(OUT_OF_RANGE, value, start, end, i);
+			}
+			result *= radix;
+			if (result < limit + digit) {
+				throw error(OUT_OF_RANGE, value, start, end, i);
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Ensures the underscore at the given <tt>index</tt> is surrounded
+	 * by digits or other underscores, within the digits range.
+	 * 
+	 * @param value Value being parsed.
+	 * @param digits Start index of digits.
+	 * @param end End index of the range, exclusive.
+	 * @param index Index of the underscore.
+	 * @param radix Radix of digits.
+	 * @param start Start index of the range, for error reporting.
+	 * @throws OptionableNumberFormatException If the underscore is misplaced.
+	 */
+	private static void checkUnderscore(
+			final CharSequence value,
+			final int digits,
+			final int end,
+			final int index,
+			final int radix,
+			final int start) {
+		if (index == digits
+				|| index + 1 == end
+				|| !isDigitOrUnderscore(value.charAt(index - 1), radix)
+				|| !isDigitOrUnderscore(value.charAt(index + 1), radix)) {
+			throw error(INVALID_UNDERSCORE, value, start, end, index);
+		}
+	}
+
+	/**
+	 * Indicates if the given <tt>character</tt> is a digit or an underscore.
+	 * 
+	 * @param character Character to check.
+	 * @param radix Radix of digits.
+	 * @return <tt>true</tt> if the given <tt>character</tt> is a digit or an underscore.
+	 */
+	private static boolean isDigitOrUnderscore(final char character, final int radix) {
+		return character == UNDERSCORE || digit(character, radix) >= 0;
+	}
+
+	/**
+	 * Retrieves the value of the given ASCII digit.
+	 * 
+	 * @param character Character to convert.
+	 * @param radix Radix of digits, either 10 or 16.
+	 * @return Value of the digit, <tt>-1</tt> if the given <tt>character</tt> is not a digit.
+	 */
+	private static int digit(final char character, final int radix) {
+		if (character >= '0' && character <= '9') {
+			return character - '0';
+		}
+		if (radix == 16) {
+			final int lower = character | 0x20;
+			if (lower >= 'a' && lower <= 'f') {
+				return lower - 'a' + 10;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Creates an error for the given range.
+	 * 
+	 * @param reason Description of the error.
+	 * @param value Value being parsed.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @param index Index of the error within <tt>value</tt>.
+	 * @return Created error.
+	 */
+	private static OptionableNumberFormatException error(
+			final String reason,
+			final CharSequence value,
+			final int start,
+			final int end,
+			final int index) {
+		return new OptionableNumberFormatException(reason, value.subSequence(start, end).toString(), index - start);
+	}
+
+	/**
+	 * Parses the given range of <tt>value</tt> as a decimal floating point
+	 * number. Up to 19 significant digits are accumulated into an unsigned
+	 * long mantissa along with a power of ten exponent. When both are exactly
+	 * representable, the result is computed with a single correctly rounded
+	 * operation, other values going through the Eisel-Lemire algorithm and
+	 * only being delegated to the JDK parser when it cannot decide. Syntax that
+	 * is not handled here, such as <tt>NaN</tt> or hexadecimal floating point,
+	 * is validated against the JDK parser before being reported as an error.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @param single Indicates if the result should be rounded as float.
+	 * @return Parsed value.
+	 * @throws OptionableNumberFormatException If the given range is not a valid number.
+	 */
+	private static double parseDecimal(
+			final CharSequence value,
+			final int start,
+			final int end,
+			final boolean single) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			negative = value.charAt(i++) == '-';
+		}
+		final int integers = i;
+		final boolean extended = extendedSyntax;
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean truncated = false;
+		boolean underscores = false;
+		boolean fraction = false;
+		int section = i;
+		for (; i < end; i++) {
+			final char current = value.charAt(i);
+			if (current == '.' && !fraction) {
+				fraction = true;
+				section = i + 1;
+				continue;
+			}
+			if (current == UNDERSCORE && extended) {
+				checkUnderscore(value, section, end, i, 10, start);
+				underscores = true;
+				continue;
+			}
+			final int digit = digit(current, 10);
+			if (digit < 0) {
+				break;
+			}
+			if (digits < MAX_DIGITS) {
+				if (digits > 0 || digit > 0) {
+					mantissa = mantissa * 10 + digit;
+					digits++;
+				}
+				if (fraction && exponent > -MAX_EXPONENT) {
+					exponent--;
+				}
+			}
+			else {
+				truncated |= digit != 0;
+				if (!fraction && exponent < MAX_EXPONENT) {
+					exponent++;
+				}
+			}
+		}
+		final boolean any = i - integers > (fraction ? 1 : 0);
+		if (any && i < end && (value.charAt(i) | 0x20) == 'e') {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+				negativeExponent = value.charAt(i++) == '-';
+			}
+			final int exponentDigits = i;
+			int explicit = 0;
+			for (; i < end; i++) {
+				final int digit = digit(value.charAt(i), 10);
+				if (digit < 0) {
+					break;
+				}
+				if (explicit < MAX_EXPONENT) {
+					explicit = explicit * 10 + digit;
+				}
+			}
+			if (i == exponentDigits) {
+				return parseFallback(value, start, end, i, single);
+			}
+			exponent += negativeExponent ? -explicit : explicit;
+		}
+		if (!any || i != end) {
+			return parseFallback(value, start, end, any ? i : integers, single);
+		}
+		if (mantissa == 0) {
+			return negative ? -0d : 0d;
+		}
+		// Mantissa is unsigned, a negative value being larger than any exact bound.
+		if (!truncated && single && mantissa > 0 && mantissa < FLOAT_EXACT && Math.abs(exponent) < FLOAT_POWERS.length) {
+			final float result = exponent < 0
+					? mantissa / FLOAT_POWERS[-exponent]
+					: mantissa * FLOAT_POWERS[exponent];
+			return negative ? -result : result;
+		}
+		if (!truncated && !single && mantissa > 0 && mantissa < DOUBLE_EXACT && Math.abs(exponent) < DOUBLE_POWERS.length) {
+			final double result = exponent < 0
+					? mantissa / DOUBLE_POWERS[-exponent]
+					: mantissa * DOUBLE_POWERS[exponent];
+			return negative ? -result : result;
+		}
+		long bits = eiselLemire(mantissa, exponent, single);
+		if (bits >= 0 && truncated && eiselLemire(mantissa + 1, exponent, single) != bits) {
+			// Dropped digits lie between both mantissas, which round differently.
+			bits = -1;
+		}
+		if (bits >= 0) {
+			final double result = single ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+			return negative ? -result : result;
+		}
+		final String stripped = strip(value, start, end, underscores);
+		return single ? Float.parseFloat(stripped) : Double.parseDouble(stripped);
+	}
+
+	/**
+	 * Computes the correctly rounded float or double nearest to the given
+	 * <tt>mantissa</tt> times ten to the power of the given <tt>exponent</tt>
+	 * with the Eisel-Lemire algorithm. The mantissa is multiplied by a 128 bits
+	 * approximation of the power of ten, the result being rejected whenever
+	 * the approximation error could change the rounding, as well as for
+	 * subnormal and infinite results.
+	 * 
+	 * @param mantissa Unsigned decimal mantissa, not zero.
+	 * @param exponent Decimal exponent.
+	 * @param single Indicates if the result should be rounded as float.
+	 * @return Bits of the positive result, as float bits if <tt>single</tt>, <tt>-1</tt> if undecided.
+	 */
+	private static long eiselLemire(final long mantissa, final int exponent, final boolean single) {
+		if (exponent < OptionablePowers.MIN_EXPONENT || exponent > OptionablePowers.MAX_EXPONENT) {
+			return -1;
+		}
+		final int precision = single ? FLOAT_PRECISION : DOUBLE_PRECISION;
+		final long infinite = single ? 0xFF : 0x7FF;
+		final int shift = 62 - precision;
+		final long mask = (1L << shift) - 1;
+		final int index = (exponent - OptionablePowers.MIN_EXPONENT) * 2;
+		final int zeros = Long.numberOfLeadingZeros(mantissa);
+		final long normalized = mantissa << zeros;
+		// 217706 / 2^16 approximates log2(10).
+		long binary = ((217706 * exponent) >> 16) + 64 + (single ? FLOAT_BIAS : DOUBLE_BIAS) - zeros;
+		long high = multiplyHigh(normalized, OptionablePowers.MANTISSAS[index]);
+		long low = normalized * OptionablePowers.MANTISSAS[index];
+		if ((high & mask) == mask && Long.compareUnsigned(low + normalized, normalized) < 0) {
+			final long lower = OptionablePowers.MANTISSAS[index + 1];
+			final long lowerHigh = multiplyHigh(normalized, lower);
+			final long mergedLow = low + lowerHigh;
+			final long mergedHigh = Long.compareUnsigned(mergedLow, low) < 0 ? high + 1 : high;
+			if ((mergedHigh & mask) == mask && mergedLow == -1L && Long.compareUnsigned(normalized * lower + normalized, normalized) < 0) {
+				return -1;
+			}
+			high = mergedHigh;
+			low = mergedLow;
+		}
+		final int top = (int) (high >>> 63);
+		long result = high >>> (top + shift);
+		binary -= 1 ^ top;
+		if (low == 0 && (high & mask) == 0 && (result & 3) == 1) {
+			return -1;
+		}
+		result += result & 1;
+		result >>>= 1;
+		if ((result >>> precision) > 0) {
+			result >>>= 1;
+			binary++;
+		}
+		if (binary <= 0 || binary >= infinite) {
+			return -1;
+		}
+		return binary << (precision - 1) | result & ((1L << (precision - 1)) - 1);
+	}
+
+	/**
+	 * Computes the high 64 bits of the unsigned 128 bits product of the given values.
+	 * 
+	 * @param x First unsigned value.
+	 * @param y Second unsigned value.
+	 * @return High bits of the product.
+	 */
+	private static long multiplyHigh(final long x, final long y) {
+		final long x0 = x & LOW_MASK;
+		final long x1 = x >>> 32;
+		final long y0 = y & LOW_MASK;
+		final long y1 = y >>> 32;
+		final long cross = x1 * y0 + ((x0 * y0) >>> 32);
+		final long middle = x0 * y1 + (cross & LOW_MASK);
+		return x1 * y1 + (cross >>> 32) + (middle >>> 32);
+	}
+
+	/**
+	 * Parses the given range with the JDK parser, for syntax that
+	 * is not handled by {@link #parseDecimal(CharSequence, int, int, boolean)}.
+	 * 
+	 * @param value Value to parse.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @param index Index where parsing stopped, for error reporting.
+	 * @param single Indicates if the result should be rounded as float.
+	 * @return Parsed value.
+	 * @throws OptionableNumberFormatException If the JDK parser rejects the range too.
+	 */
+	private static double parseFallback(
+			final CharSequence value,
+			final int start,
+			final int end,
+			final int index,
+			final boolean single) {
+		final String range = value.subSequence(start, end).toString();
+		try {
+			return single ? Float.parseFloat(range) : Double.parseDouble(range);
+		}
+		catch (final NumberFormatException e) {
+			final String reason = start == end ? EMPTY : index == end ? MISSING_DIGITS : INVALID_CHARACTER;
+			throw error(reason, value, start, end, index);
+		}
+	}
+
+	/**
+	 * Extracts the given range, removing digits separators.
+	 * 
+	 * @param value Value to extract range from.
+	 * @param start Start index of the range, inclusive.
+	 * @param end End index of the range, exclusive.
+	 * @param underscores Indicates if the range contains separators.
+	 * @return Extracted range.
+	 */
+	private static String strip(
+			final CharSequence value,
+			final int start,
+			final int end,
+			final boolean underscores) {
+		if (!underscores) {
+			return value.subSequence(start, end).toString();
+		}
+		final StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			if (value.charAt(i) != UNDERSCORE) {
+				builder.append(value.charAt(i));
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,280 @@
+package fr.faylixe.option;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Binding of the {@link Operands} field of a container class. Operands
+ * are not collected : the field receives a view over the remaining
+ * command line arguments, each operand being read and converted only
+ * when the view is advanced, so that memory use does not depend on
+ * the number of operands, including when they are read from argument
+ * files.
+ * 
+ * @author fv
+ */
+final class OptionableOperands {
+
+	/** Error message for several operands fields. **/
+	private static final String CONFLICT = "Several operands fields declared by %s";
+
+	/** Error message for not supported operands field type. **/
+	private static final String NOT_SUPPORTED = "Operands field %s must be declared as Iterable, Iterator or Stream";
+
+	/** Error message for static or final operands field. **/
+	private static final String NOT_ASSIGNABLE = "Operands field %s must not be static nor final";
+
+	/** Error message for already consumed operands. **/
+	private static final String CONSUMED = "Operands can only be iterated once";
+
+	/** Operands field. **/
+	private final Field field;
+
+	/** Declared type of the operands field. **/
+	private final Class<?> type;
+
+	/** Function that converts each operand. **/
+	private final Function<String, ?> converter;
+
+	/** Setter of the operands field. **/
+	private final MethodHandle setter;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param field Operands field.
+	 * @throws IllegalStateException If the given <tt>field</tt> is not a valid operands field.
+	 */
+	private OptionableOperands(final Field field) {
+		this.field = field;
+		this.type = field.getType();
+		if (type != Iterable.class && type != Iterator.class && type != Stream.class) {
+			throw new IllegalStateException(String.format(NOT_SUPPORTED, field.getName()));
+		}
+		if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+			throw new IllegalStateException(String.format(NOT_ASSIGNABLE, field.getName()));
+		}
+		final Class<?> element = getParameter(field.getGenericType());
+		final Function<String, ?> resolved = OptionableValueFactories.getConverter(element);
+		this.converter = resolved == null ? value -> OptionableValueFactories.getOptionableValue(element, field.getName(), value) : resolved;
+		try {
+			field.setAccessible(true);
+			this.setter = MethodHandles
+					.lookup()
+					.unreflectSetter(field)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		catch (final IllegalAccessException e) {
+			throw new IllegalStateException(String.format(NOT_ASSIGNABLE, field.getName()), e);
+		}
+	}
+
+	/**
+	 * Resolves the operands field declared by the given <tt>type</tt>
+	 * or by one of its super classes.
+	 * 
+	 * @param type Container class to resolve operands field for.
+	 * @return Operands binding, <tt>null</tt> if no operands field is declared.
+	 * @throws IllegalStateException If several or not valid operands fields are declared.
+	 */
+	static OptionableOperands of(final Class<?> type) {
+		Field operands = null;
+		for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (final Field field : current.getDeclaredFields()) {
+				if (field.isAnnotationPresent(Operands.class)) {
+					if (operands != null) {
+						throw new IllegalStateException(String.format(CONFLICT, type.getName()));
+					}
+					operands = field;
+				}
+			}
+		}
+		return operands == null ? null : new OptionableOperands(operands);
+	}
+
+	/**
+	 * Assigns a lazy view over the given operands
+	 * into the operands field of the given <tt>receiver</tt>.
+	 * 
+	 * @param receiver Target container instance.
+	 * @param first First operand if already read, <tt>null</tt> otherwise.
+	 * @param args Remaining command line arguments.
+	 */
+	void bind(final Object receiver, final String first, final Iterator<String> args) {
+		final Object view = create(new Cursor(first, args, converter));
+		try {
+			setter.invokeExact(receiver, view);
+		}
+		catch (final RuntimeException | Error e) {
+			throw e;
+		}
+		catch (final Throwable e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Wraps the given <tt>cursor</tt> into the declared field type.
+	 * 
+	 * @param cursor Iterator over converted operands.
+	 * @return Created view.
+	 */
+	private Object create(final Cursor cursor) {
+		if (type == Iterator.class) {
+			return cursor;
+		}
+		if (type == Stream.class) {
+			return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false);
+		}
+		return new Once(cursor);
+	}
+
+	/**
+	 * Retrieves the raw type of the first type parameter of the given generic <tt>type</tt>.
+	 * 
+	 * @param type Generic type of the operands field.
+	 * @return Raw type of the first type parameter, {@link String} if not resolvable.
+	 */
+	private static Class<?> getParameter(final Type type) {
+		if (type instanceof ParameterizedType) {
+			Type parameter = ((ParameterizedType) type).getActualTypeArguments()[0];
+			if (parameter instanceof ParameterizedType) {
+				parameter = ((ParameterizedType) parameter).getRawType();
+			}
+			if (parameter instanceof Class) {
+				return (Class<?>) parameter;
+			}
+		}
+		return String.class;
+	}
+
+	/**
+	 * Iterator that reads and converts one operand at a time, within the
+	 * {@link OptionableContext} it has been created in, as operands may be
+	 * consumed on another thread or once a daemon request is over.
+	 * 
+	 * @author fv
+	 */
+	private static final class Cursor implements Iterator<Object> {
+
+		/** First operand if already read, released once returned. **/
+		private String first;
+
+		/** Remaining command line arguments. **/
+		private final Iterator<String> args;
+
+		/** Function that converts each operand. **/
+		private final Function<String, ?> converter;
+
+		/** Step function bound to the creation context, which reads the next operand if given <tt>true</tt> and checks for one otherwise. **/
+		private final Function<Boolean, Object> step;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param first First operand if already read, <tt>null</tt> otherwise.
+		 * @param args Remaining command line arguments.
+		 * @param converter Function that converts each operand.
+		 */
+		private Cursor(final String first, final Iterator<String> args, final Function<String, ?> converter) {
+			this.first = first;
+			this.args = args;
+			this.converter = converter;
+			this.step = OptionableContext.capture(this::step);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public boolean hasNext() {
+			return (Boolean) step.apply(Boolean.FALSE);
+		}
+
+		/**
+		 * Reads and converts the next operand.
+		 * 
+		 * @return Converted operand.
+		 * @throws IllegalArgumentException If the operand cannot be converted, or an argument file cannot be read.
+		 */
+		@Override
+		public Object next() {
+			return step.apply(Boolean.TRUE);
+		}
+
+		/**
+		 * Checks for or reads and converts the next operand.
+		 * 
+		 * @param read <tt>true</tt> to read the next operand, <tt>false</tt> to check for one.
+		 * @return Converted operand if <tt>read</tt>, {@link Boolean} indicating if one is available otherwise.
+		 */
+		private Object step(final Boolean read) {
+			final boolean available = first != null || args.hasNext();
+			if (!read) {
+				return available;
+			}
+			if (!available) {
+				throw new NoSuchElementException();
+			}
+			final String operand;
+			if (first != null) {
+				operand = first;
+				first = null;
+			}
+			else {
+				operand = args.next();
+			}
+			return converter.apply(operand);
+		}
+
+	}
+
+	/**
+	 * Iterable which can only provide its iterator once,
+	 * as operands are not retained once consumed.
+	 * 
+	 * @author fv
+	 */
+	private static final class Once implements Iterable<Object> {
+
+		/** Iterator to provide, <tt>null</tt> once provided. **/
+		private Iterator<Object> iterator;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param iterator Iterator to provide.
+		 */
+		private Once(final Iterator<Object> iterator) {
+			this.iterator = iterator;
+		}
+
+		/**
+		 * Provides the operands iterator.
+		 * 
+		 * @return Operands iterator.
+		 * @throws IllegalStateException If the iterator has already been provided.
+		 */
+		@Override
+		public synchronized Iterator<Object> iterator() {
+			if (iterator == null) {
+				throw new IllegalStateException(CONSUMED);
+			}
+			final Iterator<Object> current = iterator;
+			iterator = null;
+			return current;
+		}
+
+	}
+
+}
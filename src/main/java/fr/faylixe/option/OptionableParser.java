@@ -0,0 +1,551 @@
+package fr.faylixe.option;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Built-in parser for the {@link OptionableEngine#NATIVE} engine. It
+ * works directly from the resolved field list of a {@link OptionableSchema} : option
+ * tokens are resolved to a field index through a precomputed table and
+ * values are stored into an array indexed the same way, without any
+ * intermediate representation. Parsing state is kept on the stack, so
+ * that a parser instance can be shared between threads.
+ *
+ * @author fv
+ */
+final class OptionableParser {
+
+	/** Value stored for flag options that are present. **/
+	private static final String FLAG = "";
+
+	/** Prefix of short options. **/
+	private static final String SHORT_PREFIX = "-";
+
+	/** Prefix of long options. **/
+	private static final String LONG_PREFIX = "--";
+
+	/** Error message for ambiguous option. **/
+	private static final String AMBIGUOUS = "Ambiguous option: %s";
+
+	/** Error message for options sharing a source key. **/
+	private static final String KEY_CONFLICT = "Options %s and %s share the source key %s";
+
+	/** Error message for missing option value. **/
+	private static final String MISSING_ARGUMENT = "Missing argument for option: %s";
+
+	/** Error message for missing required option. **/
+	private static final String MISSING_OPTION = "Missing required option: %s";
+
+	/** Error message for missing required options. **/
+	private static final String MISSING_OPTIONS = "Missing required options: %s";
+
+	/** Fields handled by this parser. **/
+	private final OptionableField [] fields;
+
+	/** Field index by complete option token. **/
+	private final Map<String, Integer> tokens;
+
+	/** Canonical names of fields, for {@link OptionableSource} lookup. **/
+	private final String [] names;
+
+	/** Error message for options sharing a source key, <tt>null</tt> if keys are distinct. **/
+	private final String conflict;
+
+	/** Indicates if parsing stops at the first operand. **/
+	private final boolean operands;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param fields Fields handled by this parser.
+	 */
+	OptionableParser(final List<OptionableField> fields) {
+		this(fields, false);
+	}
+
+	/**
+	 * Constructor for schemas declaring an {@link Operands} field.
+	 *
+	 * @param fields Fields handled by this parser.
+	 * @param operands Indicates if parsing stops at the first operand.
+	 */
+	OptionableParser(final List<OptionableField> fields, final boolean operands) {
+		this.operands = operands;
+		this.fields = fields.toArray(new OptionableField[fields.size()]);
+		this.names = new String[this.fields.length];
+		final Map<String, Integer> tokens = new HashMap<>();
+		final Map<String, OptionableField> keys = new HashMap<>();
+		String conflict = null;
+		for (int i = 0; i < this.fields.length; i++) {
+			final OptionableField field = this.fields[i];
+			names[i] = OptionableSource.canonical(field.getLongName());
+			final OptionableField previous = keys.putIfAbsent(names[i], field);
+			if (previous != null && conflict == null) {
+				conflict = String.format(KEY_CONFLICT, previous.getLongName(), field.getLongName(), names[i]);
+			}
+			tokens.put(SHORT_PREFIX + field.getShortName(), i);
+			tokens.putIfAbsent(SHORT_PREFIX + field.getLongName(), i);
+			tokens.put(LONG_PREFIX + field.getLongName(), i);
+		}
+		this.tokens = Collections.unmodifiableMap(tokens);
+		this.conflict = conflict;
+	}
+
+	/**
+	 * Parses the given <tt>args</tt>. Arguments are consumed one at a time
+	 * and parsing stops at the <tt>--</tt> terminator, leaving remaining
+	 * arguments unread. Operands are skipped, unless this parser handles
+	 * them, in which case parsing stops at the first operand, which is
+	 * only returned by {@link #parse(Iterator, List, Object[])}.
+	 *
+	 * @param args Command line parameters issued from main method.
+	 * @return Values indexed by field, <tt>null</tt> for options not provided, a {@link String}
+	 * for single valued options and {@link OptionableValues} for multi valued ones.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 */
+	Object [] parse(final Iterator<String> args) {
+		return parse(args, Collections.emptyList());
+	}
+
+	/**
+	 * Parses the given <tt>args</tt>, then resolves options that have not
+	 * been provided from the given <tt>sources</tt>, the first source
+	 * providing a value taking precedence.
+	 *
+	 * @param args Command line parameters issued from main method.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @return Values indexed by field, as returned by {@link #parse(Iterator)}.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 */
+	Object [] parse(final Iterator<String> args, final List<OptionableSource> sources) {
+		final Object [] values = new Object[fields.length];
+		parse(args, sources, values);
+		return values;
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> into the given <tt>values</tt>, then
+	 * resolves options that have not been provided from the given <tt>sources</tt>.
+	 * When this parser handles operands, parsing stops at the first operand,
+	 * leaving following arguments unread.
+	 *
+	 * @param args Command line parameters issued from main method.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @param values Values indexed by field, filled by this method.
+	 * @return First operand, <tt>null</tt> if not met.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 */
+	String parse(final Iterator<String> args, final List<OptionableSource> sources, final Object [] values) {
+		final String operand = parseArguments(args, values);
+		if (!sources.isEmpty()) {
+			resolve(values, sources);
+		}
+		checkRequired(values);
+		return operand;
+	}
+
+	/**
+	 * Parses the given command line <tt>args</tt>.
+	 *
+	 * @param args Command line parameters issued from main method.
+	 * @param values Values indexed by field, filled by this method.
+	 * @return First operand if parsing stopped at it, <tt>null</tt> otherwise.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 */
+	private String parseArguments(final Iterator<String> args, final Object [] values) {
+		while (args.hasNext()) {
+			final String token = args.next();
+			if (LONG_PREFIX.equals(token)) {
+				break;
+			}
+			if (token.length() < 2 || !token.startsWith(SHORT_PREFIX)) {
+				if (operands) {
+					return token;
+				}
+				continue;
+			}
+			Integer index = tokens.get(token);
+			if (index == null && token.startsWith(LONG_PREFIX) && token.indexOf('=') < 0) {
+				index = getPrefixed(token);
+			}
+			if (index == null) {
+				parseComposite(token, values);
+			}
+			else if (fields[index].isFlag()) {
+				values[index] = FLAG;
+			}
+			else {
+				final String value = args.hasNext() ? args.next() : null;
+				if (value == null || isOption(value)) {
+					throw new IllegalArgumentException(String.format(MISSING_ARGUMENT, fields[index].getShortName()));
+				}
+				setValue(values, index, value);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves options that have not been provided from the given <tt>sources</tt>.
+	 * Flags are set if the source value is <tt>true</tt>, ignoring case. Options
+	 * sharing a source key are only an error here, so that containers without
+	 * sources are not affected.
+	 *
+	 * @param values Values indexed by field.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @throws IllegalStateException If two options share the same source key.
+	 */
+	private void resolve(final Object [] values, final List<OptionableSource> sources) {
+		if (conflict != null) {
+			throw new IllegalStateException(conflict);
+		}
+		for (int i = 0; i < fields.length; i++) {
+			if (values[i] != null) {
+				continue;
+			}
+			for (final OptionableSource source : sources) {
+				final String value = source.get(names[i]);
+				if (value != null) {
+					if (!fields[i].isFlag()) {
+						setValue(values, i, value);
+					}
+					else if (Boolean.parseBoolean(value)) {
+						values[i] = FLAG;
+					}
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Parses a token which is not an exact option name, namely
+	 * an option with attached value or a group of short flags.
+	 *
+	 * @param token Token to parse.
+	 * @param values Values indexed by field.
+	 * @throws IllegalArgumentException If the given <tt>token</tt> is not valid.
+	 */
+	private void parseComposite(final String token, final Object [] values) {
+		final int separator = token.indexOf('=');
+		if (separator > 0) {
+			final String name = token.substring(0, separator);
+			Integer index = tokens.get(name);
+			if (index == null && name.startsWith(LONG_PREFIX)) {
+				index = getPrefixed(name);
+			}
+			if (index != null && !fields[index].isFlag()) {
+				setValue(values, index, token.substring(separator + 1));
+				return;
+			}
+		}
+		if (token.startsWith(LONG_PREFIX)) {
+			throw new OptionableUnknownOptionException(token);
+		}
+		final Integer index = tokens.get(token.substring(0, 2));
+		if (index != null && !fields[index].isFlag()) {
+			setValue(values, index, token.substring(2));
+			return;
+		}
+		for (int i = 1; i < token.length(); i++) {
+			final Integer flag = tokens.get(SHORT_PREFIX + token.charAt(i));
+			if (flag == null || !fields[flag].isFlag()) {
+				throw new OptionableUnknownOptionException(token);
+			}
+			values[flag] = FLAG;
+		}
+	}
+
+	/**
+	 * Resolves the long option the given <tt>token</tt> is an unique prefix of.
+	 *
+	 * @param token Long option token.
+	 * @return Index of the matching field.
+	 * @throws IllegalArgumentException If no or several options match.
+	 */
+	private int getPrefixed(final String token) {
+		final String prefix = token.substring(LONG_PREFIX.length());
+		int match = -1;
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].getLongName().startsWith(prefix)) {
+				if (match >= 0) {
+					throw new IllegalArgumentException(String.format(AMBIGUOUS, token));
+				}
+				match = i;
+			}
+		}
+		if (match < 0) {
+			throw new OptionableUnknownOptionException(token);
+		}
+		return match;
+	}
+
+	/**
+	 * Indicates if the given <tt>token</tt> denotes a
+	 * known option rather than a value.
+	 *
+	 * @param token Token to check.
+	 * @return <tt>true</tt> if the given <tt>token</tt> is an option, <tt>false</tt> otherwise.
+	 */
+	private boolean isOption(final String token) {
+		if (!token.startsWith(SHORT_PREFIX)) {
+			return false;
+		}
+		if (LONG_PREFIX.equals(token) || tokens.containsKey(token)) {
+			return true;
+		}
+		final int separator = token.indexOf('=');
+		return separator > 0 && tokens.containsKey(token.substring(0, separator));
+	}
+
+	/**
+	 * Stores the given <tt>value</tt>, keeping the first one if a single
+	 * valued option is repeated and collecting all of them otherwise.
+	 *
+	 * @param values Values indexed by field.
+	 * @param index Index of the target field.
+	 * @param value Value to store.
+	 */
+	private void setValue(final Object [] values, final int index, final String value) {
+		if (fields[index].isMultiple()) {
+			if (values[index] == null) {
+				values[index] = new OptionableValues();
+			}
+			((OptionableValues) values[index]).add(value);
+		}
+		else if (values[index] == null) {
+			values[index] = value;
+		}
+	}
+
+	/**
+	 * Ensures all required options have been provided.
+	 *
+	 * @param values Values indexed by field.
+	 * @throws IllegalArgumentException If a required option is missing.
+	 */
+	private void checkRequired(final Object [] values) {
+		List<String> missing = null;
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].isRequired() && values[i] == null) {
+				if (missing == null) {
+					missing = new ArrayList<>();
+				}
+				missing.add(fields[i].getShortName());
+			}
+		}
+		if (missing != null) {
+			final String message = missing.size() == 1 ? MISSING_OPTION : MISSING_OPTIONS;
+			throw new IllegalArgumentException(String.format(message, String.join(", ", missing)));
+		}
+	}
+
+	/**
+	 * Assigns the given parsed <tt>values</tt> to the <tt>receiver</tt> fields.
+	 *
+	 * @param values Values indexed by field, as returned by {@link #parse(Iterator)}.
+	 * @param receiver Target container instance.
+	 * @return Number of fields that have been bound.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	int bind(final Object [] values, final Object receiver) throws IllegalAccessException {
+		int bound = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (values[i] != null) {
+				bind(i, values[i], receiver);
+				bound++;
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Converts the given parsed <tt>values</tt> in parallel on the given
+	 * <tt>pool</tt>, then assigns them to the <tt>receiver</tt> fields. No
+	 * field is assigned unless all conversions succeed, and the reported
+	 * error is the one of the first failing field, whatever the completion
+	 * order is.
+	 *
+	 * @param values Values indexed by field, as returned by {@link #parse(Iterator)}.
+	 * @param receiver Target container instance.
+	 * @param pool Pool to convert values on, <tt>null</tt> for sequential binding.
+	 * @return Number of fields that have been bound.
+	 * @throws IllegalArgumentException If a value cannot be converted.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	int bind(final Object [] values, final Object receiver, final ForkJoinPool pool) throws IllegalAccessException {
+		if (pool == null) {
+			return bind(values, receiver);
+		}
+		final Object [] converted = new Object[fields.length];
+		final Throwable [] failures = new Throwable[fields.length];
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		int last = -1;
+		for (int i = 0; i < fields.length; i++) {
+			if (values[i] != null) {
+				if (last >= 0) {
+					final int index = last;
+					tasks.add(pool.submit(OptionableContext.capture(() -> convert(values, converted, failures, index))));
+				}
+				last = i;
+			}
+		}
+		if (last < 0) {
+			return 0;
+		}
+		convert(values, converted, failures, last);
+		for (final ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		for (final Throwable failure : failures) {
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			if (failure != null) {
+				throw (RuntimeException) failure;
+			}
+		}
+		int bound = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (values[i] != null) {
+				fields[i].assign(receiver, converted[i]);
+				bound++;
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Converts the parsed value at the given <tt>index</tt>,
+	 * storing either the converted value or the failure.
+	 *
+	 * @param values Values indexed by field.
+	 * @param converted Converted values indexed by field.
+	 * @param failures Conversion failures indexed by field.
+	 * @param index Index of the field to convert value for.
+	 */
+	private void convert(final Object [] values, final Object [] converted, final Throwable [] failures, final int index) {
+		try {
+			converted[index] = fields[index].convert(values[index]);
+		}
+		catch (final RuntimeException | Error e) {
+			failures[index] = e;
+		}
+	}
+
+	/**
+	 * Creates an instance through the given <tt>constructor</tt> from the given
+	 * parsed <tt>values</tt>. Constructor parameter options are converted into
+	 * the arguments array, parameters without value keeping their default, and
+	 * remaining field options are then bound into the created instance.
+	 *
+	 * @param values Values indexed by field, as returned by {@link #parse(Iterator)}.
+	 * @param constructor Constructor of the instance to create.
+	 * @return Created instance.
+	 * @throws IllegalArgumentException If a value cannot be converted or is rejected by the constructor.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	Object create(final Object [] values, final OptionableConstructor constructor) throws IllegalAccessException {
+		final Object [] arguments = constructor.createArguments();
+		for (int i = 0; i < fields.length; i++) {
+			final int position = fields[i].getPosition();
+			if (position >= 0 && values[i] != null) {
+				final Object converted = fields[i].convert(values[i]);
+				if (converted != OptionableField.SKIP) {
+					arguments[position] = converted;
+				}
+			}
+		}
+		final Object instance = constructor.newInstance(arguments);
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].getPosition() < 0 && values[i] != null) {
+				bind(i, values[i], instance);
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Assigns the given parsed <tt>values</tt> that differ from the <tt>previous</tt>
+	 * ones to the <tt>receiver</tt> fields, copying unchanged fields from <tt>source</tt>.
+	 *
+	 * @param previous Values indexed by field the <tt>source</tt> has been bound with.
+	 * @param values Values indexed by field, as returned by {@link #parse(Iterator)}.
+	 * @param source Receiver to copy unchanged field values from.
+	 * @param receiver Target container instance.
+	 * @return Number of fields that have been bound.
+	 * @throws IllegalAccessException If accessing a field value is not permitted.
+	 */
+	int rebind(
+			final Object [] previous,
+			final Object [] values,
+			final Object source,
+			final Object receiver) throws IllegalAccessException {
+		int changes = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (Objects.equals(previous[i], values[i])) {
+				fields[i].copy(source, receiver);
+			}
+			else {
+				bind(i, values[i], receiver);
+				changes++;
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * Assigns the given parsed <tt>value</tt> to the field at the given <tt>index</tt>.
+	 *
+	 * @param index Index of the field to assign.
+	 * @param value Parsed value, <tt>null</tt> if not provided.
+	 * @param receiver Target container instance.
+	 * @throws IllegalAccessException If setting the field value is not permitted.
+	 */
+	private void bind(final int index, final Object value, final Object receiver) throws IllegalAccessException {
+		if (value instanceof OptionableValues) {
+			fields[index].bind(receiver, (OptionableValues) value);
+		}
+		else if (value != null) {
+			fields[index].bind(receiver, (String) value);
+		}
+	}
+
+	/**
+	 * Prints the help message, using the same layout as
+	 * Apache Commons CLI {@code HelpFormatter}.
+	 *
+	 * @param usage Container usage description.
+	 * @param stream Stream to print help into.
+	 */
+	void printHelp(final String usage, final PrintStream stream) {
+		final OptionableField [] sorted = Arrays.copyOf(fields, fields.length);
+		Arrays.sort(sorted, Comparator.comparing(OptionableField::getShortName, String.CASE_INSENSITIVE_ORDER));
+		final String [] prefixes = new String[sorted.length];
+		int width = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			final OptionableField field = sorted[i];
+			prefixes[i] = " -" + field.getShortName() + ",--" + field.getLongName() + (field.isFlag() ? "" : " <arg>");
+			width = Math.max(width, prefixes[i].length());
+		}
+		stream.println("usage: " + usage);
+		for (int i = 0; i < sorted.length; i++) {
+			final StringBuilder builder = new StringBuilder(prefixes[i]);
+			while (builder.length() < width + 3) {
+				builder.append(' ');
+			}
+			stream.println(builder.append(sorted[i].getDescription()));
+		}
+	}
+
+}
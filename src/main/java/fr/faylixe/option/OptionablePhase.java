@@ -0,0 +1,25 @@
+package fr.faylixe.option;
+
+/**
+ * Enumeration of the bootstrap pipeline phases
+ * reported to {@link OptionableMetrics}.
+ * 
+ * @author fv
+ */
+public enum OptionablePhase {
+
+	/** Schema retrieval, including its construction the first time a class is bootstrapped. **/
+	SCHEMA,
+
+	/** Command line parsing and option sources resolution. **/
+	PARSING,
+
+	/** Value conversion and field assignment, which are performed together. **/
+	BINDING,
+
+	/** Execution of {@link OptionableApplication#run()}. **/
+	RUN,
+
+	;
+
+}
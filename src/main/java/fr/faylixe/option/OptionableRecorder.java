@@ -0,0 +1,164 @@
+package fr.faylixe.option;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the phases of a single bootstrap, reporting them to an
+ * {@link OptionableMetrics} callback and as JDK Flight Recorder events
+ * when a recording is running. Flight Recorder classes are only
+ * referenced through {@link OptionableFlightRecorder}, which is not
+ * loaded on runtimes that do not provide it.
+ * 
+ * @author fv
+ */
+final class OptionableRecorder {
+
+	/** Indicates if JDK Flight Recorder is provided by the runtime. **/
+	private static final boolean FLIGHT_RECORDER = isFlightRecorderProvided();
+
+	/** Recorder that does not record anything. **/
+	private static final OptionableRecorder DISABLED = new OptionableRecorder(null, null, false);
+
+	/** Callback to notify, <tt>null</tt> if none. **/
+	private final OptionableMetrics metrics;
+
+	/** Class of the bootstrapped container. **/
+	private final Class<?> type;
+
+	/** Indicates if Flight Recorder events should be emitted. **/
+	private final boolean events;
+
+	/** Current phase. **/
+	private OptionablePhase phase;
+
+	/** Start time of the current phase. **/
+	private long start;
+
+	/** Bytes allocated by current thread when current phase started, <tt>-1</tt> if not supported. **/
+	private long allocated;
+
+	/** Flight Recorder event of the current phase, <tt>null</tt> if none. **/
+	private Object event;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param metrics Callback to notify, <tt>null</tt> if none.
+	 * @param type Class of the bootstrapped container.
+	 * @param events Indicates if Flight Recorder events should be emitted.
+	 */
+	private OptionableRecorder(final OptionableMetrics metrics, final Class<?> type, final boolean events) {
+		this.metrics = metrics;
+		this.type = type;
+		this.events = events;
+	}
+
+	/**
+	 * Creates a recorder for a bootstrap of the given <tt>type</tt>.
+	 * 
+	 * @param metrics Callback to notify, <tt>null</tt> if none.
+	 * @param type Class of the bootstrapped container.
+	 * @return Created recorder, which does nothing if there is neither callback nor running recording.
+	 */
+	static OptionableRecorder of(final OptionableMetrics metrics, final Class<?> type) {
+		final boolean events = FLIGHT_RECORDER && OptionableFlightRecorder.isInitialized();
+		if (metrics == null && !events) {
+			return DISABLED;
+		}
+		return new OptionableRecorder(metrics, type, events);
+	}
+
+	/**
+	 * Starts measuring the given <tt>phase</tt>.
+	 * 
+	 * @param phase Phase to measure.
+	 */
+	void begin(final OptionablePhase phase) {
+		if (this == DISABLED) {
+			return;
+		}
+		this.phase = phase;
+		this.event = events ? OptionableFlightRecorder.begin() : null;
+		this.allocated = Allocations.get();
+		this.start = System.nanoTime();
+	}
+
+	/**
+	 * Ends measuring the current phase.
+	 * 
+	 * @param fields Number of fields involved in the phase.
+	 */
+	void end(final int fields) {
+		if (this == DISABLED) {
+			return;
+		}
+		final long duration = System.nanoTime() - start;
+		final long bytes = allocated < 0 ? -1 : Allocations.get() - allocated;
+		if (event != null) {
+			OptionableFlightRecorder.commit(event, type, phase, fields, bytes);
+			event = null;
+		}
+		if (metrics != null) {
+			metrics.record(type, phase, duration, fields, bytes);
+		}
+	}
+
+	/**
+	 * Indicates if JDK Flight Recorder is provided by the runtime.
+	 * 
+	 * @return <tt>true</tt> if Flight Recorder API is available, <tt>false</tt> otherwise.
+	 */
+	private static boolean isFlightRecorderProvided() {
+		try {
+			Class.forName("jdk.jfr.Event", false, OptionableRecorder.class.getClassLoader());
+			return true;
+		}
+		catch (final ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Lazy holder of the thread allocation counter, only
+	 * initialized once a phase is actually measured.
+	 * 
+	 * @author fv
+	 */
+	private static final class Allocations {
+
+		/** Thread allocation counter, <tt>null</tt> if not supported. **/
+		private static final com.sun.management.ThreadMXBean THREADS = getThreads();
+
+		/**
+		 * Retrieves the thread allocation counter.
+		 * 
+		 * @return Thread allocation counter, <tt>null</tt> if not supported.
+		 */
+		private static com.sun.management.ThreadMXBean getThreads() {
+			try {
+				final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+				if (threads instanceof com.sun.management.ThreadMXBean) {
+					final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+					if (allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+						return allocations;
+					}
+				}
+			}
+			catch (final LinkageError | UnsupportedOperationException e) {
+				// Not supported by the runtime.
+			}
+			return null;
+		}
+
+		/**
+		 * Retrieves the bytes allocated by the current thread.
+		 * 
+		 * @return Allocated bytes, <tt>-1</tt> if not supported.
+		 */
+		static long get() {
+			return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+
+	}
+
+}
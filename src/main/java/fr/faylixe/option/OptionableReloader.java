@@ -0,0 +1,326 @@
+package fr.faylixe.option;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Live reloading holder of a container backed by a watched configuration
+ * file. Each time the file changes, a new container instance is created,
+ * fields whose resolved value did not change are copied from the current
+ * instance and only changed ones are bound again. The new instance is
+ * then published at once, so that readers never observe a partially
+ * updated container and {@link #get()} costs a single volatile read.
+ * <p>
+ * Option values are resolved as for {@link OptionableContainer#bootstrap(String[])},
+ * from command line, then from sources added to the container, then
+ * from the watched file, fields keeping their default value otherwise.
+ * A file change that fails to be read or bound keeps the current instance.
+ * <p>
+ * Any event of the file directory triggers a check of the file real path,
+ * modification time and size, the content being read and hashed only when
+ * one of them differs. The content that has been hashed is the one parsed,
+ * so that a change made while reading is never missed. Changes made by swapping a symbolic link, such as mounted
+ * Kubernetes volumes do, are thus noticed, and the directory of the link
+ * target is watched as well so that in place changes of the target are.
+ * 
+ * @param <T> Type of the reloaded container.
+ * @author fv
+ */
+public final class OptionableReloader<T extends OptionableContainer> implements Closeable {
+
+	/** Name of the watching thread. **/
+	private static final String THREAD_NAME = "optionable-reloader";
+
+	/** Algorithm used for hashing file content. **/
+	private static final String ALGORITHM = "SHA-256";
+
+	/** Error message for constructor parameter options, which cannot be bound into new instances. **/
+	private static final String NOT_RELOADABLE = "Option %s is a constructor parameter and cannot be reloaded";
+
+	/** Factory for new container instances. **/
+	private final Supplier<? extends T> factory;
+
+	/** Command line parameters. **/
+	private final String [] args;
+
+	/** Watched configuration file. **/
+	private final Path file;
+
+	/** Schema of the container. **/
+	private final OptionableSchema schema;
+
+	/** Service watching the configuration file directory. **/
+	private final WatchService watcher;
+
+	/** Key of the link target directory, <tt>null</tt> if it is the file directory. **/
+	private WatchKey targetKey;
+
+	/** Real path of the file when last checked. **/
+	private Path target;
+
+	/** Modification time of the file when last checked. **/
+	private FileTime modified;
+
+	/** Size of the file when last checked. **/
+	private long size;
+
+	/** Content hash of the file when last checked. **/
+	private byte [] hash;
+
+	/** Current container instance. **/
+	private volatile T current;
+
+	/** Values indexed by field the current instance has been bound with. **/
+	private Object [] values;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param factory Factory for new container instances.
+	 * @param args Command line parameters.
+	 * @param file Watched configuration file.
+	 * @throws IOException If the configuration file cannot be read or watched.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 * @throws IllegalStateException If the container declares constructor parameter options.
+	 */
+	private OptionableReloader(
+			final Supplier<? extends T> factory,
+			final String [] args,
+			final Path file) throws IOException, IllegalAccessException {
+		this.factory = factory;
+		this.args = args.clone();
+		this.file = file.toAbsolutePath();
+		final T instance = factory.get();
+		this.schema = OptionableSchema.of(instance.getClass());
+		for (final OptionableField field : schema.getFields()) {
+			if (field.getPosition() >= 0) {
+				throw new IllegalStateException(String.format(NOT_RELOADABLE, field.getLongName()));
+			}
+		}
+		this.watcher = FileSystems.getDefault().newWatchService();
+		try {
+			register(this.file.getParent());
+			this.values = parse(instance, OptionableSource.ofFile(this.file, read()));
+			schema.getParser().bind(values, instance);
+		}
+		catch (final IOException | IllegalAccessException | RuntimeException e) {
+			watcher.close();
+			throw e;
+		}
+		this.current = instance;
+	}
+
+	/**
+	 * Registers the given <tt>directory</tt> to the watch service.
+	 * 
+	 * @param directory Directory to watch.
+	 * @return Key of the watched directory.
+	 * @throws IOException If the directory cannot be watched.
+	 */
+	private WatchKey register(final Path directory) throws IOException {
+		return directory.register(
+				watcher,
+				StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY,
+				StandardWatchEventKinds.ENTRY_DELETE);
+	}
+
+	/**
+	 * Watches the given <tt>directory</tt> of the link target, replacing
+	 * the previous target directory. A directory that cannot be watched
+	 * is ignored, changes being then noticed through the file directory.
+	 * 
+	 * @param directory Directory of the file real path.
+	 */
+	private void watchTarget(final Path directory) {
+		if (targetKey != null && targetKey.watchable().equals(directory)) {
+			return;
+		}
+		if (targetKey != null) {
+			targetKey.cancel();
+			targetKey = null;
+		}
+		if (!directory.equals(file.getParent())) {
+			try {
+				targetKey = register(directory);
+			}
+			catch (final IOException e) {
+				// Only the file directory is watched.
+			}
+		}
+	}
+
+	/**
+	 * Reads the configuration file content if it changed since the last read,
+	 * by comparing its real path, modification time and size first, then its
+	 * content hash.
+	 * 
+	 * @return Content of the file, <tt>null</tt> if it did not change.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private byte [] read() throws IOException {
+		final Path real = file.toRealPath();
+		watchTarget(real.getParent());
+		final BasicFileAttributes attributes = Files.readAttributes(real, BasicFileAttributes.class);
+		if (real.equals(target) && attributes.lastModifiedTime().equals(modified) && attributes.size() == size) {
+			return null;
+		}
+		final byte [] bytes = Files.readAllBytes(real);
+		final byte [] next;
+		try {
+			next = MessageDigest.getInstance(ALGORITHM).digest(bytes);
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		target = real;
+		modified = attributes.lastModifiedTime();
+		size = attributes.size();
+		if (Arrays.equals(hash, next)) {
+			return null;
+		}
+		hash = next;
+		return bytes;
+	}
+
+	/**
+	 * Creates a container bound from the given <tt>args</tt> and
+	 * <tt>file</tt>, and starts watching the file for changes.
+	 * 
+	 * @param factory Factory for new container instances.
+	 * @param args Command line parameters.
+	 * @param file Configuration file to watch.
+	 * @param <T> Type of the reloaded container.
+	 * @return Created reloader.
+	 * @throws IOException If the configuration file cannot be read or watched.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> or <tt>file</tt> content is not valid.
+	 * @throws IllegalStateException If the container declares constructor parameter options.
+	 */
+	public static <T extends OptionableContainer> OptionableReloader<T> watch(
+			final Supplier<? extends T> factory,
+			final String [] args,
+			final Path file) throws IOException, IllegalAccessException {
+		final OptionableReloader<T> reloader = new OptionableReloader<>(factory, args, file);
+		final Thread thread = new Thread(reloader::run, THREAD_NAME);
+		thread.setDaemon(true);
+		thread.start();
+		return reloader;
+	}
+
+	/** @return Current container instance. **/
+	public T get() {
+		return current;
+	}
+
+	/**
+	 * Parses command line parameters, resolving missing options
+	 * from container sources then from the given file snapshot.
+	 * 
+	 * @param instance Container to retrieve sources from.
+	 * @param snapshot Configuration file snapshot.
+	 * @return Values indexed by field.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 */
+	private Object [] parse(final T instance, final OptionableSource snapshot) {
+		final List<OptionableSource> sources = new ArrayList<>(instance.getSources());
+		sources.add(snapshot);
+		return schema.getParser().parse(Arrays.asList(args).iterator(), sources);
+	}
+
+	/**
+	 * Reads the configuration file again and publishes a new
+	 * container instance if any resolved value has changed.
+	 * 
+	 * @return <tt>true</tt> if a new instance has been published, <tt>false</tt> otherwise.
+	 * @throws IOException If the configuration file cannot be read.
+	 * @throws IllegalAccessException If accessing a field value is not permitted.
+	 * @throws IllegalArgumentException If the configuration file content is not valid.
+	 */
+	synchronized boolean reload() throws IOException, IllegalAccessException {
+		return reload(OptionableSource.ofFile(file));
+	}
+
+	/**
+	 * Publishes a new container instance bound from the given
+	 * configuration file <tt>snapshot</tt>, if any resolved value
+	 * has changed.
+	 * 
+	 * @param snapshot Configuration file snapshot.
+	 * @return <tt>true</tt> if a new instance has been published, <tt>false</tt> otherwise.
+	 * @throws IllegalAccessException If accessing a field value is not permitted.
+	 * @throws IllegalArgumentException If the configuration file content is not valid.
+	 */
+	private synchronized boolean reload(final OptionableSource snapshot) throws IllegalAccessException {
+		final T instance = factory.get();
+		final Object [] next = parse(instance, snapshot);
+		if (Arrays.equals(values, next)) {
+			return false;
+		}
+		schema.getParser().rebind(values, next, current, instance);
+		values = next;
+		current = instance;
+		return true;
+	}
+
+	/**
+	 * Watching loop, which reloads the configuration file
+	 * on change until this reloader is closed. Keys that are
+	 * no longer valid, such as the one of a removed link target
+	 * directory, are dropped. A file that cannot be read is
+	 * considered unchanged, as it may be in the middle of a
+	 * symbolic link swap.
+	 */
+	private void run() {
+		try {
+			while (true) {
+				final WatchKey key = watcher.take();
+				key.pollEvents();
+				key.reset();
+				final byte [] content;
+				try {
+					content = read();
+				}
+				catch (final IOException e) {
+					continue;
+				}
+				if (content != null) {
+					try {
+						reload(OptionableSource.ofFile(file, content));
+					}
+					catch (final IOException | IllegalAccessException | IllegalArgumentException e) {
+						System.err.println(OptionableContainer.PARSING_ERROR + e.getMessage());
+					}
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (final ClosedWatchServiceException e) {
+			return;
+		}
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public void close() throws IOException {
+		watcher.close();
+	}
+
+}
@@ -0,0 +1,62 @@
+package fr.faylixe.option;
+
+/**
+ * Outcome of an asynchronous {@link OptionableApplication} execution,
+ * carrying the application exit code and the failure that ended it if any.
+ * 
+ * @author fv
+ */
+public final class OptionableResult {
+
+	/** Exit code of a successful execution. **/
+	public static final int EXIT_SUCCESS = 0;
+
+	/** Exit code of an execution whose {@link Runnable#run()} method failed. **/
+	public static final int EXIT_FAILURE = 1;
+
+	/** Exit code of an execution whose command line parameters are not valid. **/
+	public static final int EXIT_USAGE = 2;
+
+	/** Executed application, <tt>null</tt> if it could not be created. **/
+	private final OptionableApplication application;
+
+	/** Exit code of the execution. **/
+	private final int exitCode;
+
+	/** Failure that ended the execution, <tt>null</tt> if none. **/
+	private final Throwable failure;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param application Executed application, <tt>null</tt> if it could not be created.
+	 * @param exitCode Exit code of the execution.
+	 * @param failure Failure that ended the execution, <tt>null</tt> if none.
+	 */
+	OptionableResult(final OptionableApplication application, final int exitCode, final Throwable failure) {
+		this.application = application;
+		this.exitCode = exitCode;
+		this.failure = failure;
+	}
+
+	/** @return Executed application, <tt>null</tt> if it could not be created. **/
+	public OptionableApplication getApplication() {
+		return application;
+	}
+
+	/** @return Exit code of the execution. **/
+	public int getExitCode() {
+		return exitCode;
+	}
+
+	/** @return Failure that ended the execution, <tt>null</tt> if none. **/
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/** @return <tt>true</tt> if the execution succeeded, <tt>false</tt> otherwise. **/
+	public boolean isSuccess() {
+		return failure == null && exitCode == EXIT_SUCCESS;
+	}
+
+}
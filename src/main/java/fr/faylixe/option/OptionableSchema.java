@@ -0,0 +1,263 @@
+package fr.faylixe.option;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable option schema compiled once from a container class. A schema
+ * holds the resolved {@link OptionableField} list and the native parser
+ * tables, and does not keep any state while binding, so that any number
+ * of threads can bind argument vectors onto separate receivers through
+ * the same instance without locking.
+ *
+ * @author fv
+ */
+public final class OptionableSchema {
+
+	/** Error message for not valid receiver. **/
+	private static final String NOT_VALID_RECEIVER = "Receiver is not an instance of %s";
+
+	/** Schema cache, compiled once per class. **/
+	private static final ClassValue<OptionableSchema> SCHEMAS = new ClassValue<OptionableSchema>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected OptionableSchema computeValue(final Class<?> type) {
+			return new OptionableSchema(type, OptionableFieldFactory.getOptionableFields(type), OptionableOperands.of(type));
+		}
+
+	};
+
+	/** Class this schema has been compiled from. **/
+	private final Class<?> type;
+
+	/** Resolved fields of the class hierarchy. **/
+	private final List<OptionableField> fields;
+
+	/** Native parser for resolved fields. **/
+	private final OptionableParser parser;
+
+	/** Binding of the operands field, <tt>null</tt> if none is declared. **/
+	private final OptionableOperands operands;
+
+	/** Index of option long names, built on first unknown option. **/
+	private volatile OptionableSuggestions suggestions;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param type Class this schema has been compiled from.
+	 * @param fields Resolved fields of the class hierarchy.
+	 * @param operands Binding of the operands field, <tt>null</tt> if none is declared.
+	 */
+	private OptionableSchema(final Class<?> type, final List<OptionableField> fields, final OptionableOperands operands) {
+		this.type = type;
+		this.fields = fields;
+		this.operands = operands;
+		this.parser = new OptionableParser(fields, operands != null);
+	}
+
+	/**
+	 * Retrieves the schema of the given <tt>type</tt>, compiling
+	 * it the first time the class is requested.
+	 *
+	 * @param type Class to retrieve schema for.
+	 * @return Schema of the given <tt>type</tt>.
+	 * @throws IllegalStateException If an option name conflict is detected, or if operands fields are not valid.
+	 */
+	public static OptionableSchema of(final Class<?> type) {
+		return SCHEMAS.get(type);
+	}
+
+	/** @return Class this schema has been compiled from. **/
+	public Class<?> getType() {
+		return type;
+	}
+
+	/** @return Unmodifiable list of resolved fields. **/
+	public List<OptionableField> getFields() {
+		return fields;
+	}
+
+	/** @return Native parser for resolved fields. **/
+	OptionableParser getParser() {
+		return parser;
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and assigns resulting values
+	 * into the given <tt>receiver</tt> fields.
+	 *
+	 * @param args Command line parameters to bind.
+	 * @param receiver Target instance, which must be an instance of this schema type.
+	 * @throws IllegalArgumentException If the given <tt>receiver</tt> or <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	public void bind(final String [] args, final Object receiver) throws IllegalAccessException {
+		bind(Arrays.asList(args).iterator(), receiver);
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and assigns resulting values
+	 * into the given <tt>receiver</tt> fields. Arguments are consumed
+	 * one at a time, which allows lazy sources such as {@link OptionableArguments}.
+	 * If the receiver declares an {@link Operands} field, parsing stops at the
+	 * first operand and the field receives a view over remaining arguments,
+	 * which must not be consumed elsewhere.
+	 *
+	 * @param args Command line parameters to bind.
+	 * @param receiver Target instance, which must be an instance of this schema type.
+	 * @throws IllegalArgumentException If the given <tt>receiver</tt> or <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	public void bind(final Iterator<String> args, final Object receiver) throws IllegalAccessException {
+		bind(args, receiver, Collections.emptyList());
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and assigns resulting values into the
+	 * given <tt>receiver</tt> fields. Options missing from command line are
+	 * resolved from the given <tt>sources</tt>, the first source providing
+	 * a value taking precedence, fields keeping their default value otherwise.
+	 *
+	 * @param args Command line parameters to bind.
+	 * @param receiver Target instance, which must be an instance of this schema type.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @throws IllegalArgumentException If the given <tt>receiver</tt> or <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	public void bind(
+			final Iterator<String> args,
+			final Object receiver,
+			final List<OptionableSource> sources) throws IllegalAccessException {
+		bind(args, receiver, sources, null, OptionableRecorder.of(null, type));
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and assigns resulting values into the
+	 * given <tt>receiver</tt> fields, measuring phases with the given <tt>recorder</tt>.
+	 *
+	 * @param args Command line parameters to bind.
+	 * @param receiver Target instance, which must be an instance of this schema type.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @param pool Pool to convert values on in parallel, <tt>null</tt> for sequential binding.
+	 * @param recorder Recorder of parsing and binding phases.
+	 * @throws IllegalArgumentException If the given <tt>receiver</tt> or <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	void bind(
+			final Iterator<String> args,
+			final Object receiver,
+			final List<OptionableSource> sources,
+			final ForkJoinPool pool,
+			final OptionableRecorder recorder) throws IllegalAccessException {
+		if (!type.isInstance(receiver)) {
+			throw new IllegalArgumentException(String.format(NOT_VALID_RECEIVER, type.getName()));
+		}
+		recorder.begin(OptionablePhase.PARSING);
+		final Object [] values = new Object[fields.size()];
+		final String operand = parser.parse(args, sources, values);
+		recorder.end(values.length);
+		recorder.begin(OptionablePhase.BINDING);
+		recorder.end(parser.bind(values, receiver, pool));
+		bindOperands(receiver, operand, args);
+	}
+
+	/**
+	 * Assigns a view over the given operands into the operands
+	 * field of the given <tt>receiver</tt>, if this schema has one.
+	 *
+	 * @param receiver Target instance, which must be an instance of this schema type.
+	 * @param first First operand if already read, <tt>null</tt> otherwise.
+	 * @param args Remaining command line arguments.
+	 */
+	void bindOperands(final Object receiver, final String first, final Iterator<String> args) {
+		if (operands != null) {
+			operands.bind(receiver, first, args);
+		}
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and creates an instance of the given
+	 * <tt>type</tt> from resulting values.
+	 *
+	 * @param type Class to create instance of.
+	 * @param args Command line parameters to bind.
+	 * @param <T> Type of the created instance.
+	 * @return Created instance.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 * @throws IllegalStateException If an option name conflict is detected or if no constructor can be used.
+	 * @see #newInstance(Iterator, List)
+	 */
+	public static <T> T create(final Class<T> type, final String... args) throws IllegalAccessException {
+		return type.cast(of(type).newInstance(Arrays.asList(args).iterator(), Collections.emptyList()));
+	}
+
+	/**
+	 * Parses the given <tt>args</tt> and creates an instance of this schema
+	 * type from resulting values. Records are created through their canonical
+	 * constructor, and classes declaring a constructor with {@link Optionable}
+	 * parameters through this constructor, so that options can be held by final
+	 * fields. Other classes are created through their no argument constructor
+	 * before being bound. The constructor is resolved once and invoked through
+	 * a cached handle.
+	 *
+	 * @param args Command line parameters to bind.
+	 * @param sources Sources to resolve missing options from, by decreasing priority.
+	 * @return Created instance.
+	 * @throws IllegalArgumentException If the given <tt>args</tt> are not valid.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 * @throws IllegalStateException If no constructor can be used.
+	 */
+	public Object newInstance(final Iterator<String> args, final List<OptionableSource> sources) throws IllegalAccessException {
+		final OptionableConstructor constructor = OptionableConstructor.of(type);
+		final Object [] values = new Object[fields.size()];
+		final String operand = parser.parse(args, sources, values);
+		final Object instance = parser.create(values, constructor);
+		bindOperands(instance, operand, args);
+		return instance;
+	}
+
+	/**
+	 * Retrieves the option long names close to the given unknown <tt>option</tt>.
+	 * Names are indexed the first time this method is called, so that
+	 * successful bindings do not pay for suggestions.
+	 *
+	 * @param option Unknown option, as provided on command line.
+	 * @return Close option long names, nearest first.
+	 */
+	List<String> suggest(final String option) {
+		OptionableSuggestions current = suggestions;
+		if (current == null) {
+			final List<String> names = new ArrayList<>(fields.size());
+			for (final OptionableField field : fields) {
+				names.add(field.getLongName());
+			}
+			current = new OptionableSuggestions(names);
+			suggestions = current;
+		}
+		int start = 0;
+		while (start < option.length() && option.charAt(start) == '-') {
+			start++;
+		}
+		final int separator = option.indexOf('=', start);
+		return current.suggest(option.substring(start, separator < 0 ? option.length() : separator));
+	}
+
+	/**
+	 * Prints the help message of this schema.
+	 *
+	 * @param usage Container usage description.
+	 * @param stream Stream to print help into.
+	 */
+	public void printHelp(final String usage, final PrintStream stream) {
+		parser.printHelp(usage, stream);
+	}
+
+}
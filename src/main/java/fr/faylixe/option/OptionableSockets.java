@@ -0,0 +1,205 @@
+package fr.faylixe.option;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Opens Unix domain socket channels. Unix domain sockets are only
+ * supported by NIO channels since Java 16, and are therefore reached
+ * reflectively.
+ * 
+ * @author fv
+ */
+final class OptionableSockets {
+
+	/** Error message for runtime without Unix domain socket support. **/
+	private static final String NOT_SUPPORTED = "Unix domain sockets require Java 16 or later";
+
+	/** Name of Unix domain socket address class. **/
+	private static final String ADDRESS_CLASS = "java.net.UnixDomainSocketAddress";
+
+	/** Name of Unix protocol family. **/
+	private static final String UNIX_FAMILY = "UNIX";
+
+	/** Prefix of the private directory server sockets are bound in. **/
+	private static final String PRIVATE_PREFIX = ".opt";
+
+	/** Permissions of the private directory server sockets are bound in. **/
+	private static final Set<PosixFilePermission> PRIVATE_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+	/** Permissions of server socket files. **/
+	private static final Set<PosixFilePermission> PRIVATE_SOCKET = PosixFilePermissions.fromString("rw-------");
+
+	/**
+	 * Private constructor for avoiding instantiation.
+	 */
+	private OptionableSockets() {
+		// Do nothing.
+	}
+
+	/**
+	 * Opens a server channel bound to the given <tt>socket</tt> file. On
+	 * file systems supporting POSIX permissions, the socket file is only
+	 * accessible to its owner.
+	 * 
+	 * @param socket Path of the socket file to create.
+	 * @return Opened server channel.
+	 * @throws IOException If the channel cannot be opened or bound, or if the socket file already exists.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	static ServerSocketChannel openServer(final Path socket) throws IOException {
+		final ServerSocketChannel channel = (ServerSocketChannel) open(ServerSocketChannel.class);
+		try {
+			final Path parent = socket.toAbsolutePath().getParent();
+			if (Files.getFileStore(parent).supportsFileAttributeView(PosixFileAttributeView.class)) {
+				bindPrivate(channel, socket, parent);
+			}
+			else {
+				channel.bind(getAddress(socket));
+			}
+		}
+		catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return channel;
+	}
+
+	/**
+	 * Binds the given <tt>channel</tt> within a directory only accessible to
+	 * its owner, restricts the socket file permissions, then moves it to the
+	 * given <tt>socket</tt> path, so that the socket is never reachable by
+	 * other users, even before its permissions are set.
+	 * 
+	 * @param channel Server channel to bind.
+	 * @param socket Path of the socket file to create.
+	 * @param parent Directory of the socket file.
+	 * @throws IOException If the channel cannot be bound, or if the socket file already exists.
+	 */
+	private static void bindPrivate(final ServerSocketChannel channel, final Path socket, final Path parent) throws IOException {
+		final Path directory = Files.createTempDirectory(parent, PRIVATE_PREFIX, PosixFilePermissions.asFileAttribute(PRIVATE_DIRECTORY));
+		final Path bound = directory.resolve(socket.getFileName());
+		try {
+			channel.bind(getAddress(bound));
+			Files.setPosixFilePermissions(bound, PRIVATE_SOCKET);
+			if (Files.exists(socket)) {
+				throw new FileAlreadyExistsException(socket.toString());
+			}
+			Files.move(bound, socket, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(bound);
+			Files.delete(directory);
+		}
+	}
+
+	/**
+	 * Opens a channel connected to the given <tt>socket</tt> file.
+	 * 
+	 * @param socket Path of the socket file to connect to.
+	 * @return Connected channel.
+	 * @throws IOException If the channel cannot be opened or connected.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	static SocketChannel connect(final Path socket) throws IOException {
+		final SocketChannel channel = (SocketChannel) open(SocketChannel.class);
+		try {
+			channel.connect(getAddress(socket));
+		}
+		catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return channel;
+	}
+
+	/**
+	 * Invokes the <tt>open(ProtocolFamily)</tt> factory of the given channel
+	 * <tt>type</tt> with the Unix protocol family.
+	 * 
+	 * @param type Channel class to open.
+	 * @return Opened channel.
+	 * @throws IOException If the channel cannot be opened.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	private static Object open(final Class<?> type) throws IOException {
+		final ProtocolFamily family;
+		try {
+			family = StandardProtocolFamily.valueOf(UNIX_FAMILY);
+		}
+		catch (final IllegalArgumentException e) {
+			throw new UnsupportedOperationException(NOT_SUPPORTED, e);
+		}
+		return invoke(type, "open", ProtocolFamily.class, family);
+	}
+
+	/**
+	 * Creates the Unix domain socket address of the given <tt>socket</tt> file.
+	 * 
+	 * @param socket Path of the socket file.
+	 * @return Created address.
+	 * @throws IOException Never thrown in practice.
+	 * @throws UnsupportedOperationException If the runtime does not support Unix domain sockets.
+	 */
+	private static SocketAddress getAddress(final Path socket) throws IOException {
+		try {
+			return (SocketAddress) invoke(Class.forName(ADDRESS_CLASS), "of", Path.class, socket);
+		}
+		catch (final ClassNotFoundException e) {
+			throw new UnsupportedOperationException(NOT_SUPPORTED, e);
+		}
+	}
+
+	/**
+	 * Invokes the static <tt>method</tt> of the given <tt>type</tt> with a single parameter.
+	 * 
+	 * @param type Class declaring the method.
+	 * @param method Name of the method to invoke.
+	 * @param parameterType Type of the method parameter.
+	 * @param parameter Parameter value.
+	 * @return Method result.
+	 * @throws IOException If the invoked method fails with an I/O error.
+	 * @throws UnsupportedOperationException If the method does not exist.
+	 */
+	private static Object invoke(
+			final Class<?> type,
+			final String method,
+			final Class<?> parameterType,
+			final Object parameter) throws IOException {
+		try {
+			final Method factory = type.getMethod(method, parameterType);
+			return factory.invoke(null, parameter);
+		}
+		catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new UnsupportedOperationException(NOT_SUPPORTED, e);
+		}
+		catch (final InvocationTargetException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+}
@@ -0,0 +1,234 @@
+package fr.faylixe.option;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of option values read from a source other than
+ * the command line, such as system properties, environment variables
+ * or a configuration file. A source is read once when created, and
+ * binding only performs lookups against the resulting snapshot.
+ * <p>
+ * Keys are matched against option long names ignoring case and any
+ * non alphanumeric character, so that the <tt>maxCount</tt> option can
+ * be set through the <tt>MAX_COUNT</tt> environment variable or the
+ * <tt>max-count</tt> configuration key.
+ * 
+ * @author fv
+ */
+public final class OptionableSource {
+
+	/** Error message for blank prefix. **/
+	private static final String BLANK_PREFIX = "Prefix must not be blank, as it would read every %s";
+
+	/** Error message for not valid configuration line. **/
+	private static final String NOT_VALID_LINE = "Not valid line %d in configuration file %s";
+
+	/** Empty source. **/
+	private static final OptionableSource EMPTY = new OptionableSource(Collections.emptyMap());
+
+	/** Values indexed by canonical key. **/
+	private final Map<String, String> values;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param values Values indexed by canonical key.
+	 */
+	private OptionableSource(final Map<String, String> values) {
+		this.values = values;
+	}
+
+	/**
+	 * Creates a source from the given <tt>values</tt>.
+	 * 
+	 * @param values Values indexed by key.
+	 * @return Created source.
+	 */
+	public static OptionableSource of(final Map<String, String> values) {
+		return of(values, "");
+	}
+
+	/**
+	 * Creates a source from the current system properties whose
+	 * name starts with the given <tt>prefix</tt>, such as <tt>myapp.</tt>.
+	 * 
+	 * @param prefix Prefix of properties to read, stripped from keys.
+	 * @return Created source.
+	 * @throws IllegalArgumentException If the given <tt>prefix</tt> is blank.
+	 */
+	public static OptionableSource ofSystemProperties(final String prefix) {
+		checkPrefix(prefix, "system property");
+		final Properties properties = System.getProperties();
+		final Map<String, String> values = new HashMap<>();
+		for (final String name : properties.stringPropertyNames()) {
+			values.put(name, properties.getProperty(name));
+		}
+		return of(values, prefix);
+	}
+
+	/**
+	 * Creates a source from the environment variables whose
+	 * name starts with the given <tt>prefix</tt>, such as <tt>MYAPP_</tt>.
+	 * Within a {@link OptionableDaemon} request, variables are the ones
+	 * of the requesting client.
+	 * 
+	 * @param prefix Prefix of variables to read, stripped from keys.
+	 * @return Created source.
+	 * @throws IllegalArgumentException If the given <tt>prefix</tt> is blank.
+	 */
+	public static OptionableSource ofEnvironment(final String prefix) {
+		checkPrefix(prefix, "environment variable");
+		return of(OptionableContext.getEnvironment(), prefix);
+	}
+
+	/**
+	 * Creates a source from the given configuration <tt>file</tt>. The
+	 * file is read with UTF-8 encoding, and consists in lines of either
+	 * <tt>key=value</tt> or <tt>key: value</tt> form. Blank lines and lines
+	 * starting with <tt>#</tt> are ignored, and values may be quoted.
+	 * 
+	 * @param file Configuration file to read.
+	 * @return Created source.
+	 * @throws IOException If the given <tt>file</tt> cannot be read.
+	 * @throws IllegalArgumentException If a line is not valid.
+	 */
+	public static OptionableSource ofFile(final Path file) throws IOException {
+		return ofFile(file, Files.readAllBytes(file));
+	}
+
+	/**
+	 * Creates a source from the given <tt>content</tt> of a configuration
+	 * <tt>file</tt>, already read, as described by {@link #ofFile(Path)}.
+	 * 
+	 * @param file Configuration file the content has been read from, for error reporting.
+	 * @param content Content of the configuration file.
+	 * @return Created source.
+	 * @throws IOException If the given <tt>content</tt> is not valid UTF-8.
+	 * @throws IllegalArgumentException If a line is not valid.
+	 */
+	static OptionableSource ofFile(final Path file, final byte [] content) throws IOException {
+		final String text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(content)).toString();
+		final List<String> lines = new BufferedReader(new StringReader(text)).lines().collect(Collectors.toList());
+		final Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < lines.size(); i++) {
+			final String line = lines.get(i).trim();
+			if (line.isEmpty() || line.charAt(0) == '#') {
+				continue;
+			}
+			final int separator = getSeparator(line);
+			if (separator <= 0) {
+				throw new IllegalArgumentException(String.format(NOT_VALID_LINE, i + 1, file));
+			}
+			final String key = line.substring(0, separator).trim();
+			values.put(key, unquote(line.substring(separator + 1).trim()));
+		}
+		return of(values, "");
+	}
+
+	/**
+	 * Creates a source from the given <tt>values</tt> whose key
+	 * starts with the given <tt>prefix</tt>.
+	 * 
+	 * @param values Values indexed by key.
+	 * @param prefix Prefix of keys to read, stripped from keys.
+	 * @return Created source.
+	 */
+	static OptionableSource of(final Map<String, String> values, final String prefix) {
+		final Map<String, String> snapshot = new HashMap<>();
+		for (final Map.Entry<String, String> entry : values.entrySet()) {
+			final String key = entry.getKey();
+			if (key.startsWith(prefix) && entry.getValue() != null) {
+				snapshot.put(canonical(key.substring(prefix.length())), entry.getValue());
+			}
+		}
+		return snapshot.isEmpty() ? EMPTY : new OptionableSource(Collections.unmodifiableMap(snapshot));
+	}
+
+	/**
+	 * Ensures the given <tt>prefix</tt> is not blank, so that unrelated
+	 * entries such as <tt>PATH</tt> or <tt>user.name</tt> are never bound.
+	 * 
+	 * @param prefix Prefix to check.
+	 * @param kind Kind of entries read with this prefix, for error reporting.
+	 * @throws IllegalArgumentException If the given <tt>prefix</tt> is blank.
+	 */
+	private static void checkPrefix(final String prefix, final String kind) {
+		if (prefix == null || prefix.trim().isEmpty()) {
+			throw new IllegalArgumentException(String.format(BLANK_PREFIX, kind));
+		}
+	}
+
+	/**
+	 * Retrieves the value of the given option.
+	 * 
+	 * @param name Canonical option name, as returned by {@link #canonical(String)}.
+	 * @return Value of the option, <tt>null</tt> if not provided by this source.
+	 */
+	String get(final String name) {
+		return values.get(name);
+	}
+
+	/**
+	 * Computes the canonical form of the given <tt>name</tt>,
+	 * namely its lower case alphanumeric characters.
+	 * 
+	 * @param name Name to compute canonical form for.
+	 * @return Canonical form of the given <tt>name</tt>.
+	 */
+	static String canonical(final String name) {
+		final StringBuilder builder = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			final char current = name.charAt(i);
+			if (Character.isLetterOrDigit(current)) {
+				builder.append(Character.toLowerCase(current));
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Retrieves the index of the key value separator of the given <tt>line</tt>.
+	 * 
+	 * @param line Line to retrieve separator from.
+	 * @return Index of the first <tt>=</tt> or <tt>:</tt> character, <tt>-1</tt> if none.
+	 */
+	private static int getSeparator(final String line) {
+		for (int i = 0; i < line.length(); i++) {
+			final char current = line.charAt(i);
+			if (current == '=' || current == ':') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes surrounding quotes from the given <tt>value</tt> if any.
+	 * 
+	 * @param value Value to unquote.
+	 * @return Unquoted value.
+	 */
+	private static String unquote(final String value) {
+		final int last = value.length() - 1;
+		if (last > 0) {
+			final char first = value.charAt(0);
+			if ((first == '"' || first == '\'') && value.charAt(last) == first) {
+				return value.substring(1, last);
+			}
+		}
+		return value;
+	}
+
+}
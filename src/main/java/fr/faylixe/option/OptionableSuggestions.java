@@ -0,0 +1,175 @@
+package fr.faylixe.option;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree of option long names under the Damerau-Levenshtein distance,
+ * which finds names close to a mistyped one while only visiting the subtrees
+ * that may hold a match, instead of comparing against every option. Swapped
+ * adjacent characters, the most common typing mistake, count as a single edit.
+ * The unrestricted distance is used rather than the optimal string alignment
+ * one, as the latter violates the triangle inequality the tree pruning relies on.
+ * 
+ * @author fv
+ */
+final class OptionableSuggestions {
+
+	/** Maximum distance of suggested names. **/
+	private static final int MAX_DISTANCE = 3;
+
+	/** Root of the tree, <tt>null</tt> if there is no name. **/
+	private final Node root;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param names Names to index.
+	 */
+	OptionableSuggestions(final Collection<String> names) {
+		Node root = null;
+		for (final String name : names) {
+			if (root == null) {
+				root = new Node(name);
+			}
+			else {
+				root.add(name);
+			}
+		}
+		this.root = root;
+	}
+
+	/**
+	 * Retrieves the indexed names close to the given <tt>name</tt>. Tolerated
+	 * distance grows with the name length, from one edit up to three.
+	 * 
+	 * @param name Mistyped name.
+	 * @return Close names, nearest first and alphabetically for equal distances.
+	 */
+	List<String> suggest(final String name) {
+		final int tolerance = Math.max(1, Math.min(MAX_DISTANCE, name.length() / 3));
+		final List<String> matches = new ArrayList<>();
+		final Map<String, Integer> distances = new HashMap<>();
+		final Deque<Node> pending = new ArrayDeque<>();
+		if (root != null) {
+			pending.push(root);
+		}
+		while (!pending.isEmpty()) {
+			final Node node = pending.pop();
+			final int distance = distance(name, node.name);
+			if (distance <= tolerance) {
+				matches.add(node.name);
+				distances.put(node.name, distance);
+			}
+			for (int edge = Math.max(1, distance - tolerance); edge <= distance + tolerance; edge++) {
+				final Node child = node.children.get(edge);
+				if (child != null) {
+					pending.push(child);
+				}
+			}
+		}
+		matches.sort(Comparator.comparing((String match) -> distances.get(match)).thenComparing(Comparator.naturalOrder()));
+		return matches;
+	}
+
+	/**
+	 * Computes the Damerau-Levenshtein distance between the given names.
+	 * 
+	 * @param source First name.
+	 * @param target Second name.
+	 * @return Minimum number of single character insertions, deletions,
+	 * substitutions or transpositions of adjacent characters.
+	 */
+	static int distance(final String source, final String target) {
+		final int length = source.length();
+		final int targetLength = target.length();
+		final int infinity = length + targetLength;
+		final int [][] distances = new int[length + 2][targetLength + 2];
+		distances[0][0] = infinity;
+		for (int i = 0; i <= length; i++) {
+			distances[i + 1][0] = infinity;
+			distances[i + 1][1] = i;
+		}
+		for (int j = 0; j <= targetLength; j++) {
+			distances[0][j + 1] = infinity;
+			distances[1][j + 1] = j;
+		}
+		final Map<Character, Integer> lastRows = new HashMap<>();
+		for (int i = 1; i <= length; i++) {
+			final char character = source.charAt(i - 1);
+			int lastColumn = 0;
+			for (int j = 1; j <= targetLength; j++) {
+				final char targetCharacter = target.charAt(j - 1);
+				final int lastRow = lastRows.getOrDefault(targetCharacter, 0);
+				final int previousColumn = lastColumn;
+				final int cost;
+				if (character == targetCharacter) {
+					cost = 0;
+					lastColumn = j;
+				}
+				else {
+					cost = 1;
+				}
+				final int substitution = distances[i][j] + cost;
+				final int edition = Math.min(distances[i + 1][j], distances[i][j + 1]) + 1;
+				final int transposition = distances[lastRow][previousColumn] + (i - lastRow - 1) + 1 + (j - previousColumn - 1);
+				distances[i + 1][j + 1] = Math.min(Math.min(substitution, edition), transposition);
+			}
+			lastRows.put(character, i);
+		}
+		return distances[length + 1][targetLength + 1];
+	}
+
+	/**
+	 * Tree node, whose children are indexed by their distance to this node.
+	 * 
+	 * @author fv
+	 */
+	private static final class Node {
+
+		/** Name held by this node. **/
+		private final String name;
+
+		/** Children by distance to this node name. **/
+		private final Map<Integer, Node> children;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param name Name held by this node.
+		 */
+		private Node(final String name) {
+			this.name = name;
+			this.children = new HashMap<>();
+		}
+
+		/**
+		 * Adds the given <tt>name</tt> below this node.
+		 * 
+		 * @param added Name to add.
+		 */
+		private void add(final String added) {
+			Node node = this;
+			while (true) {
+				final int distance = distance(added, node.name);
+				if (distance == 0) {
+					return;
+				}
+				final Node child = node.children.get(distance);
+				if (child == null) {
+					node.children.put(distance, new Node(added));
+					return;
+				}
+				node = child;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package fr.faylixe.option;
+
+/**
+ * {@link IllegalArgumentException} raised when a command
+ * line token does not denote any option of the container.
+ * 
+ * @author fv
+ */
+public final class OptionableUnknownOptionException extends IllegalArgumentException {
+
+	/** Serialization index. **/
+	private static final long serialVersionUID = 1L;
+
+	/** Message format, taking the unknown option. **/
+	private static final String FORMAT = "Unrecognized option: %s";
+
+	/** Unknown option, as provided on command line. **/
+	private final String option;
+
+	/**
+	 * Default constructor.
+	 * 
+	 * @param option Unknown option, as provided on command line.
+	 */
+	OptionableUnknownOptionException(final String option) {
+		super(String.format(FORMAT, option));
+		this.option = option;
+	}
+
+	/**
+	 * Constructor with cause.
+	 * 
+	 * @param option Unknown option, as provided on command line.
+	 * @param cause Error reported by the parsing engine.
+	 */
+	OptionableUnknownOptionException(final String option, final Throwable cause) {
+		this(option);
+		initCause(cause);
+	}
+
+	/** @return Unknown option, as provided on command line. **/
+	public String getOption() {
+		return option;
+	}
+
+}
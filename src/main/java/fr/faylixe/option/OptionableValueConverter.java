@@ -0,0 +1,37 @@
+package fr.faylixe.option;
+
+/**
+ * Service interface for converting command line values into
+ * custom types. Implementations are discovered through
+ * {@link java.util.ServiceLoader}, by listing them into a
+ * <tt>META-INF/services/fr.faylixe.option.OptionableValueConverter</tt>
+ * resource, and take precedence over built-in factories.
+ * 
+ * @param <T> Type this converter produces.
+ * @author fv
+ */
+public interface OptionableValueConverter<T> {
+
+	/** @return Exact field type supported by this converter. **/
+	Class<T> getType();
+
+	/**
+	 * Converts the given <tt>value</tt> into the supported type.
+	 * 
+	 * @param value Value retrieved from command line.
+	 * @return Converted value.
+	 * @throws IllegalArgumentException If the given <tt>value</tt> cannot be converted.
+	 */
+	T convert(String value);
+
+	/**
+	 * Indicates if converted values are immutable, and may therefore be
+	 * shared through an {@link OptionableConversionCache}.
+	 * 
+	 * @return <tt>true</tt> if converted values are immutable, <tt>false</tt> by default.
+	 */
+	default boolean isImmutable() {
+		return false;
+	}
+
+}
@@ -1,8 +1,25 @@
 package fr.faylixe.option;
 
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Enumeration of factory for checking
@@ -12,31 +29,84 @@ import java.util.function.Predicate;
  */
 public enum OptionableValueFactories {
 
-	/** Factory for boolean flag, only use for flag testing. **/
-	BOOLEAN(is(Boolean.TYPE, Boolean.class), v -> true),
+	/** Factory for boolean type, flags being set on presence without converting any value. **/
+	BOOLEAN(Boolean::valueOf, Boolean.TYPE, Boolean.class),
 
 	/** Factory for integer type. **/
-	INTEGER(is(Integer.TYPE, Integer.class), Integer::valueOf),
+	INTEGER(v -> Integer.valueOf(OptionableNumbers.parseInt(v)), Integer.TYPE, Integer.class),
 	
 	/** Factory for long type. **/
-	LONG(is(Long.TYPE, Long.class), Long::valueOf),
+	LONG(v -> Long.valueOf(OptionableNumbers.parseLong(v)), Long.TYPE, Long.class),
 	
 	/** Factory for float type. **/
-	FLOAT(is(Float.TYPE, Float.class), Float::valueOf),
+	FLOAT(v -> Float.valueOf(OptionableNumbers.parseFloat(v)), Float.TYPE, Float.class),
 	
 	/** Factory for double type. **/
-	DOUBLE(is(Double.TYPE, Double.class), Double::valueOf),
+	DOUBLE(v -> Double.valueOf(OptionableNumbers.parseDouble(v)), Double.TYPE, Double.class),
 	
 	/** Factory for String type. **/
-	STRING(String.class::equals, v -> v),
+	STRING(v -> v, String.class),
+
+	/** Factory for file system path type, resolved against the context working directory. **/
+	PATH(true, Paths::get, java.nio.file.Path.class),
+
+	/** Factory for file type, resolved against the context working directory. **/
+	FILE(true, File::new, File.class),
+
+	/** Factory for ISO-8601 duration type. **/
+	DURATION(true, Duration::parse, Duration.class),
+
+	/** Factory for URI type. **/
+	URI(true, java.net.URI::create, java.net.URI.class),
+
+	/** Factory for regular expression type. **/
+	PATTERN(true, Pattern::compile, Pattern.class),
 
 	;
 
 	/** Error message for type mismatch. **/
 	private static final String NOT_VALID = "No valid type cast found for option %s";
 
-	/** Predicates that test if a given class is supported by this factory. **/
-	private final Predicate<Class<?>> predicate;
+	/** Warning message for provider that could not be loaded. **/
+	private static final String BROKEN_PROVIDER = "Ignoring converter provider : %s";
+
+	/** Handler of providers that could not be loaded. **/
+	private static volatile Consumer<? super ServiceConfigurationError> errorHandler = OptionableValueFactories::log;
+
+	/** Class loader of this library, used for built-in services. **/
+	private static final ClassLoader LIBRARY_LOADER = OptionableValueConverter.class.getClassLoader();
+
+	/** Service converters of this library class loader, indexed by exact supported type. **/
+	private static final Map<Class<?>, Function<String, ?>> LIBRARY_CONVERTERS = createServiceConverters(LIBRARY_LOADER);
+
+	/** Converters indexed by exact supported type. **/
+	private static final Map<Class<?>, Function<String, ?>> CONVERTERS = createConverters();
+
+	/** Service converters indexed by weakly referenced context class loader, softly referenced as they pin their loader. **/
+	private static final ConcurrentMap<LoaderKey, SoftReference<Map<Class<?>, Function<String, ?>>>> CONTEXT_CONVERTERS = new ConcurrentHashMap<>();
+
+	/** Queue of collected context class loaders, whose converters are released on next registration. **/
+	private static final ReferenceQueue<ClassLoader> COLLECTED = new ReferenceQueue<>();
+
+	/** Enumeration converters, created once per enumeration type. **/
+	private static final ClassValue<Function<String, ?>> ENUM_CONVERTERS = new ClassValue<Function<String, ?>>() {
+
+		/** {@inheritDoc} **/
+		@Override
+		protected Function<String, ?> computeValue(final Class<?> type) {
+			return createEnumConverter(type);
+		}
+
+	};
+
+	/** Cache of converted values, <tt>null</tt> if disabled. **/
+	private static volatile OptionableConversionCache cache;
+
+	/** Classes that are supported by this factory. **/
+	private final Class<?> [] supportedClasses;
+
+	/** Indicates if converted values are immutable and may be cached. **/
+	private final boolean immutable;
 
 	/** Function that converts a String value into a valid object type. **/
 	private final Function<String, Object> converter;
@@ -44,14 +114,29 @@ public enum OptionableValueFactories {
 	/**
 	 * Default constructor.
 	 * 
-	 * @param predicate Predicates that test if a given class is supported by this factory.
 	 * @param converter Function that converts a String value into a valid object type.
+	 * @param supportedClasses Classes that are supported by this factory.
+	 */
+	private OptionableValueFactories(
+			final Function<String, Object> converter,
+			final Class<?> ... supportedClasses) {
+		this(false, converter, supportedClasses);
+	}
+
+	/**
+	 * Constructor for factories whose converted values may be cached.
+	 * 
+	 * @param immutable Indicates if converted values are immutable and may be cached.
+	 * @param converter Function that converts a String value into a valid object type.
+	 * @param supportedClasses Classes that are supported by this factory.
 	 */
 	private OptionableValueFactories(
-			final Predicate<Class<?>> predicate,
-			final Function<String, Object> converter) {
-		this.predicate = predicate;
+			final boolean immutable,
+			final Function<String, Object> converter,
+			final Class<?> ... supportedClasses) {
+		this.immutable = immutable;
 		this.converter = converter;
+		this.supportedClasses = supportedClasses;
 	}
 
 	/**
@@ -61,18 +146,70 @@ public enum OptionableValueFactories {
 	 * @return <tt>true</tt> if this factory support the given class.
 	 */
 	public boolean support(final Class<?> receiver) {
-		return predicate.test(receiver);
+		for (final Class<?> supportedClass : supportedClasses) {
+			if (supportedClass.equals(receiver)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
-	 * Converts the given <tt>value</tt> into the target object type
-	 * of this factory.
+	 * Retrieves the converter for the given <tt>type</tt>. Lookup is performed
+	 * against {@link OptionableValueConverter} services visible from the thread
+	 * context class loader, then against an identity map built once from built-in
+	 * factories and from services of this library class loader, enumerations being
+	 * supported through their constant names.
 	 * 
-	 * @param value Value to convert.
-	 * @return Converted value in {@link Object} form.
+	 * @param type Type of the field that will receive converted values.
+	 * @return Converter for the given <tt>type</tt>, <tt>null</tt> if not supported.
 	 */
-	private Object convert(final String value) {
-		return converter.apply(value);
+	public static Function<String, ?> getConverter(final Class<?> type) {
+		final Function<String, ?> contextual = getContextConverters().get(type);
+		if (contextual != null) {
+			return contextual;
+		}
+		final Function<String, ?> converter = CONVERTERS.get(type);
+		if (converter == null && type.isEnum()) {
+			return ENUM_CONVERTERS.get(type);
+		}
+		return converter;
+	}
+
+	/**
+	 * Indicates if the converter of the given <tt>type</tt> is provided by an
+	 * {@link OptionableValueConverter} service rather than by a built-in factory.
+	 * Values of such a type must be converted through {@link #getConverter(Class)},
+	 * and not through generated binders or primitive fast paths.
+	 * 
+	 * @param type Type of the field that will receive converted values.
+	 * @return <tt>true</tt> if a service overrides the built-in converter, <tt>false</tt> otherwise.
+	 */
+	static boolean isOverridden(final Class<?> type) {
+		return LIBRARY_CONVERTERS.containsKey(type) || getContextConverters().containsKey(type);
+	}
+
+	/**
+	 * Enables or disables caching of converted values. Only converters
+	 * producing immutable values are cached, and the cache applies to
+	 * every container, including already compiled schemas.
+	 * 
+	 * @param conversionCache Cache of converted values, <tt>null</tt> to disable caching.
+	 */
+	public static void setConversionCache(final OptionableConversionCache conversionCache) {
+		cache = conversionCache;
+	}
+
+	/**
+	 * Sets the handler of {@link OptionableValueConverter} providers that cannot
+	 * be loaded, which are otherwise logged as warnings and skipped. A handler
+	 * may rethrow the given error to fail on broken providers. Providers of this
+	 * library class loader are loaded once, before any handler can be set.
+	 * 
+	 * @param handler Handler of providers that could not be loaded, <tt>null</tt> to restore logging.
+	 */
+	public static void setErrorHandler(final Consumer<? super ServiceConfigurationError> handler) {
+		errorHandler = handler == null ? OptionableValueFactories::log : handler;
 	}
 
 	/**
@@ -84,31 +221,202 @@ public enum OptionableValueFactories {
 	 * @return Created object.
 	 */
 	public static Object getOptionableValue(final Field field, final String value) {
-		for (final OptionableValueFactories factory : OptionableValueFactories.values()) {
-			final Class<?> type = field.getType();
-			if (factory.support(type)) {
-				return factory.convert(value);
+		return getOptionableValue(field.getType(), field.getName(), value);
+	}
+
+	/**
+	 * Converts the given <tt>value</tt> for a field or parameter
+	 * of the given <tt>type</tt>.
+	 * 
+	 * @param type Type of the field or parameter that will receive the value.
+	 * @param name Name of the field or parameter, for error reporting.
+	 * @param value Value retrieved from command line.
+	 * @return Created object.
+	 * @throws IllegalArgumentException If the given <tt>type</tt> is not supported.
+	 */
+	static Object getOptionableValue(final Class<?> type, final String name, final String value) {
+		final Function<String, ?> converter = getConverter(type);
+		if (converter == null) {
+			throw new IllegalArgumentException(String.format(NOT_VALID, name));
+		}
+		return converter.apply(value);
+	}
+
+	/**
+	 * Builds the converter registry from built-in factories and
+	 * from {@link OptionableValueConverter} services of this library
+	 * class loader.
+	 * 
+	 * @return Created registry.
+	 */
+	private static Map<Class<?>, Function<String, ?>> createConverters() {
+		final Map<Class<?>, Function<String, ?>> converters = new IdentityHashMap<>();
+		for (final OptionableValueFactories factory : values()) {
+			final Function<String, ?> converter = factory.immutable ? cached(factory.converter) : factory.converter;
+			for (final Class<?> supportedClass : factory.supportedClasses) {
+				converters.put(supportedClass, factory == PATH || factory == FILE ? resolved(converter) : converter);
 			}
 		}
-		throw new IllegalArgumentException(String.format(NOT_VALID, field.getName()));
+		converters.putAll(LIBRARY_CONVERTERS);
+		return Collections.unmodifiableMap(converters);
+	}
+
+	/**
+	 * Loads the {@link OptionableValueConverter} services of the given <tt>loader</tt>.
+	 * 
+	 * @param loader Class loader to load services from.
+	 * @return Unmodifiable service converters, possibly empty.
+	 */
+	private static Map<Class<?>, Function<String, ?>> createServiceConverters(final ClassLoader loader) {
+		final Map<Class<?>, Function<String, ?>> converters = new IdentityHashMap<>();
+		loadServices(loader, converters);
+		return converters.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(converters);
 	}
 
 	/**
-	 * Simple predicate factory method that check for the
-	 * given set of classes.
+	 * Retrieves the service converters visible from the thread context class
+	 * loader, such as the one of a web application or a plugin. Converters are
+	 * loaded once per class loader, the library one being already covered by
+	 * the static registry. Lookups do not lock, concurrent first lookups of a
+	 * same loader possibly loading its services more than once.
 	 * 
-	 * @param supportedClasses List of classes that are supported by the built predicate.
-	 * @return Created predicate.
+	 * @return Service converters of the context class loader, possibly empty.
 	 */
-	private static Predicate<Class<?>> is(final Class<?> ... supportedClasses) {
-		return c -> {
-			for (final Class<?> supportedClass : supportedClasses) {
-				if (supportedClass.equals(c)) {
-					return true;
+	private static Map<Class<?>, Function<String, ?>> getContextConverters() {
+		final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null || loader == LIBRARY_LOADER) {
+			return Collections.emptyMap();
+		}
+		final SoftReference<Map<Class<?>, Function<String, ?>>> reference = CONTEXT_CONVERTERS.get(new LoaderKey(loader, null));
+		Map<Class<?>, Function<String, ?>> converters = reference == null ? null : reference.get();
+		if (converters == null) {
+			converters = createServiceConverters(loader);
+			Object collected;
+			while ((collected = COLLECTED.poll()) != null) {
+				CONTEXT_CONVERTERS.remove(collected);
+			}
+			CONTEXT_CONVERTERS.put(new LoaderKey(loader, COLLECTED), new SoftReference<>(converters));
+		}
+		return converters;
+	}
+
+	/**
+	 * Registers {@link OptionableValueConverter} services of the given <tt>loader</tt>
+	 * into the given <tt>converters</tt> map. A provider that fails to load is reported
+	 * to the error handler and skipped, so that it does not prevent others from being
+	 * registered.
+	 * 
+	 * @param loader Class loader to load services from.
+	 * @param converters Map to register converters into.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static void loadServices(final ClassLoader loader, final Map<Class<?>, Function<String, ?>> converters) {
+		final Iterator<OptionableValueConverter> iterator = ServiceLoader.load(OptionableValueConverter.class, loader).iterator();
+		while (true) {
+			try {
+				if (!iterator.hasNext()) {
+					return;
 				}
+				final OptionableValueConverter<?> converter = iterator.next();
+				final Function<String, ?> function = converter::convert;
+				converters.put(converter.getType(), converter.isImmutable() ? cached(function) : function);
+			}
+			catch (final ServiceConfigurationError e) {
+				errorHandler.accept(e);
 			}
-			return false;
+		}
+	}
+
+	/**
+	 * Default handler of providers that could not be loaded. The logger
+	 * is only looked up here, so that logging is not initialized otherwise.
+	 * 
+	 * @param error Error raised while loading the provider.
+	 */
+	private static void log(final ServiceConfigurationError error) {
+		Logger.getLogger(OptionableValueFactories.class.getName()).log(Level.WARNING, String.format(BROKEN_PROVIDER, error.getMessage()), error);
+	}
+
+	/**
+	 * Decorates the given file system <tt>converter</tt> so that relative
+	 * values are resolved against the working directory of the current
+	 * {@link OptionableContext}, such as the one of a daemon client. The
+	 * decoration applies after caching, as cached values are context free.
+	 * 
+	 * @param converter Converter producing paths or files.
+	 * @return Decorated converter.
+	 */
+	private static Function<String, ?> resolved(final Function<String, ?> converter) {
+		return value -> OptionableContext.resolve(converter.apply(value));
+	}
+
+	/**
+	 * Decorates the given <tt>converter</tt> so that it goes
+	 * through the conversion cache when one is enabled.
+	 * 
+	 * @param converter Converter producing immutable values.
+	 * @return Decorated converter.
+	 */
+	private static Function<String, ?> cached(final Function<String, ?> converter) {
+		return value -> {
+			final OptionableConversionCache current = cache;
+			return current == null ? converter.apply(value) : current.get(converter, value);
 		};
 	}
 
+	/**
+	 * Creates a converter that resolves enumeration constant by name.
+	 * 
+	 * @param type Enumeration type.
+	 * @return Created converter.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Function<String, ?> createEnumConverter(final Class<?> type) {
+		final Class<? extends Enum> enumeration = (Class<? extends Enum>) type;
+		return v -> Enum.valueOf(enumeration, v);
+	}
+
+	/**
+	 * Weak reference to a context class loader, compared by identity
+	 * of its referent so that it can be used as a map key.
+	 * 
+	 * @author fv
+	 */
+	private static final class LoaderKey extends WeakReference<ClassLoader> {
+
+		/** Identity hash code of the referenced loader. **/
+		private final int hash;
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param loader Referenced class loader.
+		 * @param queue Queue notified once the loader is collected, <tt>null</tt> for lookup keys.
+		 */
+		private LoaderKey(final ClassLoader loader, final ReferenceQueue<ClassLoader> queue) {
+			super(loader, queue);
+			this.hash = System.identityHashCode(loader);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public boolean equals(final Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof LoaderKey)) {
+				return false;
+			}
+			final ClassLoader loader = get();
+			return loader != null && loader == ((LoaderKey) object).get();
+		}
+
+	}
+
 }
@@ -0,0 +1,139 @@
+package fr.faylixe.option;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of raw values collected for a multi valued option,
+ * one entry per option occurrence. Each occurrence may itself hold
+ * several elements separated by the option separator, which are iterated
+ * as character ranges without being split into intermediate strings.
+ * 
+ * @author fv
+ */
+final class OptionableValues {
+
+	/** Default separator of elements within an occurrence, as declared by {@link Optionable#separator()}. **/
+	static final String SEPARATOR = ",";
+
+	/** Initial capacity of the buffer. **/
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Consumer of elements character ranges.
+	 * 
+	 * @author fv
+	 */
+	@FunctionalInterface
+	interface Element {
+
+		/**
+		 * Consumes an element.
+		 * 
+		 * @param value Occurrence value the element belongs to.
+		 * @param start Start index of the element, inclusive.
+		 * @param end End index of the element, exclusive.
+		 * @param index Index of the element among all occurrences elements.
+		 */
+		void accept(String value, int start, int end, int index);
+
+	}
+
+	/** Raw occurrence values. **/
+	private String [] values;
+
+	/** Number of occurrences. **/
+	private int size;
+
+	/**
+	 * Default constructor.
+	 */
+	OptionableValues() {
+		this.values = new String[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Constructor from already collected occurrences.
+	 * 
+	 * @param values Raw occurrence values.
+	 */
+	OptionableValues(final String [] values) {
+		this.values = values;
+		this.size = values.length;
+	}
+
+	/**
+	 * Adds the given occurrence value.
+	 * 
+	 * @param value Raw value to add.
+	 */
+	void add(final String value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * Counts the elements of all occurrences.
+	 * 
+	 * @param separator Separator of elements within an occurrence, empty if occurrences are not split.
+	 * @return Number of elements.
+	 */
+	int count(final String separator) {
+		int count = size;
+		if (separator.isEmpty()) {
+			return count;
+		}
+		for (int i = 0; i < size; i++) {
+			final String value = values[i];
+			for (int j = value.indexOf(separator); j >= 0; j = value.indexOf(separator, j + separator.length())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Iterates over the elements of all occurrences.
+	 * 
+	 * @param separator Separator of elements within an occurrence, empty if occurrences are not split.
+	 * @param consumer Consumer of elements.
+	 */
+	void forEach(final String separator, final Element consumer) {
+		int index = 0;
+		for (int i = 0; i < size; i++) {
+			final String value = values[i];
+			if (separator.isEmpty()) {
+				consumer.accept(value, 0, value.length(), index++);
+				continue;
+			}
+			int start = 0;
+			int end;
+			do {
+				end = value.indexOf(separator, start);
+				if (end < 0) {
+					end = value.length();
+				}
+				consumer.accept(value, start, end, index++);
+				start = end + separator.length();
+			} while (end < value.length());
+		}
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public boolean equals(final Object object) {
+		if (!(object instanceof OptionableValues)) {
+			return false;
+		}
+		final OptionableValues other = (OptionableValues) object;
+		return size == other.size && Arrays.equals(Arrays.copyOf(values, size), Arrays.copyOf(other.values, size));
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(Arrays.copyOf(values, size));
+	}
+
+}
@@ -0,0 +1,24 @@
+package fr.faylixe.option;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that registers a container class as
+ * a subcommand of {@link OptionableCommands}. The
+ * annotation processor records the command name into
+ * a table that is read at runtime without loading
+ * any command class.
+ * 
+ * @author fv
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface Subcommand {
+
+	/** @return Name of this command, as given in first command line parameter. **/
+	String value();
+
+}
@@ -0,0 +1,180 @@
+package fr.faylixe.option.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Collects GraalVM native image reachability metadata for the elements
+ * accessed reflectively at runtime, namely container fields, generated
+ * binders and subcommand constructors, enumeration constants and option
+ * resources, and writes them as <tt>reflect-config.json</tt> and
+ * <tt>resource-config.json</tt> files.
+ * <p>
+ * Metadata is written as one fragment per originating class, under a
+ * directory named after it, which native image merges with others.
+ * Incremental compilation thus only rewrites fragments of the classes
+ * that are compiled again, and leaves the others untouched.
+ *
+ * @author fv
+ */
+final class OptionableMetadata {
+
+	/** Directory of generated metadata files. **/
+	static final String DIRECTORY = "META-INF/native-image/fr.faylixe.option/generated/";
+
+	/** Field names indexed by declaring class binary name. **/
+	private final Map<String, Set<String>> fields = new TreeMap<>();
+
+	/** Binary names of classes instantiated through their constructor without parameter. **/
+	private final Set<String> constructors = new TreeSet<>();
+
+	/** Binary names of enumerations converted by constant name. **/
+	private final Set<String> enumerations = new TreeSet<>();
+
+	/** Resource paths read at runtime. **/
+	private final Set<String> resources = new TreeSet<>();
+
+	/**
+	 * Registers a field written reflectively.
+	 *
+	 * @param type Binary name of the declaring class.
+	 * @param field Name of the field.
+	 */
+	void addField(final String type, final String field) {
+		fields.computeIfAbsent(type, t -> new TreeSet<>()).add(field);
+	}
+
+	/**
+	 * Registers a class instantiated through its constructor without parameter.
+	 *
+	 * @param type Binary name of the class.
+	 */
+	void addConstructor(final String type) {
+		constructors.add(type);
+	}
+
+	/**
+	 * Registers an enumeration converted by constant name.
+	 *
+	 * @param type Binary name of the enumeration.
+	 */
+	void addEnumeration(final String type) {
+		enumerations.add(type);
+	}
+
+	/**
+	 * Registers a resource read at runtime.
+	 *
+	 * @param path Path of the resource.
+	 */
+	void addResource(final String path) {
+		resources.add(path);
+	}
+
+	/**
+	 * Writes collected metadata as the fragment of the given <tt>name</tt>,
+	 * only creating files that are not empty.
+	 *
+	 * @param filer Filer to create metadata files with.
+	 * @param name Name of the fragment, usually the binary name of the originating class.
+	 * @param origins Elements the metadata originates from.
+	 * @throws IOException If a metadata file cannot be written.
+	 */
+	void write(final Filer filer, final String name, final Element ... origins) throws IOException {
+		if (!fields.isEmpty() || !constructors.isEmpty() || !enumerations.isEmpty()) {
+			try (final PrintWriter writer = open(filer, name + "/reflect-config.json", origins)) {
+				writeReflection(writer);
+			}
+		}
+		if (!resources.isEmpty()) {
+			try (final PrintWriter writer = open(filer, name + "/resource-config.json", origins)) {
+				writeResources(writer);
+			}
+		}
+	}
+
+	/**
+	 * Writes collected classes as <tt>reflect-config.json</tt> content.
+	 *
+	 * @param writer Writer to write content into.
+	 */
+	void writeReflection(final PrintWriter writer) {
+		final Set<String> types = new TreeSet<>();
+		types.addAll(fields.keySet());
+		types.addAll(constructors);
+		types.addAll(enumerations);
+		writer.println("[");
+		final Iterator<String> iterator = types.iterator();
+		while (iterator.hasNext()) {
+			final String type = iterator.next();
+			writer.println("  {");
+			writer.print("    \"name\": \"" + type + "\"");
+			if (enumerations.contains(type)) {
+				writer.println(",");
+				writer.print("    \"allDeclaredFields\": true,\n    \"allPublicMethods\": true");
+			}
+			if (constructors.contains(type)) {
+				writer.println(",");
+				writer.print("    \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]");
+			}
+			if (fields.containsKey(type)) {
+				writer.println(",");
+				writer.print("    \"fields\": [");
+				final Iterator<String> names = fields.get(type).iterator();
+				while (names.hasNext()) {
+					writer.print("{\"name\": \"" + names.next() + "\", \"allowWrite\": true}");
+					writer.print(names.hasNext() ? ", " : "");
+				}
+				writer.print("]");
+			}
+			writer.println();
+			writer.println(iterator.hasNext() ? "  }," : "  }");
+		}
+		writer.println("]");
+	}
+
+	/**
+	 * Writes collected resources as <tt>resource-config.json</tt> content.
+	 *
+	 * @param writer Writer to write content into.
+	 */
+	void writeResources(final PrintWriter writer) {
+		writer.println("{");
+		writer.println("  \"resources\": {");
+		writer.println("    \"includes\": [");
+		final Iterator<String> iterator = resources.iterator();
+		while (iterator.hasNext()) {
+			final String pattern = Pattern.quote(iterator.next()).replace("\\", "\\\\");
+			writer.println("      {\"pattern\": \"" + pattern + "\"}" + (iterator.hasNext() ? "," : ""));
+		}
+		writer.println("    ]");
+		writer.println("  }");
+		writer.println("}");
+	}
+
+	/**
+	 * Creates the given metadata file.
+	 *
+	 * @param filer Filer to create metadata file with.
+	 * @param name Name of the metadata file, relative to {@link #DIRECTORY}.
+	 * @param origins Elements the metadata originates from.
+	 * @return Writer over the created file.
+	 * @throws IOException If the file cannot be created.
+	 */
+	private static PrintWriter open(final Filer filer, final String name, final Element ... origins) throws IOException {
+		final FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", DIRECTORY + name, origins);
+		return new PrintWriter(file.openWriter());
+	}
+
+}
@@ -0,0 +1,571 @@
+package fr.faylixe.option.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import fr.faylixe.option.Operands;
+import fr.faylixe.option.Optionable;
+import fr.faylixe.option.OptionableBinder;
+import fr.faylixe.option.OptionableCommands;
+import fr.faylixe.option.OptionableIndex;
+import fr.faylixe.option.Subcommand;
+
+/**
+ * Annotation processor that generates an {@link OptionableBinder}
+ * for each class declaring {@link Optionable} fields. Only fields
+ * that are reachable from the container package and of a supported
+ * type are bound, others being left to the reflective path. Classes
+ * annotated with {@link Subcommand} are recorded into the
+ * {@link OptionableCommands#TABLE} resource, and each container
+ * fields are recorded into an {@link OptionableIndex} resource.
+ * GraalVM native image metadata is generated for all of these,
+ * and for {@link Operands} fields.
+ * <p>
+ * Generated binders convert built-in types directly, and are bypassed
+ * at runtime for fields whose converter is overridden by a service.
+ * Containers without binder are only reported when the {@link #VERBOSE}
+ * option is set, for instance with <tt>-Aoptionable.verbose=true</tt>.
+ *
+ * @author fv
+ */
+@SupportedAnnotationTypes({"fr.faylixe.option.Optionable", "fr.faylixe.option.Operands", "fr.faylixe.option.Subcommand"})
+@SupportedOptions(OptionableProcessor.VERBOSE)
+public final class OptionableProcessor extends AbstractProcessor {
+
+	/** Processor option enabling notes for containers without binder. **/
+	public static final String VERBOSE = "optionable.verbose";
+
+	/** Error message for unknown binding index. **/
+	private static final String UNKNOWN_INDEX = "Unknown field index ";
+
+	/** Qualified name of the numeric parser used by generated code. **/
+	private static final String NUMBERS = "fr.faylixe.option.OptionableNumbers";
+
+	/** Error message for command that cannot be instantiated. **/
+	private static final String NOT_INSTANTIABLE = "Subcommand %s must be a concrete top level or static nested class";
+
+	/** Error message for duplicate command. **/
+	private static final String DUPLICATE = "Subcommand %s is already declared by %s";
+
+	/** Note message for container without index. **/
+	private static final String NOT_INDEXED = "No index generated for %s, option name %s is declared twice.";
+
+	/** Note message for skipped container. **/
+	private static final String SKIPPED = "No binder generated for %s, reflection will be used.";
+
+	/** Binary names of subcommand classes indexed by command name. **/
+	private final Map<String, String> commands = new TreeMap<>();
+
+	/** Native image metadata of the current round, indexed by originating class. **/
+	private final Map<TypeElement, OptionableMetadata> fragments = new LinkedHashMap<>();
+
+	/** {@inheritDoc} **/
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment environment) {
+		final Map<TypeElement, List<VariableElement>> containers = new LinkedHashMap<>();
+		for (final Element element : environment.getElementsAnnotatedWith(Optionable.class)) {
+			if (element.getKind() == ElementKind.FIELD && !isRecord(element.getEnclosingElement())) {
+				final TypeElement container = (TypeElement) element.getEnclosingElement();
+				containers.computeIfAbsent(container, c -> new ArrayList<>()).add((VariableElement) element);
+			}
+		}
+		for (final Map.Entry<TypeElement, List<VariableElement>> entry : containers.entrySet()) {
+			final TypeElement container = entry.getKey();
+			final String containerName = processingEnv.getElementUtils().getBinaryName(container).toString();
+			final OptionableMetadata metadata = getMetadata(container);
+			for (final VariableElement field : entry.getValue()) {
+				metadata.addField(containerName, field.getSimpleName().toString());
+				addEnumerations(metadata, field.asType());
+			}
+			index(container, entry.getValue(), metadata);
+			final List<VariableElement> fields = new ArrayList<>();
+			if (isAccessible(container)) {
+				for (final VariableElement field : entry.getValue()) {
+					if (isBindable(field)) {
+						fields.add(field);
+					}
+				}
+			}
+			if (fields.isEmpty()) {
+				if (Boolean.parseBoolean(processingEnv.getOptions().get(VERBOSE))) {
+					processingEnv.getMessager().printMessage(Kind.NOTE, String.format(SKIPPED, container), container);
+				}
+			}
+			else {
+				generate(container, fields);
+				metadata.addConstructor(containerName + OptionableBinder.SUFFIX);
+			}
+		}
+		for (final Element element : environment.getElementsAnnotatedWith(Operands.class)) {
+			final TypeElement container = (TypeElement) element.getEnclosingElement();
+			final String containerName = processingEnv.getElementUtils().getBinaryName(container).toString();
+			getMetadata(container).addField(containerName, element.getSimpleName().toString());
+		}
+		collectCommands(environment);
+		writeMetadata();
+		if (environment.processingOver() && !commands.isEmpty()) {
+			writeCommands();
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves the native image metadata fragment of the given <tt>type</tt>
+	 * for the current round.
+	 * 
+	 * @param type Class the metadata originates from.
+	 * @return Metadata fragment of the given <tt>type</tt>.
+	 */
+	private OptionableMetadata getMetadata(final TypeElement type) {
+		return fragments.computeIfAbsent(type, t -> new OptionableMetadata());
+	}
+
+	/**
+	 * Writes the native image metadata fragments collected during the current
+	 * round, one per originating class, so that incremental compilation only
+	 * rewrites the fragments of compiled classes.
+	 */
+	private void writeMetadata() {
+		for (final Map.Entry<TypeElement, OptionableMetadata> entry : fragments.entrySet()) {
+			final TypeElement type = entry.getKey();
+			try {
+				entry.getValue().write(processingEnv.getFiler(), processingEnv.getElementUtils().getBinaryName(type).toString(), type);
+			}
+			catch (final IOException e) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), type);
+			}
+		}
+		fragments.clear();
+	}
+
+	/**
+	 * Writes the {@link OptionableIndex} resource of the given <tt>container</tt>,
+	 * resolving option names the same way {@link fr.faylixe.option.OptionableFieldFactory} does.
+	 * 
+	 * @param container Container class to index.
+	 * @param fields Annotated fields declared by the container.
+	 * @param metadata Native image metadata of the container.
+	 */
+	private void index(final TypeElement container, final List<VariableElement> fields, final OptionableMetadata metadata) {
+		final Set<String> shorts = new HashSet<>();
+		final Set<String> longs = new HashSet<>();
+		final List<OptionableIndex.Entry> entries = new ArrayList<>(fields.size());
+		int signature = 0;
+		for (final VariableElement field : fields) {
+			final Optionable optionable = field.getAnnotation(Optionable.class);
+			final String name = field.getSimpleName().toString();
+			signature += OptionableIndex.signature(name, optionable);
+			final String shortName = (optionable.shortName().isEmpty() ? name : optionable.shortName()).substring(0, 1);
+			final String longName = optionable.longName().isEmpty() ? name : optionable.longName();
+			final boolean shortAvailable = shorts.add(shortName);
+			if (!shortAvailable || !longs.add(longName)) {
+				final String conflict = shortAvailable ? longName : shortName;
+				processingEnv.getMessager().printMessage(Kind.NOTE, String.format(NOT_INDEXED, container, conflict), container);
+				return;
+			}
+			entries.add(new OptionableIndex.Entry(
+					name,
+					getTypeName(field.asType()),
+					shortName,
+					longName,
+					optionable.description(),
+					optionable.required(),
+					optionable.separator()));
+		}
+		final TypeMirror superclass = container.getSuperclass();
+		final String superName = superclass.getKind() == TypeKind.DECLARED ? getTypeName(superclass) : "";
+		final String binaryName = processingEnv.getElementUtils().getBinaryName(container).toString();
+		metadata.addResource(OptionableIndex.PREFIX + binaryName);
+		try {
+			final FileObject file = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT,
+					"",
+					OptionableIndex.PREFIX + binaryName,
+					container);
+			try (final OutputStream stream = file.openOutputStream()) {
+				new OptionableIndex(superName, signature, entries).write(stream);
+			}
+		}
+		catch (final IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), container);
+		}
+	}
+
+	/**
+	 * Registers the enumerations the given field <tt>type</tt> is
+	 * made of, as their constants are resolved reflectively.
+	 * 
+	 * @param metadata Native image metadata of the field container.
+	 * @param type Type of the field.
+	 */
+	private void addEnumerations(final OptionableMetadata metadata, final TypeMirror type) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			addEnumerations(metadata, ((ArrayType) type).getComponentType());
+		}
+		else if (type.getKind() == TypeKind.DECLARED) {
+			final DeclaredType declared = (DeclaredType) type;
+			if (declared.asElement().getKind() == ElementKind.ENUM) {
+				metadata.addEnumeration(getTypeName(type));
+			}
+			for (final TypeMirror argument : declared.getTypeArguments()) {
+				addEnumerations(metadata, argument);
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the name of the given <tt>type</tt>, as
+	 * returned by {@link Class#getName()} at runtime.
+	 * 
+	 * @param type Type to retrieve name for.
+	 * @return Name of the type erasure.
+	 */
+	private String getTypeName(final TypeMirror type) {
+		final TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		switch (erasure.getKind()) {
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) erasure).getComponentType());
+			case DECLARED:
+				return processingEnv.getElementUtils().getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(erasure)).toString();
+			default:
+				return erasure.toString();
+		}
+	}
+
+	/**
+	 * Retrieves the array component descriptor of the given <tt>type</tt>,
+	 * as used by {@link Class#getName()} for array classes.
+	 * 
+	 * @param type Component type to retrieve descriptor for.
+	 * @return Descriptor of the type erasure.
+	 */
+	private String getDescriptor(final TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case ARRAY:
+				return getTypeName(type);
+			default:
+				return "L" + getTypeName(type) + ";";
+		}
+	}
+
+	/**
+	 * Records classes annotated with {@link Subcommand} in the current round.
+	 * 
+	 * @param environment Current round environment.
+	 */
+	private void collectCommands(final RoundEnvironment environment) {
+		for (final Element element : environment.getElementsAnnotatedWith(Subcommand.class)) {
+			final TypeElement type = (TypeElement) element;
+			final Set<Modifier> modifiers = type.getModifiers();
+			if (type.getKind() != ElementKind.CLASS
+					|| modifiers.contains(Modifier.ABSTRACT)
+					|| (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))
+					|| type.getNestingKind() == NestingKind.LOCAL
+					|| type.getNestingKind() == NestingKind.ANONYMOUS) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, String.format(NOT_INSTANTIABLE, type), type);
+				continue;
+			}
+			final String name = type.getAnnotation(Subcommand.class).value();
+			final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+			getMetadata(type).addConstructor(binaryName);
+			final String previous = commands.putIfAbsent(name, binaryName);
+			if (previous != null && !previous.equals(binaryName)) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, String.format(DUPLICATE, name, previous), type);
+			}
+		}
+	}
+
+	/**
+	 * Writes the {@link OptionableCommands#TABLE} resource from recorded commands,
+	 * merged with the commands of the previous compilation output that are still
+	 * declared, so that incremental compilation does not drop them.
+	 */
+	private void writeCommands() {
+		final Map<String, String> table = readCommands();
+		table.putAll(commands);
+		final OptionableMetadata metadata = new OptionableMetadata();
+		metadata.addResource(OptionableCommands.TABLE);
+		try {
+			final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", OptionableCommands.TABLE);
+			try (final PrintWriter writer = new PrintWriter(file.openWriter())) {
+				for (final Map.Entry<String, String> entry : table.entrySet()) {
+					writer.println(entry.getKey() + "=" + entry.getValue());
+				}
+			}
+			metadata.write(processingEnv.getFiler(), OptionableCommands.class.getName());
+		}
+		catch (final IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the {@link OptionableCommands#TABLE} resource of the previous
+	 * compilation output, keeping commands whose class is still annotated
+	 * with the same {@link Subcommand} name.
+	 * 
+	 * @return Commands of the previous compilation, empty if none.
+	 */
+	private Map<String, String> readCommands() {
+		final Map<String, String> table = new TreeMap<>();
+		final List<String> lines = new ArrayList<>();
+		try {
+			final FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", OptionableCommands.TABLE);
+			try (final BufferedReader reader = new BufferedReader(file.openReader(true))) {
+				reader.lines().forEach(lines::add);
+			}
+		}
+		catch (final IOException | UncheckedIOException e) {
+			return table;
+		}
+		for (final String line : lines) {
+			final int separator = line.indexOf('=');
+			if (separator <= 0) {
+				continue;
+			}
+			final String name = line.substring(0, separator);
+			final String binaryName = line.substring(separator + 1);
+			final TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+			final Subcommand subcommand = type == null ? null : type.getAnnotation(Subcommand.class);
+			if (subcommand != null && subcommand.value().equals(name)) {
+				table.put(name, binaryName);
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Indicates if the given <tt>type</tt> can be referenced from
+	 * a top level class of the same package.
+	 *
+	 * @param type Type to check.
+	 * @return <tt>true</tt> if the given <tt>type</tt> is accessible, <tt>false</tt> otherwise.
+	 */
+	private static boolean isAccessible(final TypeElement type) {
+		Element current = type;
+		while (current instanceof TypeElement) {
+			final TypeElement element = (TypeElement) current;
+			final NestingKind nesting = element.getNestingKind();
+			if (element.getModifiers().contains(Modifier.PRIVATE)
+					|| nesting == NestingKind.LOCAL
+					|| nesting == NestingKind.ANONYMOUS) {
+				return false;
+			}
+			current = element.getEnclosingElement();
+		}
+		return true;
+	}
+
+	/**
+	 * Indicates if the given <tt>field</tt> can be assigned
+	 * directly by the generated binder.
+	 *
+	 * @param field Field to check.
+	 * @return <tt>true</tt> if the given <tt>field</tt> is bindable, <tt>false</tt> otherwise.
+	 */
+	private static boolean isBindable(final VariableElement field) {
+		final Set<Modifier> modifiers = field.getModifiers();
+		return !modifiers.contains(Modifier.PRIVATE)
+				&& !modifiers.contains(Modifier.FINAL)
+				&& !modifiers.contains(Modifier.STATIC)
+				&& getConversion(field.asType()) != null;
+	}
+
+	/**
+	 * Indicates if the given <tt>element</tt> is a record, whose options are
+	 * injected through its canonical constructor rather than bound to fields.
+	 * Record kind is compared by name as it does not exist in Java 8.
+	 *
+	 * @param element Element to check.
+	 * @return <tt>true</tt> if the given <tt>element</tt> is a record, <tt>false</tt> otherwise.
+	 */
+	private static boolean isRecord(final Element element) {
+		return "RECORD".equals(element.getKind().name());
+	}
+
+	/**
+	 * Retrieves the conversion expression format for the given <tt>type</tt>.
+	 *
+	 * @param type Type of the field to assign.
+	 * @return Expression format taking the value variable, or <tt>null</tt> if not supported.
+	 */
+	private static String getConversion(final TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "true";
+			case INT:
+				return NUMBERS + ".parseInt(%s)";
+			case LONG:
+				return NUMBERS + ".parseLong(%s)";
+			case FLOAT:
+				return NUMBERS + ".parseFloat(%s)";
+			case DOUBLE:
+				return NUMBERS + ".parseDouble(%s)";
+			case DECLARED:
+				return getDeclaredConversion(type.toString());
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Retrieves the conversion expression format for the given declared type.
+	 *
+	 * @param type Qualified name of the field type.
+	 * @return Expression format taking the value variable, or <tt>null</tt> if not supported.
+	 */
+	private static String getDeclaredConversion(final String type) {
+		switch (type) {
+			case "java.lang.Boolean":
+				return "Boolean.TRUE";
+			case "java.lang.Integer":
+				return "Integer.valueOf(" + NUMBERS + ".parseInt(%s))";
+			case "java.lang.Long":
+				return "Long.valueOf(" + NUMBERS + ".parseLong(%s))";
+			case "java.lang.Float":
+				return "Float.valueOf(" + NUMBERS + ".parseFloat(%s))";
+			case "java.lang.Double":
+				return "Double.valueOf(" + NUMBERS + ".parseDouble(%s))";
+			case "java.lang.String":
+				return "%s";
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Generates the binder source file for the given <tt>container</tt>.
+	 *
+	 * @param container Container class to generate binder for.
+	 * @param fields Fields that should be bound.
+	 */
+	private void generate(final TypeElement container, final List<VariableElement> fields) {
+		final PackageElement element = processingEnv.getElementUtils().getPackageOf(container);
+		final String packageName = element.isUnnamed() ? "" : element.getQualifiedName().toString();
+		final String binaryName = processingEnv.getElementUtils().getBinaryName(container).toString();
+		final String binderName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + OptionableBinder.SUFFIX;
+		final String target = getReference(container);
+		final String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+		try {
+			final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, container);
+			try (final PrintWriter writer = new PrintWriter(file.openWriter())) {
+				if (!packageName.isEmpty()) {
+					writer.println("package " + packageName + ";");
+					writer.println();
+				}
+				writer.println("/** Binder generated by " + getClass().getName() + " for {@link " + container.getQualifiedName() + "}. **/");
+				writer.println("@SuppressWarnings(\"all\")");
+				writer.println("public final class " + binderName + " implements " + OptionableBinder.class.getName() + " {");
+				writer.println();
+				writer.println("\t/** {@inheritDoc} **/");
+				writer.println("\t@Override");
+				writer.println("\tpublic int indexOf(final String field) {");
+				writer.println("\t\tswitch (field) {");
+				for (int i = 0; i < fields.size(); i++) {
+					writer.println("\t\t\tcase \"" + fields.get(i).getSimpleName() + "\":");
+					writer.println("\t\t\t\treturn " + i + ";");
+				}
+				writer.println("\t\t\tdefault:");
+				writer.println("\t\t\t\treturn -1;");
+				writer.println("\t\t}");
+				writer.println("\t}");
+				writer.println();
+				writer.println("\t/** {@inheritDoc} **/");
+				writer.println("\t@Override");
+				writer.println("\tpublic void bind(final Object receiver, final int index, final String value) {");
+				writer.println("\t\tfinal " + target + " target = (" + target + ") receiver;");
+				writer.println("\t\tswitch (index) {");
+				for (int i = 0; i < fields.size(); i++) {
+					final VariableElement field = fields.get(i);
+					final String conversion = String.format(getConversion(field.asType()), "value");
+					writer.println("\t\t\tcase " + i + ":");
+					writer.println("\t\t\t\ttarget." + field.getSimpleName() + " = " + conversion + ";");
+					writer.println("\t\t\t\tbreak;");
+				}
+				writer.println("\t\t\tdefault:");
+				writer.println("\t\t\t\tthrow new IllegalArgumentException(\"" + UNKNOWN_INDEX + "\" + index);");
+				writer.println("\t\t}");
+				writer.println("\t}");
+				writer.println();
+				writer.println("}");
+			}
+		}
+		catch (final IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), container);
+		}
+	}
+
+	/**
+	 * Builds the source reference of the given <tt>container</tt>,
+	 * using wildcards for any type parameter.
+	 *
+	 * @param container Container class to reference.
+	 * @return Source reference of the container.
+	 */
+	private static String getReference(final TypeElement container) {
+		final StringBuilder builder = new StringBuilder(container.getQualifiedName());
+		final int parameters = container.getTypeParameters().size();
+		if (parameters > 0) {
+			builder.append('<');
+			for (int i = 0; i < parameters; i++) {
+				builder.append(i == 0 ? "?" : ", ?");
+			}
+			builder.append('>');
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,97 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link Lazy} class.
+ * 
+ * @author fv
+ */
+public final class LazyTest {
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyLazyContainer extends OptionableContainer {
+
+		/** Lazy integer parameter testing. **/
+		@Optionable
+		private Lazy<Integer> integer;
+
+		/** Lazy pattern parameter testing. **/
+		@Optionable
+		private Supplier<Pattern> pattern;
+
+		/** Lazy parameter not provided. **/
+		@Optionable
+		private Lazy<String> missing = Lazy.of("default");
+
+	}
+
+	/** Test conversion is performed once. **/
+	@Test
+	public void testMemoised() {
+		final AtomicInteger calls = new AtomicInteger();
+		final Lazy<Integer> lazy = new Lazy<>("42", v -> {
+			calls.incrementAndGet();
+			return Integer.valueOf(v);
+		});
+		assertFalse(lazy.isConverted());
+		assertEquals((Integer) 42, lazy.get());
+		assertEquals((Integer) 42, lazy.get());
+		assertTrue(lazy.isConverted());
+		assertEquals(1, calls.get());
+	}
+
+	/** Test failed conversion is propagated on access. **/
+	@Test
+	public void testFailure() {
+		final Lazy<Integer> lazy = new Lazy<>("foo", Integer::valueOf);
+		try {
+			lazy.get();
+			fail("Conversion should have failed");
+		}
+		catch (final NumberFormatException e) {
+			assertFalse(lazy.isConverted());
+		}
+	}
+
+	/** Test bootstrapping lazy fields. **/
+	@Test
+	public void testBootstrap() {
+		final MyLazyContainer container = new MyLazyContainer();
+		assertTrue(container.bootstrap(new String[] {"--integer", "3", "--pattern", "[a-z]+"}));
+		assertFalse(container.integer.isConverted());
+		assertEquals((Integer) 3, container.integer.get());
+		assertTrue(container.pattern.get().matcher("foo").matches());
+		assertEquals("default", container.missing.get());
+	}
+
+	/** Test bootstrapping lazy fields is not converting values. **/
+	@Test
+	public void testDeferredError() {
+		final MyLazyContainer container = new MyLazyContainer();
+		assertTrue(container.bootstrap(new String[] {"--integer", "foo"}));
+		assertNull(container.pattern);
+		try {
+			container.integer.get();
+			fail("Conversion should have failed");
+		}
+		catch (final NumberFormatException e) {
+			assertFalse(container.integer.isConverted());
+		}
+	}
+
+}
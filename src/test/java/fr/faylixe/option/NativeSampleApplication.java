@@ -0,0 +1,51 @@
+package fr.faylixe.option;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sample application built as native image by {@link OptionableNativeImageTest}.
+ * 
+ * @author fv
+ */
+public final class NativeSampleApplication extends OptionableApplication {
+
+	/** Integer parameter bound through generated binder. **/
+	@Optionable(shortName = "c")
+	int count;
+
+	/** Private parameter bound through reflection. **/
+	@Optionable(shortName = "n", required = true)
+	private String name;
+
+	/** Enumeration parameter. **/
+	@Optionable(shortName = "u")
+	private TimeUnit unit = TimeUnit.SECONDS;
+
+	/** Collection parameter. **/
+	@Optionable(shortName = "t")
+	private List<String> tags;
+
+	/** Default constructor. **/
+	public NativeSampleApplication() {
+		super("sample");
+	}
+
+	/** {@inheritDoc} **/
+	@Override
+	public void run() {
+		System.out.println(name + " " + count + " " + unit + " " + tags + " " + isVerbose());
+	}
+
+	/**
+	 * Application entry point.
+	 * 
+	 * @param args Command line parameters.
+	 */
+	public static void main(final String [] args) {
+		if (!new NativeSampleApplication().bootstrap(args)) {
+			System.exit(1);
+		}
+	}
+
+}
@@ -2,7 +2,12 @@ package fr.faylixe.option;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -42,10 +47,16 @@ public final class OptionableApplicationTest {
 		/** Indicates if run() method has been executed. **/
 		private boolean hasRan;
 
+		/** Error thrown by run() method, <tt>null</tt> if none. **/
+		private Error error;
+
 		/** {@inheritDoc} **/
 		@Override
 		public void run() {
 			hasRan = true;
+			if (error != null) {
+				throw error;
+			}
 		}
 
 	}
@@ -75,4 +86,54 @@ public final class OptionableApplicationTest {
 		assertFalse(application.hasRan);
 	}
 
+	/**
+	 * Test asynchronous application bootstrapping.
+	 * 
+	 * @throws ExecutionException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testApplicationAsync() throws InterruptedException, ExecutionException {
+		final OptionableResult result = application.bootstrapAsync(ARGS).get();
+		assertTrue(result.isSuccess());
+		assertEquals(application, result.getApplication());
+		assertNull(result.getFailure());
+		assertTrue(application.hasRan);
+		assertEquals(VALUE, application.s);
+	}
+
+	/**
+	 * Test error prone asynchronous application bootstrapping.
+	 * 
+	 * @throws ExecutionException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testApplicationAsyncError() throws InterruptedException, ExecutionException {
+		final OptionableResult result = application.bootstrapAsync(new String[]{}, Runnable::run).get();
+		assertFalse(result.isSuccess());
+		assertEquals(OptionableResult.EXIT_USAGE, result.getExitCode());
+		assertTrue(result.getFailure() instanceof IllegalArgumentException);
+		assertFalse(application.hasRan);
+	}
+
+	/**
+	 * Test asynchronous application bootstrapping propagates errors.
+	 * 
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testApplicationAsyncFatal() throws InterruptedException {
+		final Error error = new Error("fatal");
+		application.error = error;
+		try {
+			application.bootstrapAsync(ARGS, Runnable::run).get();
+			fail("Error should be propagated");
+		}
+		catch (final ExecutionException e) {
+			assertSame(error, e.getCause());
+		}
+		assertTrue(application.hasRan);
+	}
+
 }
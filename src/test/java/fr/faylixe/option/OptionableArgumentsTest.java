@@ -0,0 +1,137 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableArguments} class.
+ * 
+ * @author fv
+ */
+public final class OptionableArgumentsTest {
+
+	/** Temporary folder for argument files. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Creates an argument file with the given <tt>content</tt>.
+	 * 
+	 * @param name Name of the file.
+	 * @param content Content of the file.
+	 * @return Created file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private File write(final String name, final String content) throws IOException {
+		final File file = folder.newFile(name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * Collects all tokens of the given iterator.
+	 * 
+	 * @param iterator Iterator to collect.
+	 * @return Collected tokens.
+	 */
+	private static List<String> collect(final Iterator<String> iterator) {
+		final List<String> tokens = new ArrayList<>();
+		iterator.forEachRemaining(tokens::add);
+		return tokens;
+	}
+
+	/** Test tokenizing with quotes, escapes and comments. **/
+	@Test
+	public void testTokenizing() throws IOException {
+		final File file = write("args", "--s 'foo bar'\n# comment --x\n\"a\\\"b\\nc\"  ''\n\t\u00e9t\u00e9\n");
+		final List<String> tokens = collect(new OptionableArguments(new String[] {"-v", "@" + file, "last"}));
+		assertEquals(Arrays.asList("-v", "--s", "foo bar", "a\"b\nc", "", "\u00e9t\u00e9", "last"), tokens);
+	}
+
+	/** Test nested files and escaped prefix. **/
+	@Test
+	public void testNested() throws IOException {
+		final File inner = write("inner", "b c");
+		final File outer = write("outer", "a @" + inner + " d");
+		final List<String> tokens = collect(new OptionableArguments(new String[] {"@" + outer, "@@e", "@"}));
+		assertEquals(Arrays.asList("a", "b", "c", "d", "@e", "@"), tokens);
+	}
+
+	/** Test tokens spanning several mapped windows. **/
+	@Test
+	public void testWindows() throws IOException {
+		final StringBuilder builder = new StringBuilder();
+		final List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			builder.append("token").append(i).append(' ');
+			expected.add("token" + i);
+		}
+		final File file = write("large", builder.toString());
+		assertEquals(expected, collect(new OptionableArguments(new String[] {"@" + file}, 7)));
+	}
+
+	/** Test recursive file detection. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecursive() throws IOException {
+		final File file = folder.newFile("recursive");
+		Files.write(file.toPath(), ("@" + file).getBytes(StandardCharsets.UTF_8));
+		collect(new OptionableArguments(new String[] {"@" + file}));
+	}
+
+	/** Test missing file. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testMissing() {
+		collect(new OptionableArguments(new String[] {"@" + new File(folder.getRoot(), "missing")}));
+	}
+
+	/** Test unterminated quote. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnterminated() throws IOException {
+		collect(new OptionableArguments(new String[] {"@" + write("quote", "'foo")}));
+	}
+
+	/** Test reading tokens from standard input, through a buffer smaller than the input. **/
+	@Test
+	public void testStandardInput() {
+		final StringBuilder builder = new StringBuilder("'first token'");
+		for (int i = 0; i < 20000; i++) {
+			builder.append(' ').append(i);
+		}
+		final InputStream input = System.in;
+		System.setIn(new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8)));
+		try {
+			final List<String> tokens = collect(new OptionableArguments(new String[] {"-v", "@-", "last"}));
+			assertEquals(20003, tokens.size());
+			assertEquals(Arrays.asList("-v", "first token", "0"), tokens.subList(0, 3));
+			assertEquals(Arrays.asList("19999", "last"), tokens.subList(20001, 20003));
+		}
+		finally {
+			System.setIn(input);
+		}
+	}
+
+	/** Test bootstrapping container from an argument file. **/
+	@Test
+	public void testBootstrap() throws IOException {
+		final OptionableContainerTest.MyOptionableContainer container = new OptionableContainerTest.MyOptionableContainer();
+		container.setArgumentFiles(true);
+		assertTrue(container.bootstrap(new String[] {"@" + write("container", "--s \"" + OptionableContainerTest.STRING + "\"")}));
+		assertEquals(OptionableContainerTest.STRING, container.s);
+	}
+
+}
@@ -0,0 +1,197 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableBinder} generation.
+ * 
+ * @author fv
+ */
+public final class OptionableBinderTest {
+
+	/** String value to be tested. **/
+	private static final String STRING = "Foo";
+
+	/** Integer value to be tested. **/
+	private static final int INTEGER = 1;
+
+	/** Double value to be tested. **/
+	private static final double DOUBLE = 4;
+
+	/** Command line sample to use for testing. **/
+	private static final String [] ARGS = new String[] {
+		"--i", String.valueOf(INTEGER),
+		"--d", String.valueOf(DOUBLE),
+		"--s", STRING,
+		"--p", STRING,
+		"--flag",
+	};
+
+	/**
+	 * {@link OptionableContainer} implementation with bindable fields.
+	 * 
+	 * @author fv
+	 */
+	static class MyBoundContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable
+		int i;
+
+		/** Double parameter testing. **/
+		@Optionable
+		Double d;
+
+		/** String parameter testing. **/
+		@Optionable
+		String s;
+
+		/** Private parameter testing, left to reflection. **/
+		@Optionable
+		private String p;
+
+		/** Flag parameter testing. **/
+		@Optionable
+		boolean flag;
+
+	}
+
+	/**
+	 * {@link OptionableContainer} implementation with bindable fields
+	 * whose converters are overridden by services.
+	 * 
+	 * @author fv
+	 */
+	static class MyOverriddenContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable
+		int i;
+
+		/** Integer array parameter testing. **/
+		@Optionable
+		int [] a;
+
+		/** String parameter testing. **/
+		@Optionable
+		String s;
+
+	}
+
+	/**
+	 * Service converter parsing hexadecimal integers.
+	 * 
+	 * @author fv
+	 */
+	public static final class HexadecimalConverter implements OptionableValueConverter<Integer> {
+
+		/** {@inheritDoc} **/
+		@Override
+		public Class<Integer> getType() {
+			return Integer.TYPE;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public Integer convert(final String value) {
+			return Integer.valueOf(value, 16);
+		}
+
+	}
+
+	/**
+	 * Service converter upper casing strings.
+	 * 
+	 * @author fv
+	 */
+	public static final class UpperCaseConverter implements OptionableValueConverter<String> {
+
+		/** {@inheritDoc} **/
+		@Override
+		public Class<String> getType() {
+			return String.class;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public String convert(final String value) {
+			return value.toUpperCase();
+		}
+
+	}
+
+	/** Folder for context class loader services. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/** Target testing container. **/
+	private MyBoundContainer container;
+
+	/** Test fixture. **/
+	@Before
+	public void setUp() {
+		container = new MyBoundContainer();
+	}
+
+	/** Test binder has been generated. **/
+	@Test
+	public void testGenerated() throws ReflectiveOperationException {
+		final Class<?> type = Class.forName(MyBoundContainer.class.getName() + OptionableBinder.SUFFIX);
+		final OptionableBinder binder = (OptionableBinder) type.getConstructor().newInstance();
+		assertEquals(0, binder.indexOf("i"));
+		assertEquals(-1, binder.indexOf("p"));
+		binder.bind(container, binder.indexOf("s"), STRING);
+		assertEquals(STRING, container.s);
+	}
+
+	/** Test bootstrapping container through binder. **/
+	@Test
+	public void testBootstrap() {
+		assertTrue(container.bootstrap(ARGS));
+		assertEquals(INTEGER, container.i);
+		assertEquals(DOUBLE, container.d, 0.0);
+		assertEquals(STRING, container.s);
+		assertEquals(STRING, container.p);
+		assertTrue(container.flag);
+	}
+
+	/**
+	 * Test service converters take precedence over generated binder.
+	 * 
+	 * @throws IOException If any error occurs while writing the service file.
+	 */
+	@Test
+	public void testOverridden() throws IOException {
+		final Path services = folder.newFolder("META-INF", "services").toPath();
+		final String content = HexadecimalConverter.class.getName() + "\n" + UpperCaseConverter.class.getName() + "\n";
+		Files.write(services.resolve(OptionableValueConverter.class.getName()), content.getBytes(StandardCharsets.UTF_8));
+		final Thread thread = Thread.currentThread();
+		final ClassLoader previous = thread.getContextClassLoader();
+		try (final URLClassLoader loader = new URLClassLoader(new URL[] {folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+			thread.setContextClassLoader(loader);
+			final MyOverriddenContainer overridden = new MyOverriddenContainer();
+			assertTrue(overridden.bootstrap(new String[] {"--i", "ff", "--a", "a,10", "--s", "foo"}));
+			assertEquals(255, overridden.i);
+			assertEquals(2, overridden.a.length);
+			assertEquals(16, overridden.a[1]);
+			assertEquals("FOO", overridden.s);
+		}
+		finally {
+			thread.setContextClassLoader(previous);
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableCommands} class.
+ * 
+ * @author fv
+ */
+public final class OptionableCommandsTest {
+
+	/** Indicates if {@link MyUnusedCommand} has been initialized. **/
+	private static final AtomicBoolean INITIALIZED = new AtomicBoolean();
+
+	/** Last executed greeting. **/
+	private static String greeting;
+
+	/**
+	 * Simple {@link Subcommand} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	@Subcommand("greet")
+	static final class MyGreetCommand extends OptionableApplication {
+
+		/** Name parameter testing. **/
+		@Optionable(required = true)
+		private String name;
+
+		/** Default constructor. **/
+		private MyGreetCommand() {
+			super("greet");
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			greeting = "Hello " + name;
+		}
+
+	}
+
+	/**
+	 * Command that should never be loaded by tests.
+	 * 
+	 * @author fv
+	 */
+	static final class MyUnusedCommand extends OptionableContainer {
+
+		static {
+			INITIALIZED.set(true);
+		}
+
+	}
+
+	/** Test commands are read from generated table. **/
+	@Test
+	public void testGeneratedTable() {
+		final OptionableCommands commands = OptionableCommands.load(getClass().getClassLoader());
+		assertTrue(commands.getNames().contains("greet"));
+		assertTrue(commands.bootstrap(new String[] {"greet", "--name", "world"}));
+		assertEquals("Hello world", greeting);
+	}
+
+	/** Test only selected command is loaded. **/
+	@Test
+	public void testLazyLoading() {
+		final OptionableCommands commands = new OptionableCommands()
+			.register("greet", MyGreetCommand.class.getName())
+			.register("unused", OptionableCommandsTest.class.getName() + "$MyUnusedCommand");
+		assertTrue(commands.bootstrap(new String[] {"greet", "-n", "lazy"}));
+		assertEquals("Hello lazy", greeting);
+		assertFalse(INITIALIZED.get());
+	}
+
+	/** Test unknown or missing command. **/
+	@Test
+	public void testUnknownCommand() {
+		final OptionableCommands commands = new OptionableCommands().register("greet", MyGreetCommand::new);
+		assertFalse(commands.bootstrap(new String[] {"foo"}));
+		assertFalse(commands.bootstrap(new String[0]));
+		assertNull(commands.get("foo"));
+	}
+
+	/** Test duplicate command. **/
+	@Test(expected=IllegalStateException.class)
+	public void testDuplicate() {
+		new OptionableCommands()
+			.register("greet", MyGreetCommand::new)
+			.register("greet", MyGreetCommand.class.getName());
+	}
+
+	/** Test command that is not a container. **/
+	@Test(expected=IllegalStateException.class)
+	public void testNotContainer() {
+		new OptionableCommands().register("string", String.class.getName()).get("string");
+	}
+
+}
@@ -0,0 +1,191 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.faylixe.option.OptionableCompletion.Shell;
+
+/**
+ * Test case for {@link OptionableCompletion} class.
+ * 
+ * @author fv
+ */
+public final class OptionableCompletionTest {
+
+	/** Completed program name. **/
+	private static final String PROGRAM = "my-tool";
+
+	/**
+	 * Test enumeration.
+	 * 
+	 * @author fv
+	 */
+	private enum Mode {
+
+		/** First constant. **/
+		FAST,
+
+		/** Second constant. **/
+		SLOW
+
+	}
+
+	/**
+	 * Container with various option kinds.
+	 * 
+	 * @author fv
+	 */
+	private static class MyCompletedContainer extends OptionableContainer {
+
+		/** Flag parameter testing. **/
+		@Optionable(description="Prints [all] details")
+		private boolean all;
+
+		/** Enumeration parameter testing. **/
+		@Optionable
+		private Mode mode;
+
+		/** Path parameter testing. **/
+		@Optionable(shortName="o")
+		private Path output;
+
+		/** Multi valued parameter testing. **/
+		@Optionable
+		private List<String> include;
+
+	}
+
+	/**
+	 * Container with a different schema.
+	 * 
+	 * @author fv
+	 */
+	private static class OtherContainer extends OptionableContainer {
+
+		/** Flag parameter testing. **/
+		@Optionable
+		private boolean all;
+
+	}
+
+	/** Temporary folder for installed scripts. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/** Test generated bash script. **/
+	@Test
+	public void testBash() {
+		final String script = OptionableCompletion.of(MyCompletedContainer.class).generate(Shell.BASH, PROGRAM);
+		assertTrue(script.contains("-a --all -m --mode -o --output -i --include"));
+		assertTrue(script.contains("-m|--mode)\n\t\t\tCOMPREPLY=( $(compgen -W \"FAST SLOW\" -- \"$cur\") )"));
+		assertTrue(script.contains("-o|--output)\n\t\t\tCOMPREPLY=( $(compgen -f -- \"$cur\") )"));
+		assertTrue(script.endsWith("complete -o default -F _my_tool_completion my-tool\n"));
+	}
+
+	/** Test generated zsh script. **/
+	@Test
+	public void testZsh() {
+		final String script = OptionableCompletion.of(MyCompletedContainer.class).generate(Shell.ZSH, PROGRAM);
+		assertTrue(script.startsWith("#compdef my-tool\n"));
+		assertTrue(script.contains("'(-a --all)'{-a,--all}'[Prints \\[all\\] details]'"));
+		assertTrue(script.contains("'(-m --mode)'{-m,--mode}'[Description not provided.]:mode:(FAST SLOW)'"));
+		assertTrue(script.contains("'(-o --output)'{-o,--output}'[Description not provided.]:path:_files'"));
+		assertTrue(script.contains("'*'{-i,--include}'[Description not provided.]:string: '"));
+	}
+
+	/**
+	 * Test bash script completes options and values.
+	 * 
+	 * @throws IOException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testBashCompletion() throws IOException, InterruptedException {
+		final Path script = OptionableCompletion.of(MyCompletedContainer.class).install(Shell.BASH, PROGRAM, folder.getRoot().toPath());
+		assertEquals("FAST", complete(script, "--mode", "F"));
+		assertEquals("--mode", complete(script, "--all", "--mo"));
+	}
+
+	/**
+	 * Runs the given bash completion <tt>script</tt> for the given words.
+	 * 
+	 * @param script Installed completion script.
+	 * @param previous Previous word.
+	 * @param current Word being completed.
+	 * @return Completion replies, separated by spaces.
+	 * @throws IOException If bash cannot be run.
+	 * @throws InterruptedException Not expected.
+	 */
+	private String complete(final Path script, final String previous, final String current) throws IOException, InterruptedException {
+		final String command = String.format(
+				"source '%s'; COMP_WORDS=(%s %s %s); COMP_CWORD=2; _my_tool_completion; echo -n \"${COMPREPLY[*]}\"",
+				script,
+				PROGRAM,
+				previous,
+				current);
+		final Process process;
+		try {
+			process = new ProcessBuilder("bash", "-c", command).redirectErrorStream(true).start();
+		}
+		catch (final IOException e) {
+			Assume.assumeNoException(e);
+			throw e;
+		}
+		final byte [] output = readAll(process);
+		assertEquals(0, process.waitFor());
+		return new String(output, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the whole output of the given <tt>process</tt>.
+	 * 
+	 * @param process Process to read output of.
+	 * @return Read output.
+	 * @throws IOException If the output cannot be read.
+	 */
+	private static byte [] readAll(final Process process) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte [] buffer = new byte[1024];
+		int read;
+		while ((read = process.getInputStream().read(buffer)) >= 0) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Test installed script is only rewritten when schema changes.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testInstall() throws IOException {
+		final Path directory = folder.getRoot().toPath().resolve("completion");
+		final OptionableCompletion completion = OptionableCompletion.of(MyCompletedContainer.class);
+		final Path script = completion.install(Shell.ZSH, PROGRAM, directory);
+		assertEquals("_" + PROGRAM, script.getFileName().toString());
+		Files.write(script, ("#compdef my-tool\n# optionable schema " + completion.getHash() + "\n").getBytes(StandardCharsets.UTF_8));
+		completion.install(Shell.ZSH, PROGRAM, directory);
+		assertEquals(2, Files.readAllLines(script).size());
+		final OptionableCompletion other = OptionableCompletion.of(OtherContainer.class);
+		assertNotEquals(completion.getHash(), other.getHash());
+		other.install(Shell.ZSH, PROGRAM, directory);
+		assertEquals(other.generate(Shell.ZSH, PROGRAM), new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+		assertEquals(1, new File(directory.toString()).list().length);
+	}
+
+}
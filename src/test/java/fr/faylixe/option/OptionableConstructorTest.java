@@ -0,0 +1,231 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableConstructor} class.
+ * 
+ * @author fv
+ */
+public final class OptionableConstructorTest {
+
+	/** String value to be tested. **/
+	private static final String STRING = "Foo";
+
+	/** Source of the record tested when a compiler is available. **/
+	private static final String RECORD = "package sample;\n"
+			+ "import fr.faylixe.option.Optionable;\n"
+			+ "public record Settings(@Optionable(shortName=\"n\", required=true) String name, int count, boolean verbose) {}\n";
+
+	/**
+	 * Immutable option holder with constructor injection.
+	 * 
+	 * @author fv
+	 */
+	private static final class Immutable {
+
+		/** String parameter testing. **/
+		private final String name;
+
+		/** Integer parameter testing. **/
+		private final int count;
+
+		/** Multi valued parameter testing. **/
+		private final List<String> tags;
+
+		/** Not an option, kept to its default. **/
+		private final Object ignored;
+
+		/**
+		 * Option constructor.
+		 * 
+		 * @param name String parameter testing.
+		 * @param count Integer parameter testing.
+		 * @param tags Multi valued parameter testing.
+		 * @param ignored Not an option.
+		 */
+		private Immutable(
+				@Optionable(longName="name", required=true) final String name,
+				@Optionable(longName="count") final int count,
+				@Optionable(longName="tags") final List<String> tags,
+				final Object ignored) {
+			this.name = name;
+			this.count = count;
+			this.tags = tags;
+			this.ignored = ignored;
+		}
+
+	}
+
+	/**
+	 * Mutable option holder created through its no argument constructor.
+	 * 
+	 * @author fv
+	 */
+	private static final class Mutable {
+
+		/** String parameter testing. **/
+		@Optionable
+		private String name;
+
+	}
+
+	/**
+	 * Container with constructor injection.
+	 * 
+	 * @author fv
+	 */
+	private static final class InjectedContainer extends OptionableContainer {
+
+		/** String parameter testing. **/
+		private final String name;
+
+		/**
+		 * Option constructor.
+		 * 
+		 * @param name String parameter testing.
+		 */
+		private InjectedContainer(@Optionable(longName="name") final String name) {
+			this.name = name;
+		}
+
+	}
+
+	/** Temporary folder for compiled record. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Test constructor injection.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testConstructor() throws IllegalAccessException {
+		final Immutable immutable = OptionableSchema.create(Immutable.class, "--name", STRING, "-c", "3", "--tags", "a,b");
+		assertEquals(STRING, immutable.name);
+		assertEquals(3, immutable.count);
+		assertEquals(Arrays.asList("a", "b"), immutable.tags);
+		assertNull(immutable.ignored);
+		assertEquals(3, OptionableSchema.of(Immutable.class).getFields().size());
+	}
+
+	/**
+	 * Test not provided constructor options keep their default.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testDefaults() throws IllegalAccessException {
+		final Immutable immutable = OptionableSchema.create(Immutable.class, "-n", STRING);
+		assertEquals(0, immutable.count);
+		assertNull(immutable.tags);
+	}
+
+	/**
+	 * Test missing required constructor option.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testRequired() throws IllegalAccessException {
+		OptionableSchema.create(Immutable.class, "--count", "1");
+	}
+
+	/**
+	 * Test constructor options cannot be bound into an existing instance.
+	 * 
+	 * @throws IllegalAccessException Expected.
+	 */
+	@Test(expected=IllegalAccessException.class)
+	public void testBind() throws IllegalAccessException {
+		final Immutable immutable = OptionableSchema.create(Immutable.class, "--name", STRING);
+		OptionableSchema.of(Immutable.class).bind(new String[] {"--name", STRING}, immutable);
+	}
+
+	/**
+	 * Test creation through no argument constructor.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testMutable() throws IllegalAccessException {
+		assertEquals(STRING, OptionableSchema.create(Mutable.class, "--name", STRING).name);
+	}
+
+	/**
+	 * Test record creation, compiling a record when the running JDK supports it.
+	 * 
+	 * @throws Exception Not expected.
+	 */
+	@Test
+	public void testRecord() throws Exception {
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeTrue(compiler != null && OptionableConstructorTest.class.getClassLoader().loadClass("java.lang.Record") != null);
+		final Path source = folder.newFolder("sample").toPath().resolve("Settings.java");
+		Files.write(source, RECORD.getBytes(StandardCharsets.UTF_8));
+		final String classpath = System.getProperty("java.class.path");
+		final int result = compiler.run(null, null, null, "-proc:none", "-cp", classpath, "-d", folder.getRoot().toString(), source.toString());
+		assertEquals(0, result);
+		try (final URLClassLoader loader = new URLClassLoader(new URL[] {folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+			final Class<?> type = loader.loadClass("sample.Settings");
+			final Object settings = OptionableSchema.create(type, "-n", STRING, "--count", "2", "--verbose");
+			assertEquals(STRING, type.getMethod("name").invoke(settings));
+			assertEquals(2, type.getMethod("count").invoke(settings));
+			assertEquals(true, type.getMethod("verbose").invoke(settings));
+			assertTrue(OptionableSchema.of(type).getFields().get(0).isRequired());
+		}
+	}
+
+	/**
+	 * Test constructor options are rejected by Commons CLI engine.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test(expected=IllegalStateException.class)
+	public void testCommonsCli() throws IllegalAccessException {
+		final InjectedContainer container = new InjectedContainer(null);
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+		container.bind(new String[] {"--name", STRING});
+	}
+
+	/**
+	 * Test constructor options are rejected when copied.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test(expected=IllegalStateException.class)
+	public void testCopy() throws IllegalAccessException {
+		OptionableSchema.of(InjectedContainer.class).getFields().get(0).copy(new InjectedContainer(STRING), new InjectedContainer(null));
+	}
+
+	/**
+	 * Test constructor options are rejected by reloader.
+	 * 
+	 * @throws Exception Not expected.
+	 */
+	@Test(expected=IllegalStateException.class)
+	public void testReloader() throws Exception {
+		final Path file = folder.newFile("reloaded").toPath();
+		OptionableReloader.watch(() -> new InjectedContainer(null), new String[0], file).close();
+	}
+
+}
@@ -87,6 +87,18 @@ public final class OptionableContainerTest {
 		assertEquals(STRING, container.s);
 	}
 
+	/** Test bootstrapping container with legacy engine. **/
+	@Test
+	public void testLegacyBootstrap() {
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+		assertTrue(container.bootstrap(ARGS));
+		assertEquals(INTEGER, container.i);
+		assertEquals(FLOAT, container.f, 0.0);
+		assertEquals(LONG, container.l);
+		assertEquals(DOUBLE, container.d, 0.0);
+		assertEquals(STRING, container.s);
+	}
+
 	/** Test bootstrapping with missing parameter. **/
 	public void testNotValidBootstrap() {
 		assertFalse(container.bootstrap(new String[]{}));
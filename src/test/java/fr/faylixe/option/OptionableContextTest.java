@@ -0,0 +1,77 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableContext} class.
+ * 
+ * @author fv
+ */
+public final class OptionableContextTest {
+
+	/** Working directory of the tested context. **/
+	private static final Path DIRECTORY = Paths.get("/srv/client").toAbsolutePath();
+
+	/**
+	 * Test fixture cleanup.
+	 */
+	@After
+	public void tearDown() {
+		OptionableContext.exit();
+	}
+
+	/**
+	 * Enters a context with the tested working directory.
+	 */
+	private static void enter() {
+		OptionableContext.enter(new OptionableContext(DIRECTORY, Collections.singletonMap("USER", "client")));
+	}
+
+	/** Test process values are used outside of any context. **/
+	@Test
+	public void testProcess() {
+		assertFalse(OptionableContext.isEntered());
+		assertEquals(Paths.get("").toAbsolutePath(), OptionableContext.getWorkingDirectory());
+		assertEquals(System.getenv(), OptionableContext.getEnvironment());
+		final Path relative = Paths.get("a.txt");
+		assertSame(relative, OptionableContext.resolve(relative));
+	}
+
+	/** Test context values are used once entered. **/
+	@Test
+	public void testEntered() {
+		enter();
+		assertTrue(OptionableContext.isEntered());
+		assertEquals(DIRECTORY, OptionableContext.getWorkingDirectory());
+		assertEquals("client", OptionableContext.getEnvironment().get("USER"));
+	}
+
+	/** Test relative paths and files are resolved against the context directory. **/
+	@Test
+	public void testResolve() {
+		enter();
+		assertEquals(DIRECTORY.resolve("a.txt"), OptionableValueFactories.getConverter(Path.class).apply("a.txt"));
+		assertEquals(DIRECTORY.resolve("b.txt").toFile(), OptionableValueFactories.getConverter(File.class).apply("b.txt"));
+		final Path absolute = DIRECTORY.getRoot().resolve("etc");
+		assertEquals(absolute, OptionableValueFactories.getConverter(Path.class).apply(absolute.toString()));
+	}
+
+	/** Test standard input is not read within a context. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testStandardInput() {
+		enter();
+		new OptionableArguments(new String[] {"@-"}).next();
+	}
+
+}
@@ -0,0 +1,111 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableConversionCache} class.
+ * 
+ * @author fv
+ */
+public final class OptionableConversionCacheTest {
+
+	/** Test hit and miss statistics. **/
+	@Test
+	public void testStatistics() {
+		final AtomicInteger conversions = new AtomicInteger();
+		final Function<String, Object> converter = value -> {
+			conversions.incrementAndGet();
+			return new StringBuilder(value).toString();
+		};
+		final OptionableConversionCache cache = new OptionableConversionCache(8);
+		final Object first = cache.get(converter, "foo");
+		assertSame(first, cache.get(converter, "foo"));
+		assertEquals(1, conversions.get());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.size());
+		cache.clear();
+		assertNotSame(first, cache.get(converter, "foo"));
+		assertEquals(2, cache.getMissCount());
+	}
+
+	/** Test least recently used entry is evicted. **/
+	@Test
+	public void testEviction() {
+		final Function<String, Object> converter = value -> new StringBuilder(value).toString();
+		final OptionableConversionCache cache = new OptionableConversionCache(1);
+		final Object foo = cache.get(converter, "foo");
+		cache.get(converter, "bar");
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.size());
+		assertNotSame(foo, cache.get(converter, "foo"));
+	}
+
+	/** Test keys are distinct per converter. **/
+	@Test
+	public void testConverterKey() {
+		final OptionableConversionCache cache = new OptionableConversionCache(16);
+		assertEquals("FOO", cache.get(String::toUpperCase, "Foo"));
+		assertEquals("foo", cache.get(String::toLowerCase, "Foo"));
+	}
+
+	/**
+	 * Test concurrent lookups.
+	 * 
+	 * @throws Exception Not expected.
+	 */
+	@Test
+	public void testConcurrency() throws Exception {
+		final Function<String, Object> converter = Integer::valueOf;
+		final OptionableConversionCache cache = new OptionableConversionCache(64);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Future<?> [] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(() -> {
+					for (int j = 0; j < 10000; j++) {
+						assertEquals(j % 100, cache.get(converter, String.valueOf(j % 100)));
+					}
+				});
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(40000, cache.getHitCount() + cache.getMissCount());
+		assertTrue(cache.size() <= 64);
+	}
+
+	/** Test built-in immutable converters go through enabled cache. **/
+	@Test
+	public void testFactories() {
+		final OptionableConversionCache cache = new OptionableConversionCache(16);
+		OptionableValueFactories.setConversionCache(cache);
+		try {
+			final Function<String, ?> converter = OptionableValueFactories.getConverter(Pattern.class);
+			assertSame(converter.apply("a+"), converter.apply("a+"));
+			assertEquals(1, cache.getHitCount());
+			assertEquals("a", OptionableValueFactories.getConverter(String.class).apply("a"));
+			assertEquals(1, cache.size());
+		}
+		finally {
+			OptionableValueFactories.setConversionCache(null);
+		}
+	}
+
+}
@@ -0,0 +1,300 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableDaemon} class.
+ * 
+ * @author fv
+ */
+public final class OptionableDaemonTest {
+
+	/** Test application usage. **/
+	private static final String USAGE = "foo";
+
+	/** Exit code reported by test application. **/
+	private static final int EXIT_CODE = 3;
+
+	/** Source of the native client. **/
+	private static final File CLIENT_SOURCE = new File("client/optionable-client.c");
+
+	/**
+	 * Application which greets its name option.
+	 * 
+	 * @author fv
+	 */
+	public static final class GreetingApplication extends OptionableApplication {
+
+		/** Name to greet. **/
+		@Optionable(required=true)
+		private String name;
+
+		/** File to greet from. **/
+		@Optionable
+		private Path file;
+
+		/** Default constructor. **/
+		public GreetingApplication() {
+			super(USAGE);
+			addSource(OptionableSource.ofEnvironment("GREETING_"));
+			setArgumentFiles(true);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			System.out.print("hello " + name + (file == null ? "" : " from " + file));
+			System.err.print(OptionableDaemon.getWorkingDirectory().getFileName());
+			setExitCode(EXIT_CODE);
+		}
+
+	}
+
+	/**
+	 * Application whose path options are converted on a pool or lazily.
+	 * 
+	 * @author fv
+	 */
+	public static final class DeferredApplication extends OptionableApplication {
+
+		/** Pool options are converted on. **/
+		private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+		/** Path converted on the pool. **/
+		@Optionable
+		private Path pooled;
+
+		/** Path converted on first access. **/
+		@Optionable
+		private Lazy<Path> deferred;
+
+		/** Path converted on the request thread. **/
+		@Optionable
+		private Path last;
+
+		/** Default constructor. **/
+		public DeferredApplication() {
+			super(USAGE);
+			setConversionPool(POOL);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			System.out.print(pooled + " " + CompletableFuture.supplyAsync(deferred::get).join() + " " + last);
+		}
+
+	}
+
+	/** Temporary folder holding socket file. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/** Path of the socket file. **/
+	private Path socket;
+
+	/** Tested daemon. **/
+	private OptionableDaemon daemon;
+
+	/**
+	 * Test fixture, skipped on runtimes without Unix domain sockets.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		socket = folder.getRoot().toPath().resolve("daemon.sock");
+		try {
+			daemon = OptionableDaemon.start(socket, GreetingApplication.class);
+		}
+		catch (final UnsupportedOperationException e) {
+			Assume.assumeNoException(e);
+		}
+	}
+
+	/**
+	 * Test fixture cleanup.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@After
+	public void tearDown() throws IOException {
+		if (daemon != null) {
+			daemon.close();
+			assertFalse(Files.exists(socket));
+		}
+	}
+
+	/**
+	 * Runs the daemon application.
+	 * 
+	 * @param environment Client environment.
+	 * @param out Stream to write standard output into.
+	 * @param err Stream to write standard error into.
+	 * @param args Command line parameters.
+	 * @return Exit code.
+	 * @throws IOException Not expected.
+	 */
+	private int run(
+			final Map<String, String> environment,
+			final ByteArrayOutputStream out,
+			final ByteArrayOutputStream err,
+			final String... args) throws IOException {
+		return OptionableDaemonClient.run(socket, args, folder.getRoot().toPath(), environment, out, err);
+	}
+
+	/**
+	 * Test request with command line arguments.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testRun() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(EXIT_CODE, run(Collections.emptyMap(), out, err, "--name", "world"));
+		assertEquals("hello world", new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(folder.getRoot().getName(), new String(err.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test request resolving option from client environment.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testEnvironment() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(EXIT_CODE, run(Collections.singletonMap("GREETING_NAME", "env"), out, err));
+		assertEquals("hello env", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test request with not valid arguments.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testUsageError() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(OptionableResult.EXIT_USAGE, run(Collections.emptyMap(), out, err));
+		assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).startsWith(OptionableContainer.PARSING_ERROR));
+		assertTrue(out.size() > 0);
+	}
+
+	/**
+	 * Test socket file is only accessible to its owner.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testPermissions() throws IOException {
+		Assume.assumeTrue(Files.getFileStore(socket).supportsFileAttributeView(PosixFileAttributeView.class));
+		assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket)));
+		assertEquals(1, folder.getRoot().list().length);
+	}
+
+	/**
+	 * Test relative paths are resolved against the client working directory.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testRelativePath() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(EXIT_CODE, run(Collections.emptyMap(), out, err, "--name", "world", "--file", "a.txt"));
+		final Path expected = folder.getRoot().toPath().resolve("a.txt");
+		assertEquals("hello world from " + expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test relative paths converted on a pool, or lazily on another thread,
+	 * are resolved against the client working directory.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testDeferredRelativePath() throws IOException {
+		final Path deferredSocket = folder.getRoot().toPath().resolve("deferred.sock");
+		try (final OptionableDaemon deferredDaemon = OptionableDaemon.start(deferredSocket, DeferredApplication.class)) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final ByteArrayOutputStream err = new ByteArrayOutputStream();
+			final String [] args = {"--pooled", "a", "--deferred", "b", "--last", "c"};
+			final Path directory = folder.getRoot().toPath();
+			assertEquals(0, OptionableDaemonClient.run(deferredSocket, args, directory, Collections.emptyMap(), out, err));
+			final String expected = directory.resolve("a") + " " + directory.resolve("b") + " " + directory.resolve("c");
+			assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Test daemon standard input is not read on behalf of clients.
+	 * 
+	 * @throws IOException Not expected.
+	 */
+	@Test
+	public void testStandardInput() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream err = new ByteArrayOutputStream();
+		assertEquals(OptionableResult.EXIT_USAGE, run(Collections.emptyMap(), out, err, "--name", "world", "@-"));
+		assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).startsWith(OptionableContainer.PARSING_ERROR));
+	}
+
+	/**
+	 * Test the native client against the daemon, if a C compiler is available.
+	 * 
+	 * @throws IOException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testNativeClient() throws IOException, InterruptedException {
+		Assume.assumeTrue(CLIENT_SOURCE.isFile());
+		final File client = new File(folder.getRoot(), "optionable-client");
+		final Process compiler;
+		try {
+			compiler = new ProcessBuilder("cc", "-O2", "-o", client.toString(), CLIENT_SOURCE.toString()).inheritIO().start();
+		}
+		catch (final IOException e) {
+			Assume.assumeNoException(e);
+			return;
+		}
+		assertTrue(compiler.waitFor(1, TimeUnit.MINUTES));
+		assertEquals(0, compiler.exitValue());
+		final File out = folder.newFile("out");
+		final Process process = new ProcessBuilder(client.toString(), socket.toString(), "--name", "native", "--file", "a.txt")
+				.directory(folder.getRoot())
+				.redirectOutput(out)
+				.start();
+		assertTrue(process.waitFor(1, TimeUnit.MINUTES));
+		assertEquals(EXIT_CODE, process.exitValue());
+		final Path expected = folder.getRoot().toPath().toRealPath().resolve("a.txt");
+		assertEquals("hello native from " + expected, new String(Files.readAllBytes(out.toPath()), StandardCharsets.UTF_8));
+	}
+
+}
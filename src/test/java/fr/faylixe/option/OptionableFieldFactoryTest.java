@@ -2,6 +2,7 @@ package fr.faylixe.option;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -118,4 +119,36 @@ public final class OptionableFieldFactoryTest {
 		assertEquals(2, fields.size());
 	}
 
+	/** Testing cached resolution shares parent fields. **/
+	@Test
+	public void testCachedFields() {
+		final Class<?> type = new OptionableApplication(USAGE) {
+			@Optionable
+			private String s;
+			@Override
+			public void run() {
+			}
+		}.getClass();
+		final List<OptionableField> fields = OptionableFieldFactory.getOptionableFields(type);
+		assertEquals(2, fields.size());
+		assertSame(fields, OptionableFieldFactory.getOptionableFields(type));
+		final List<OptionableField> parents = OptionableFieldFactory.getOptionableFields(OptionableApplication.class);
+		assertEquals(1, parents.size());
+		assertSame(parents.get(0), fields.get(0));
+	}
+
+	/** Testing cached resolution reports naming conflict. **/
+	@Test(expected=IllegalStateException.class)
+	public void testCachedConflict() {
+		OptionableFieldFactory.getOptionableFields(new OptionableApplication(USAGE) {
+			/** Conflict with verbose : Short name error. **/
+			@Optionable(shortName="v")
+			private String foo;
+			@Override
+			public void run() {
+				// Do nothing.
+			}
+		}.getClass());
+	}
+
 }
@@ -34,6 +34,18 @@ public final class OptionableFieldTest {
 	/** Option description. **/
 	private static final String DESC = "foo";
 
+	/**
+	 * Container with a primitive field, bound through reflection.
+	 * 
+	 * @author fv
+	 */
+	private static class PrimitiveContainer {
+
+		/** Integer parameter testing. **/
+		private int i;
+
+	}
+
 	/** Target tested field. **/
 	private OptionableField field;
 
@@ -95,4 +107,30 @@ public final class OptionableFieldTest {
 		}
 	}
 
+	/** Test primitive field validation through its writer. **/
+	@Test
+	public void testPrimitiveBinding() throws NoSuchFieldException, IllegalAccessException {
+		final OptionableField primitive = new OptionableField(
+				PrimitiveContainer.class.getDeclaredField("i"),
+				"i",
+				"i",
+				DESC,
+				false);
+		final PrimitiveContainer container = new PrimitiveContainer();
+		primitive.bind(container, "42");
+		assertEquals(42, container.i);
+	}
+
+	/** Test primitive field validation with not valid value. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testPrimitiveBindingError() throws NoSuchFieldException, IllegalAccessException {
+		final OptionableField primitive = new OptionableField(
+				PrimitiveContainer.class.getDeclaredField("i"),
+				"i",
+				"i",
+				DESC,
+				false);
+		primitive.bind(new PrimitiveContainer(), "foo");
+	}
+
 }
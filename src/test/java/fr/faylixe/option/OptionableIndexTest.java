@@ -0,0 +1,155 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableIndex} class.
+ * 
+ * @author fv
+ */
+public final class OptionableIndexTest {
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyIndexedContainer extends OptionableApplication {
+
+		/** Integer array parameter testing. **/
+		@Optionable(shortName = "i", description = "Integers")
+		private int [] integers;
+
+		/** Generic parameter testing. **/
+		@Optionable(longName = "names", required = true, separator = ";")
+		private List<String> list;
+
+		/** Nested array parameter testing. **/
+		@Optionable(shortName = "m")
+		private String [][] matrix;
+
+		/** Default constructor. **/
+		MyIndexedContainer() {
+			super("indexed");
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			// Do nothing.
+		}
+
+	}
+
+	/**
+	 * Creates an index entry for testing.
+	 * 
+	 * @param name Field name.
+	 * @param type Field type name.
+	 * @return Created entry.
+	 */
+	private static OptionableIndex.Entry entry(final String name, final String type) {
+		return new OptionableIndex.Entry(name, type, name.substring(0, 1), name, "", false);
+	}
+
+	/** Test index generated at build time. **/
+	@Test
+	public void testGenerated() {
+		final OptionableIndex index = OptionableIndex.read(MyIndexedContainer.class);
+		assertNotNull(index);
+		assertEquals(OptionableApplication.class.getName(), index.getSuperclass());
+		final List<OptionableIndex.Entry> entries = index.getEntries();
+		assertEquals(3, entries.size());
+		assertEquals("integers", entries.get(0).getName());
+		assertEquals("[I", entries.get(0).getType());
+		assertEquals("i", entries.get(0).getShortName());
+		assertEquals("Integers", entries.get(0).getDescription());
+		assertEquals("java.util.List", entries.get(1).getType());
+		assertEquals("l", entries.get(1).getShortName());
+		assertEquals("names", entries.get(1).getLongName());
+		assertTrue(entries.get(1).isRequired());
+		assertEquals(",", entries.get(0).getSeparator());
+		assertEquals(";", entries.get(1).getSeparator());
+		assertEquals("[[Ljava.lang.String;", entries.get(2).getType());
+		assertEquals(OptionableIndex.signature(MyIndexedContainer.class), index.getSignature());
+		assertNull(OptionableIndex.read(OptionableContainer.class));
+	}
+
+	/** Test schema built from index matches reflection. **/
+	@Test
+	public void testSchema() {
+		final List<OptionableField> indexed = OptionableFieldFactory.getOptionableFields(MyIndexedContainer.class);
+		final List<OptionableField> reflected = new OptionableFieldFactory().create(MyIndexedContainer.class);
+		assertEquals(reflected.size(), indexed.size());
+		for (int i = 0; i < reflected.size(); i++) {
+			assertEquals(reflected.get(i).getShortName(), indexed.get(i).getShortName());
+			assertEquals(reflected.get(i).getLongName(), indexed.get(i).getLongName());
+			assertEquals(reflected.get(i).getDescription(), indexed.get(i).getDescription());
+			assertEquals(reflected.get(i).isRequired(), indexed.get(i).isRequired());
+		}
+		final MyIndexedContainer container = new MyIndexedContainer();
+		assertTrue(container.bootstrap(new String[] {"-i", "1,2", "--names", "a,b;c", "-v"}));
+		assertEquals(Arrays.asList("a,b", "c"), container.list);
+		assertTrue(container.isVerbose());
+	}
+
+	/** Test binary format round trip. **/
+	@Test
+	public void testRoundTrip() throws IOException {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		new OptionableIndex("java.lang.Object", 42, Arrays.asList(entry("foo", "int"))).write(stream);
+		final OptionableIndex index = OptionableIndex.read(new ByteArrayInputStream(stream.toByteArray()));
+		assertEquals("java.lang.Object", index.getSuperclass());
+		assertEquals(42, index.getSignature());
+		assertEquals("foo", index.getEntries().get(0).getName());
+		assertEquals("int", index.getEntries().get(0).getType());
+	}
+
+	/** Test not valid index. **/
+	@Test(expected=IOException.class)
+	public void testNotValid() throws IOException {
+		OptionableIndex.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+	}
+
+	/** Test stale index is detected. **/
+	@Test
+	public void testStale() {
+		final String parent = OptionableApplication.class.getName();
+		final Class<?> type = MyIndexedContainer.class;
+		final int signature = OptionableIndex.signature(type);
+		final List<OptionableIndex.Entry> entries = OptionableIndex.read(type).getEntries();
+		assertNull(new OptionableFieldFactory().createIndexed(type, null));
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex("java.lang.Object", signature, entries)));
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature, Arrays.asList(entry("missing", "int")))));
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature, Arrays.asList(entry("integers", "int")))));
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature, Arrays.asList(entry("integers", "[I"), entry("integers", "[I")))));
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature + 1, entries)));
+		assertEquals(3, new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature, entries)).size());
+	}
+
+	/** Test index built before a field was added is detected. **/
+	@Test
+	public void testAddedField() throws NoSuchFieldException {
+		final String parent = OptionableApplication.class.getName();
+		final Class<?> type = MyIndexedContainer.class;
+		final List<OptionableIndex.Entry> entries = OptionableIndex.read(type).getEntries().subList(0, 2);
+		int signature = 0;
+		for (final OptionableIndex.Entry entry : entries) {
+			signature += OptionableIndex.signature(entry.getName(), type.getDeclaredField(entry.getName()).getAnnotation(Optionable.class));
+		}
+		assertNull(new OptionableFieldFactory().createIndexed(type, new OptionableIndex(parent, signature, entries)));
+		assertEquals(3, OptionableFieldFactory.getOptionableFields(type).size() - OptionableFieldFactory.getOptionableFields(OptionableApplication.class).size());
+	}
+
+}
@@ -0,0 +1,138 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableLauncher} class.
+ * 
+ * @author fv
+ */
+public final class OptionableLauncherTest {
+
+	/** Test application usage. **/
+	private static final String USAGE = "foo";
+
+	/** Exit code set by failing applications. **/
+	private static final int EXIT_CODE = 42;
+
+	/**
+	 * Application which exits with a custom code depending on its option.
+	 * 
+	 * @author fv
+	 */
+	public static final class ExitApplication extends OptionableApplication {
+
+		/** Exit code to report. **/
+		@Optionable(required=true)
+		private int code;
+
+		/** Default constructor. **/
+		public ExitApplication() {
+			super(USAGE);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			setExitCode(code);
+		}
+
+	}
+
+	/**
+	 * Application which fails while running.
+	 * 
+	 * @author fv
+	 */
+	public static final class FailingApplication extends OptionableApplication {
+
+		/** Default constructor. **/
+		public FailingApplication() {
+			super(USAGE);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			throw new IllegalStateException();
+		}
+
+	}
+
+	/**
+	 * Application without no argument constructor.
+	 * 
+	 * @author fv
+	 */
+	public static final class InvalidApplication extends OptionableApplication {
+
+		/**
+		 * Default constructor.
+		 * 
+		 * @param usage Application usage.
+		 */
+		public InvalidApplication(final String usage) {
+			super(usage);
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			// Do nothing.
+		}
+
+	}
+
+	/**
+	 * Test batch launching with structured failures, in submission order.
+	 * 
+	 * @throws ExecutionException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testLaunch() throws InterruptedException, ExecutionException {
+		final List<OptionableResult> results = new OptionableLauncher()
+				.add(ExitApplication.class, "--code", "0")
+				.add(ExitApplication.class, "--code", String.valueOf(EXIT_CODE))
+				.add(ExitApplication.class)
+				.add(FailingApplication.class)
+				.add(InvalidApplication.class)
+				.launch()
+				.get();
+		assertEquals(5, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertEquals(EXIT_CODE, results.get(1).getExitCode());
+		assertFalse(results.get(1).isSuccess());
+		assertNull(results.get(1).getFailure());
+		assertEquals(OptionableResult.EXIT_USAGE, results.get(2).getExitCode());
+		assertEquals(OptionableResult.EXIT_FAILURE, results.get(3).getExitCode());
+		assertTrue(results.get(3).getFailure() instanceof IllegalStateException);
+		assertNull(results.get(4).getApplication());
+		assertEquals(OptionableResult.EXIT_FAILURE, results.get(4).getExitCode());
+	}
+
+	/**
+	 * Test launching with a caller provided executor.
+	 * 
+	 * @throws ExecutionException Not expected.
+	 * @throws InterruptedException Not expected.
+	 */
+	@Test
+	public void testLaunchExecutor() throws InterruptedException, ExecutionException {
+		final List<OptionableResult> results = new OptionableLauncher(Runnable::run)
+				.add(ExitApplication.class, "--code", String.valueOf(EXIT_CODE))
+				.launch()
+				.get();
+		assertEquals(1, results.size());
+		assertEquals(EXIT_CODE, results.get(0).getExitCode());
+	}
+
+}
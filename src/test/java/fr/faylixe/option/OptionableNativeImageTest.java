@@ -0,0 +1,107 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Smoke test that builds {@link NativeSampleApplication} with the
+ * local GraalVM <tt>native-image</tt> toolchain, relying on generated
+ * reachability metadata only. Skipped if the toolchain is not available.
+ * 
+ * @author fv
+ */
+public final class OptionableNativeImageTest {
+
+	/** Maximum time allowed for building the image, in minutes. **/
+	private static final long BUILD_TIMEOUT = 15;
+
+	/** Maximum startup time expected from the native executable, in milliseconds. **/
+	private static final long STARTUP_LIMIT = 500;
+
+	/** Temporary folder for the built image. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Locates the <tt>native-image</tt> executable.
+	 * 
+	 * @return Located executable, <tt>null</tt> if not found.
+	 */
+	private static File findNativeImage() {
+		final String home = System.getenv("GRAALVM_HOME");
+		if (home != null) {
+			final File executable = new File(home, "bin/native-image");
+			if (executable.canExecute()) {
+				return executable;
+			}
+		}
+		for (final String directory : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+			final File executable = new File(directory, "native-image");
+			if (executable.canExecute()) {
+				return executable;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Runs the given <tt>command</tt> and returns its output.
+	 * 
+	 * @param command Command to run.
+	 * @param timeout Maximum time allowed, in minutes.
+	 * @return Standard output of the command.
+	 * @throws IOException If the command cannot be run.
+	 * @throws InterruptedException If interrupted while waiting for the command.
+	 */
+	private String run(final List<String> command, final long timeout) throws IOException, InterruptedException {
+		final File output = folder.newFile();
+		final Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(output)
+				.start();
+		assertTrue("Command timed out", process.waitFor(timeout, TimeUnit.MINUTES));
+		final String result = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+		assertEquals(result, 0, process.exitValue());
+		return result;
+	}
+
+	/** Test bootstrap path in a native image. **/
+	@Test
+	public void testNativeImage() throws IOException, InterruptedException {
+		final File nativeImage = findNativeImage();
+		assumeTrue("native-image is not available", nativeImage != null);
+		final String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+		final File executable = new File(folder.getRoot(), "sample");
+		run(Arrays.asList(
+				nativeImage.getPath(),
+				"--no-fallback",
+				"-cp", classpath,
+				"-o", executable.getPath(),
+				NativeSampleApplication.class.getName()), BUILD_TIMEOUT);
+		final long start = System.nanoTime();
+		final String output = run(Arrays.asList(
+				executable.getPath(),
+				"-n", "native",
+				"-c", "3",
+				"-u", "MINUTES",
+				"-t", "a,b",
+				"-v"), 1);
+		final long startup = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertEquals("native 3 MINUTES [a, b] true", output.trim());
+		assertTrue("Startup took " + startup + " ms", startup < STARTUP_LIMIT);
+	}
+
+}
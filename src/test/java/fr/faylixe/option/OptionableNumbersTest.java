@@ -0,0 +1,203 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableNumbers} class.
+ * 
+ * @author fv
+ */
+public final class OptionableNumbersTest {
+
+	/** Number of random values to compare against JDK parser. **/
+	private static final int SAMPLES = 100000;
+
+	/** Test cleanup, restoring default syntax. **/
+	@After
+	public void tearDown() {
+		OptionableNumbers.setExtendedSyntax(false);
+	}
+
+	/**
+	 * Asserts the given <tt>value</tt> is parsed as the JDK parser does, both as double and float.
+	 * 
+	 * @param value Value to parse.
+	 */
+	private static void assertSameAsJdk(final String value) {
+		assertEquals(value, Double.doubleToRawLongBits(Double.parseDouble(value)), Double.doubleToRawLongBits(OptionableNumbers.parseDouble(value)));
+		assertEquals(value, Float.floatToRawIntBits(Float.parseFloat(value)), Float.floatToRawIntBits(OptionableNumbers.parseFloat(value)));
+	}
+
+	/**
+	 * Asserts parsing the given <tt>value</tt> as a long fails at the given <tt>offset</tt>.
+	 * 
+	 * @param value Value to parse.
+	 * @param offset Expected error offset.
+	 */
+	private static void assertLongError(final String value, final int offset) {
+		try {
+			OptionableNumbers.parseLong(value);
+			fail("Parsing should have failed for " + value);
+		}
+		catch (final OptionableNumberFormatException e) {
+			assertEquals(value, e.getInput());
+			assertEquals(offset, e.getErrorOffset());
+		}
+	}
+
+	/**
+	 * Asserts parsing the given <tt>value</tt> as a double fails at the given <tt>offset</tt>.
+	 * 
+	 * @param value Value to parse.
+	 * @param offset Expected error offset.
+	 */
+	private static void assertDoubleError(final String value, final int offset) {
+		try {
+			OptionableNumbers.parseDouble(value);
+			fail("Parsing should have failed for " + value);
+		}
+		catch (final OptionableNumberFormatException e) {
+			assertEquals(offset, e.getErrorOffset());
+		}
+	}
+
+	/** Test integer parsing. **/
+	@Test
+	public void testInteger() {
+		assertEquals(42, OptionableNumbers.parseInt("42"));
+		assertEquals(-42, OptionableNumbers.parseInt("-42"));
+		assertEquals(42, OptionableNumbers.parseInt("+42"));
+		OptionableNumbers.setExtendedSyntax(true);
+		assertEquals(255, OptionableNumbers.parseInt("0xFf"));
+		assertEquals(1000000, OptionableNumbers.parseInt("1_000_000"));
+		assertEquals(Integer.MAX_VALUE, OptionableNumbers.parseInt("2147483647"));
+		assertEquals(Integer.MIN_VALUE, OptionableNumbers.parseInt("-2147483648"));
+		assertEquals(34, OptionableNumbers.parseInt("12,34,56", 3, 5));
+		try {
+			OptionableNumbers.parseInt("2147483648");
+			fail("Parsing should have overflowed");
+		}
+		catch (final OptionableNumberFormatException e) {
+			assertEquals(9, e.getErrorOffset());
+		}
+	}
+
+	/** Test long parsing. **/
+	@Test
+	public void testLong() {
+		assertEquals(Long.MAX_VALUE, OptionableNumbers.parseLong("9223372036854775807"));
+		assertEquals(Long.MIN_VALUE, OptionableNumbers.parseLong("-9223372036854775808"));
+		OptionableNumbers.setExtendedSyntax(true);
+		assertEquals(Long.MAX_VALUE, OptionableNumbers.parseLong("0x7fff_ffff_ffff_ffff"));
+		assertEquals(10, OptionableNumbers.parseLong("1__0"));
+		assertEquals(0, OptionableNumbers.parseLong("0x0"));
+		assertEquals(0, OptionableNumbers.parseLong("0"));
+	}
+
+	/** Test extended syntax is rejected unless enabled. **/
+	@Test
+	public void testExtendedSyntaxDisabled() {
+		assertLongError("0xFf", 1);
+		assertLongError("1_000", 1);
+		assertDoubleError("1_0.5", 1);
+		assertEquals(0, OptionableNumbers.parseLong("0"));
+	}
+
+	/** Test integer error positions. **/
+	@Test
+	public void testLongErrors() {
+		OptionableNumbers.setExtendedSyntax(true);
+		assertLongError("", 0);
+		assertLongError("-", 1);
+		assertLongError("0x", 1);
+		assertLongError("12a4", 2);
+		assertLongError("_12", 0);
+		assertLongError("12_", 2);
+		assertLongError("0x_1", 2);
+		assertLongError("9223372036854775808", 18);
+		assertLongError("1.5", 1);
+	}
+
+	/** Test floating point parsing. **/
+	@Test
+	public void testDouble() {
+		assertEquals(0.1, OptionableNumbers.parseDouble("0.1"), 0);
+		assertEquals(-1.5e10, OptionableNumbers.parseDouble("-1.5e10"), 0);
+		OptionableNumbers.setExtendedSyntax(true);
+		assertEquals(1.05, OptionableNumbers.parseDouble("1_0.5e-1"), 0);
+		assertEquals(1.0, OptionableNumbers.parseDouble("1."), 0);
+		assertEquals(0.5, OptionableNumbers.parseDouble(".5"), 0);
+		assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(OptionableNumbers.parseDouble("-0.0")));
+		assertEquals(Double.NaN, OptionableNumbers.parseDouble("NaN"), 0);
+		assertEquals(Double.POSITIVE_INFINITY, OptionableNumbers.parseDouble("Infinity"), 0);
+		assertEquals(8.0, OptionableNumbers.parseDouble("0x1p3"), 0);
+		assertEquals(1.7976931348623157e308, OptionableNumbers.parseDouble("1.7976931348623157e308"), 0);
+		assertEquals(4.9e-324, OptionableNumbers.parseDouble("4.9e-324"), 0);
+		assertEquals(0.3f, OptionableNumbers.parseFloat("0.3"), 0);
+		assertEquals(2.5f, OptionableNumbers.parseFloat("1,2.5", 2, 5), 0);
+	}
+
+	/** Test floating point error positions. **/
+	@Test
+	public void testDoubleErrors() {
+		OptionableNumbers.setExtendedSyntax(true);
+		assertDoubleError("", 0);
+		assertDoubleError(".", 0);
+		assertDoubleError("1.2.3", 3);
+		assertDoubleError("1e", 2);
+		assertDoubleError("1_.5", 1);
+		assertDoubleError("12x", 2);
+	}
+
+	/** Test 19 digits mantissas, which may not fit in a signed long. **/
+	@Test
+	public void testLongMantissa() {
+		assertSameAsJdk("954.0575129935949254");
+		assertSameAsJdk("9353212278536042771e-22");
+		assertSameAsJdk("-9574101155295886044");
+		assertSameAsJdk("9223372036854775807");
+		assertSameAsJdk("9223372036854775808");
+		assertSameAsJdk("-9223372036854775809");
+		assertSameAsJdk("9999999999999999999");
+		assertSameAsJdk("99999999999999999999");
+		assertSameAsJdk("1.00000000000000011102230246251565404236316680908203125");
+		assertSameAsJdk("2.2250738585072011e-308");
+		assertSameAsJdk("1.7976931348623159e308");
+	}
+
+	/** Test floating point results match JDK parser. **/
+	@Test
+	public void testDoubleAgainstJdk() {
+		final Random random = new Random(0);
+		for (int i = 0; i < SAMPLES; i++) {
+			final String value;
+			switch (i % 5) {
+				case 0:
+					value = Double.toString(Double.longBitsToDouble(random.nextLong()));
+					break;
+				case 1:
+					value = random.nextInt(1000000) + "." + random.nextInt(1000) + "e" + (random.nextInt(60) - 30);
+					break;
+				case 2:
+					value = Long.toString(random.nextLong()) + Long.toString(Math.abs(random.nextLong())) + "e-" + random.nextInt(40);
+					break;
+				case 3:
+					value = Long.toUnsignedString(random.nextLong() | Long.MIN_VALUE).substring(0, 19) + "e" + (random.nextInt(80) - 40);
+					break;
+				default:
+					final String digits = Long.toUnsignedString(random.nextLong() | Long.MIN_VALUE);
+					final int point = random.nextInt(digits.length());
+					value = digits.substring(0, point) + "." + digits.substring(point) + "e" + (random.nextInt(700) - 350);
+					break;
+			}
+			assertSameAsJdk(value);
+		}
+	}
+
+}
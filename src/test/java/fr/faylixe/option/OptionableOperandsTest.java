@@ -0,0 +1,264 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableOperands} class.
+ * 
+ * @author fv
+ */
+public final class OptionableOperandsTest {
+
+	/** Number of generated operands. **/
+	private static final int COUNT = 1000000;
+
+	/**
+	 * Container with iterable operands.
+	 * 
+	 * @author fv
+	 */
+	private static final class PathContainer extends OptionableContainer {
+
+		/** Flag parameter testing. **/
+		@Optionable(shortName="v")
+		private boolean verbose;
+
+		/** Operands testing. **/
+		@Operands
+		private Iterable<Path> files;
+
+	}
+
+	/**
+	 * Container with stream operands.
+	 * 
+	 * @author fv
+	 */
+	private static final class StreamContainer {
+
+		/** Operands testing. **/
+		@Operands
+		private Stream<Integer> numbers;
+
+	}
+
+	/**
+	 * Container with iterator operands.
+	 * 
+	 * @author fv
+	 */
+	private static final class IteratorContainer {
+
+		/** String parameter testing. **/
+		@Optionable
+		private String name;
+
+		/** Operands testing. **/
+		@Operands
+		private Iterator<Long> numbers;
+
+	}
+
+	/**
+	 * Container with several operands fields.
+	 * 
+	 * @author fv
+	 */
+	private static final class ConflictContainer {
+
+		/** Operands testing. **/
+		@Operands
+		private Iterable<String> first;
+
+		/** Operands testing. **/
+		@Operands
+		private Iterable<String> second;
+
+	}
+
+	/**
+	 * Container with not supported operands field.
+	 * 
+	 * @author fv
+	 */
+	private static final class ListContainer {
+
+		/** Operands testing. **/
+		@Operands
+		private List<String> operands;
+
+	}
+
+	/**
+	 * Iterator generating numbered tokens, counting tokens read.
+	 * 
+	 * @author fv
+	 */
+	private static final class Generator implements Iterator<String> {
+
+		/** Number of tokens read. **/
+		private int read;
+
+		/** {@inheritDoc} **/
+		@Override
+		public boolean hasNext() {
+			return read < COUNT;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public String next() {
+			return String.valueOf(read++);
+		}
+
+	}
+
+	/** Temporary folder for argument files. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Collects all operands of the given <tt>container</tt>.
+	 * 
+	 * @param container Container to collect operands from.
+	 * @return Collected operands.
+	 */
+	private static List<Path> collect(final PathContainer container) {
+		final List<Path> files = new ArrayList<>();
+		container.files.forEach(files::add);
+		return files;
+	}
+
+	/** Test options followed by operands. **/
+	@Test
+	public void testOperands() {
+		final PathContainer container = new PathContainer();
+		assertTrue(container.bootstrap(new String[] {"-v", "a", "b", "-v"}));
+		assertTrue(container.verbose);
+		assertEquals(Arrays.asList(Paths.get("a"), Paths.get("b"), Paths.get("-v")), collect(container));
+	}
+
+	/** Test operands following the <tt>--</tt> terminator. **/
+	@Test
+	public void testTerminator() {
+		final PathContainer container = new PathContainer();
+		assertTrue(container.bootstrap(new String[] {"--", "-v"}));
+		assertFalse(container.verbose);
+		assertEquals(Arrays.asList(Paths.get("-v")), collect(container));
+	}
+
+	/** Test operands with Commons CLI engine. **/
+	@Test
+	public void testCommonsCli() {
+		final PathContainer container = new PathContainer();
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+		assertTrue(container.bootstrap(new String[] {"-v", "a", "b"}));
+		assertTrue(container.verbose);
+		assertEquals(Arrays.asList(Paths.get("a"), Paths.get("b")), collect(container));
+	}
+
+	/** Test operands read from an argument file. **/
+	@Test
+	public void testArgumentFile() throws IOException {
+		final File file = folder.newFile("operands");
+		Files.write(file.toPath(), "-v 'first file' second".getBytes(StandardCharsets.UTF_8));
+		final PathContainer container = new PathContainer();
+		container.setArgumentFiles(true);
+		assertTrue(container.bootstrap(new String[] {"@" + file, "third"}));
+		assertTrue(container.verbose);
+		assertEquals(Arrays.asList(Paths.get("first file"), Paths.get("second"), Paths.get("third")), collect(container));
+	}
+
+	/** Test operands can only be iterated once. **/
+	@Test(expected=IllegalStateException.class)
+	public void testOnce() {
+		final PathContainer container = new PathContainer();
+		assertTrue(container.bootstrap(new String[] {"a"}));
+		collect(container);
+		collect(container);
+	}
+
+	/**
+	 * Test operands are read and converted only while being consumed.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testLazy() throws IllegalAccessException {
+		final Generator generator = new Generator();
+		final IteratorContainer container = new IteratorContainer();
+		OptionableSchema.of(IteratorContainer.class).bind(generator, container);
+		assertEquals(1, generator.read);
+		long sum = 0;
+		while (container.numbers.hasNext()) {
+			sum += container.numbers.next();
+		}
+		assertEquals(COUNT, generator.read);
+		assertEquals((long) COUNT * (COUNT - 1) / 2, sum);
+	}
+
+	/**
+	 * Test conversion errors are reported while consuming operands.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testStream() throws IllegalAccessException {
+		final StreamContainer container = new StreamContainer();
+		OptionableSchema.of(StreamContainer.class).bind(new String[] {"1", "2", "foo"}, container);
+		final Iterator<Integer> numbers = container.numbers.iterator();
+		assertEquals(Integer.valueOf(1), numbers.next());
+		assertEquals(Integer.valueOf(2), numbers.next());
+		try {
+			numbers.next();
+			fail();
+		}
+		catch (final IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Test operands binding of a created instance.
+	 * 
+	 * @throws IllegalAccessException Not expected.
+	 */
+	@Test
+	public void testCreate() throws IllegalAccessException {
+		final StreamContainer container = OptionableSchema.create(StreamContainer.class, "3", "4");
+		assertEquals(Arrays.asList(3, 4), container.numbers.collect(Collectors.toList()));
+	}
+
+	/** Test several operands fields. **/
+	@Test(expected=IllegalStateException.class)
+	public void testConflict() {
+		OptionableSchema.of(ConflictContainer.class);
+	}
+
+	/** Test not supported operands field type. **/
+	@Test(expected=IllegalStateException.class)
+	public void testNotSupported() {
+		OptionableSchema.of(ListContainer.class);
+	}
+
+}
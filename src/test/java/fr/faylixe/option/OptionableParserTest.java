@@ -0,0 +1,172 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableParser} class.
+ * 
+ * @author fv
+ */
+public final class OptionableParserTest {
+
+	/** String value to be tested. **/
+	private static final String STRING = "Foo";
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyParsedContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable
+		private int integer;
+
+		/** String parameter testing. **/
+		@Optionable(shortName="n")
+		private String name;
+
+		/** Flag parameter testing. **/
+		@Optionable
+		private boolean all;
+
+		/** Flag parameter testing. **/
+		@Optionable(shortName="b")
+		private boolean allow;
+
+		/** Required parameter testing. **/
+		@Optionable(required=true)
+		private String required;
+
+	}
+
+	/** Target testing parser. **/
+	private OptionableParser parser;
+
+	/** Target testing container. **/
+	private MyParsedContainer container;
+
+	/** Test fixture. **/
+	@Before
+	public void setUp() {
+		parser = OptionableSchema.of(MyParsedContainer.class).getParser();
+		container = new MyParsedContainer();
+	}
+
+	/**
+	 * Parses and binds the given <tt>args</tt> into the test container.
+	 * 
+	 * @param args Arguments to parse.
+	 * @throws IllegalAccessException If setting a field value is not permitted.
+	 */
+	private void bind(final String ... args) throws IllegalAccessException {
+		parser.bind(parser.parse(Arrays.asList(args).iterator()), container);
+	}
+
+	/** Test long and short option syntaxes. **/
+	@Test
+	public void testSyntaxes() throws IllegalAccessException {
+		bind("--integer", "-2", "-n", STRING, "-r=bar", "-ab");
+		assertEquals(-2, container.integer);
+		assertEquals(STRING, container.name);
+		assertEquals("bar", container.required);
+		assertTrue(container.all);
+		assertTrue(container.allow);
+	}
+
+	/** Test attached values and long option prefix. **/
+	@Test
+	public void testAttached() throws IllegalAccessException {
+		bind("--integer=3", "-n" + STRING, "--requ", "value", "--allo");
+		assertEquals(3, container.integer);
+		assertEquals(STRING, container.name);
+		assertEquals("value", container.required);
+		assertFalse(container.all);
+		assertTrue(container.allow);
+	}
+
+	/** Test operands and options terminator are skipped. **/
+	@Test
+	public void testOperands() {
+		final Object [] values = parser.parse(Arrays.asList("operand", "-r", STRING, "--", "--all").iterator());
+		assertEquals(STRING, values[4]);
+		assertNull(values[2]);
+	}
+
+	/** Test unknown option. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnrecognized() {
+		parser.parse(Arrays.asList("-r", STRING, "--foo").iterator());
+	}
+
+	/** Test ambiguous long option prefix. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testAmbiguous() {
+		parser.parse(Arrays.asList("-r", STRING, "--al").iterator());
+	}
+
+	/** Test missing required option. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testMissingRequired() {
+		parser.parse(Arrays.asList("--all").iterator());
+	}
+
+	/** Test missing option value. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testMissingArgument() {
+		parser.parse(Arrays.asList("-r", STRING, "--name", "--all").iterator());
+	}
+
+	/** Test parallel conversion. **/
+	@Test
+	public void testParallel() throws IllegalAccessException {
+		final Object [] values = parser.parse(Arrays.asList("--integer", "-2", "-n", STRING, "-r=bar", "-a").iterator());
+		assertEquals(4, parser.bind(values, container, ForkJoinPool.commonPool()));
+		assertEquals(-2, container.integer);
+		assertEquals(STRING, container.name);
+		assertEquals("bar", container.required);
+		assertTrue(container.all);
+		assertFalse(container.allow);
+	}
+
+	/** Test parallel conversion failure does not assign any field. **/
+	@Test
+	public void testParallelFailure() throws IllegalAccessException {
+		final Object [] values = parser.parse(Arrays.asList("-n", STRING, "--integer", "foo", "-r", STRING).iterator());
+		try {
+			parser.bind(values, container, ForkJoinPool.commonPool());
+		}
+		catch (final IllegalArgumentException e) {
+			assertTrue(e instanceof OptionableNumberFormatException);
+			assertNull(container.name);
+			assertNull(container.required);
+			return;
+		}
+		fail();
+	}
+
+	/** Test help message layout. **/
+	@Test
+	public void testHelp() {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		parser.printHelp(STRING, new PrintStream(output, true));
+		final String [] lines = output.toString().split(System.lineSeparator());
+		assertEquals("usage: " + STRING, lines[0]);
+		assertEquals(" -a,--all              Description not provided.", lines[1]);
+		assertEquals(" -i,--integer <arg>    Description not provided.", lines[3]);
+	}
+
+}
@@ -0,0 +1,108 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test case for {@link OptionableRecorder} class.
+ * 
+ * @author fv
+ */
+public final class OptionableRecorderTest {
+
+	/** Temporary folder for recordings. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Simple {@link OptionableApplication} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyRecordedApplication extends OptionableApplication {
+
+		/** Integer parameter testing. **/
+		@Optionable(shortName = "i")
+		private int integer;
+
+		/** String parameter testing. **/
+		@Optionable(shortName = "s")
+		private String string;
+
+		/** Default constructor. **/
+		MyRecordedApplication() {
+			super("recorded");
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public void run() {
+			// Do nothing.
+		}
+
+	}
+
+	/** Test phases are reported to metrics callback. **/
+	@Test
+	public void testMetrics() {
+		final List<OptionablePhase> phases = new ArrayList<>();
+		final List<Integer> fields = new ArrayList<>();
+		final MyRecordedApplication application = new MyRecordedApplication();
+		application.setMetrics((type, phase, duration, count, allocated) -> {
+			assertEquals(MyRecordedApplication.class, type);
+			assertTrue(duration >= 0);
+			assertTrue(allocated >= -1);
+			phases.add(phase);
+			fields.add(count);
+		});
+		assertTrue(application.bootstrap(new String[] {"-i", "3"}));
+		assertEquals(Arrays.asList(OptionablePhase.values()), phases);
+		assertEquals(Arrays.asList(3, 3, 1, 0), fields);
+	}
+
+	/** Test failed bootstrap does not report later phases. **/
+	@Test
+	public void testFailedMetrics() {
+		final List<OptionablePhase> phases = new ArrayList<>();
+		final MyRecordedApplication application = new MyRecordedApplication();
+		application.setMetrics((type, phase, duration, count, allocated) -> phases.add(phase));
+		assertFalse(application.bootstrap(new String[] {"-i", "foo"}));
+		assertEquals(Arrays.asList(OptionablePhase.SCHEMA, OptionablePhase.PARSING), phases);
+	}
+
+	/** Test phases are emitted as Flight Recorder events. **/
+	@Test
+	public void testFlightRecorder() throws IOException {
+		final Path file = folder.newFile("bootstrap.jfr").toPath();
+		try (final Recording recording = new Recording()) {
+			recording.enable("fr.faylixe.option.Phase");
+			recording.start();
+			assertTrue(new MyRecordedApplication().bootstrap(new String[] {"-s", "foo"}));
+			recording.stop();
+			recording.dump(file);
+		}
+		final List<String> phases = new ArrayList<>();
+		for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+			if (MyRecordedApplication.class.getName().equals(event.getClass("container").getName())) {
+				phases.add(event.getString("phase"));
+			}
+		}
+		assertEquals(Arrays.asList("SCHEMA", "PARSING", "BINDING", "RUN"), phases);
+	}
+
+}
@@ -0,0 +1,184 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableReloader} class.
+ * 
+ * @author fv
+ */
+public final class OptionableReloaderTest {
+
+	/** Maximum time to wait for a file change to be noticed, in milliseconds. **/
+	private static final long TIMEOUT = 30000;
+
+	/** Temporary folder for configuration files. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyReloadedContainer extends OptionableContainer {
+
+		/** Threshold parameter testing. **/
+		@Optionable(shortName = "t")
+		private int threshold = 10;
+
+		/** Flag parameter testing. **/
+		@Optionable(shortName = "v")
+		private boolean verbose;
+
+		/** Collection parameter testing. **/
+		@Optionable(shortName = "p")
+		private List<Path> paths;
+
+		/** Command line parameter testing. **/
+		@Optionable(shortName = "n")
+		private String name;
+
+	}
+
+	/**
+	 * Atomically replaces the given <tt>file</tt> content, so
+	 * that the watching thread never reads a partial file.
+	 * 
+	 * @param file File to write.
+	 * @param content Content to write.
+	 * @return Written file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private Path write(final Path file, final String content) throws IOException {
+		final Path temporary = folder.newFile().toPath();
+		Files.write(temporary, content.getBytes(StandardCharsets.UTF_8));
+		return Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Waits for the threshold of the given <tt>reloader</tt> current instance to be the expected one.
+	 * 
+	 * @param reloader Reloader to wait for.
+	 * @param expected Expected threshold.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	private static void await(final OptionableReloader<MyReloadedContainer> reloader, final int expected) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (reloader.get().threshold != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, reloader.get().threshold);
+	}
+
+	/** Test only changed fields are bound again, the watching thread possibly reloading first. **/
+	@Test
+	public void testReload() throws IOException, IllegalAccessException {
+		final Path file = write(folder.newFile().toPath(), "threshold=5\npaths=a,b\nname=file\n");
+		try (final OptionableReloader<MyReloadedContainer> reloader = OptionableReloader.watch(
+				MyReloadedContainer::new,
+				new String[] {"-n", "command"},
+				file)) {
+			final MyReloadedContainer first = reloader.get();
+			assertEquals(5, first.threshold);
+			assertEquals("command", first.name);
+			assertFalse(reloader.reload());
+			assertSame(first, reloader.get());
+			write(file, "threshold=7\nverbose=true\npaths=a,b\nname=other\n");
+			reloader.reload();
+			final MyReloadedContainer second = reloader.get();
+			assertNotSame(first, second);
+			assertEquals(7, second.threshold);
+			assertTrue(second.verbose);
+			assertEquals("command", second.name);
+			assertSame(first.paths, second.paths);
+			assertEquals(5, first.threshold);
+			write(file, "paths=a,b\n");
+			reloader.reload();
+			assertEquals(10, reloader.get().threshold);
+			assertFalse(reloader.get().verbose);
+		}
+	}
+
+	/** Test not valid change keeps current instance. **/
+	@Test
+	public void testNotValidChange() throws IOException, IllegalAccessException {
+		final Path file = write(folder.newFile().toPath(), "threshold=5\n");
+		try (final OptionableReloader<MyReloadedContainer> reloader = OptionableReloader.watch(
+				MyReloadedContainer::new,
+				new String[0],
+				file)) {
+			final MyReloadedContainer first = reloader.get();
+			write(file, "threshold=foo\n");
+			try {
+				reloader.reload();
+			}
+			catch (final IllegalArgumentException e) {
+				assertSame(first, reloader.get());
+				return;
+			}
+		}
+		throw new AssertionError("Reload should have failed");
+	}
+
+	/** Test file changes are watched. **/
+	@Test
+	public void testWatch() throws IOException, IllegalAccessException, InterruptedException {
+		final Path file = write(folder.newFile().toPath(), "threshold=5\n");
+		try (final OptionableReloader<MyReloadedContainer> reloader = OptionableReloader.watch(
+				MyReloadedContainer::new,
+				new String[0],
+				file)) {
+			write(file, "threshold=6\n");
+			await(reloader, 6);
+		}
+	}
+
+	/** Test changes made by swapping a symbolic link, as mounted Kubernetes volumes do, are watched. **/
+	@Test
+	public void testSymbolicLinkSwap() throws IOException, IllegalAccessException, InterruptedException {
+		final Path directory = folder.newFolder("mount").toPath();
+		final Path first = Files.createDirectory(directory.resolve("..v1"));
+		final Path second = Files.createDirectory(directory.resolve("..v2"));
+		write(first.resolve("app.properties"), "threshold=5\n");
+		final Path target = write(second.resolve("app.properties"), "threshold=6\n");
+		final Path data = directory.resolve("..data");
+		final Path file = directory.resolve("app.properties");
+		try {
+			Files.createSymbolicLink(data, first.getFileName());
+			Files.createSymbolicLink(file, Paths.get("..data", "app.properties"));
+		}
+		catch (final UnsupportedOperationException | IOException e) {
+			Assume.assumeNoException(e);
+		}
+		try (final OptionableReloader<MyReloadedContainer> reloader = OptionableReloader.watch(
+				MyReloadedContainer::new,
+				new String[0],
+				file)) {
+			assertEquals(5, reloader.get().threshold);
+			final Path swap = Files.createSymbolicLink(directory.resolve("..data_tmp"), second.getFileName());
+			Files.move(swap, data, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			await(reloader, 6);
+			write(target, "threshold=7\n");
+			await(reloader, 7);
+		}
+	}
+
+}
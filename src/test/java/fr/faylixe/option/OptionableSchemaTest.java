@@ -0,0 +1,86 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableSchema} class.
+ * 
+ * @author fv
+ */
+public final class OptionableSchemaTest {
+
+	/** Number of concurrent binding threads. **/
+	private static final int THREADS = 8;
+
+	/** Number of binding tasks. **/
+	private static final int TASKS = 1000;
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MySchemaContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable
+		private int i;
+
+		/** String parameter testing. **/
+		@Optionable
+		private String s;
+
+	}
+
+	/** Test schema is compiled once per class. **/
+	@Test
+	public void testCached() {
+		final OptionableSchema schema = OptionableSchema.of(MySchemaContainer.class);
+		assertSame(schema, OptionableSchema.of(MySchemaContainer.class));
+		assertEquals(MySchemaContainer.class, schema.getType());
+		assertEquals(2, schema.getFields().size());
+	}
+
+	/** Test not valid receiver. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testNotValidReceiver() throws IllegalAccessException {
+		OptionableSchema.of(MySchemaContainer.class).bind(new String[0], this);
+	}
+
+	/** Test concurrent binding onto separate receivers. **/
+	@Test
+	public void testConcurrentBinding() throws InterruptedException, ExecutionException {
+		final OptionableSchema schema = OptionableSchema.of(MySchemaContainer.class);
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<MySchemaContainer>> futures = new ArrayList<>(TASKS);
+			for (int i = 0; i < TASKS; i++) {
+				final String value = String.valueOf(i);
+				futures.add(executor.submit(() -> {
+					final MySchemaContainer container = new MySchemaContainer();
+					schema.bind(new String[] {"--i", value, "--s", value}, container);
+					return container;
+				}));
+			}
+			for (int i = 0; i < TASKS; i++) {
+				final MySchemaContainer container = futures.get(i).get();
+				assertEquals(i, container.i);
+				assertEquals(String.valueOf(i), container.s);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,202 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link OptionableSource} class.
+ * 
+ * @author fv
+ */
+public final class OptionableSourceTest {
+
+	/** Temporary folder for configuration files. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Container whose long names share the same source key.
+	 * 
+	 * @author fv
+	 */
+	private static class MyConflictContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable(shortName = "a", longName = "max-count")
+		private int first;
+
+		/** Integer parameter testing. **/
+		@Optionable(shortName = "b", longName = "maxCount")
+		private int second;
+
+	}
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MySourceContainer extends OptionableContainer {
+
+		/** Integer parameter testing. **/
+		@Optionable(shortName = "m")
+		private int maxCount = 1;
+
+		/** String parameter testing. **/
+		@Optionable(shortName = "n")
+		private String name = "default";
+
+		/** Flag parameter testing. **/
+		@Optionable(shortName = "v")
+		private boolean verbose;
+
+		/** Multi valued parameter testing. **/
+		@Optionable(shortName = "p")
+		private int [] ports;
+
+		/** Required parameter testing. **/
+		@Optionable(shortName = "h", required = true)
+		private String host;
+
+	}
+
+	/**
+	 * Creates a configuration file with the given <tt>content</tt>.
+	 * 
+	 * @param content Content of the file.
+	 * @return Created file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private File write(final String content) throws IOException {
+		final File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/** Test environment like keys are matched. **/
+	@Test
+	public void testEnvironmentKeys() {
+		final Map<String, String> environment = new HashMap<>();
+		environment.put("MYAPP_MAX_COUNT", "3");
+		environment.put("OTHER_NAME", "foo");
+		final OptionableSource source = OptionableSource.of(environment, "MYAPP_");
+		assertEquals("3", source.get(OptionableSource.canonical("maxCount")));
+		assertNull(source.get(OptionableSource.canonical("name")));
+	}
+
+	/** Test configuration file reading. **/
+	@Test
+	public void testFile() throws IOException {
+		final File file = write("# comment\n\nmax-count = 4\nname: \"foo bar\"\nverbose=true\n");
+		final OptionableSource source = OptionableSource.ofFile(file.toPath());
+		assertEquals("4", source.get("maxcount"));
+		assertEquals("foo bar", source.get("name"));
+		assertEquals("true", source.get("verbose"));
+	}
+
+	/** Test not valid configuration file. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testNotValidFile() throws IOException {
+		OptionableSource.ofFile(write("name\n").toPath());
+	}
+
+	/** Test layers precedence. **/
+	@Test
+	public void testPrecedence() throws IOException {
+		System.setProperty("sourcetest.name", "property");
+		try {
+			final Map<String, String> environment = new HashMap<>();
+			environment.put("APP_NAME", "environment");
+			environment.put("APP_MAX_COUNT", "2");
+			final MySourceContainer container = new MySourceContainer();
+			container.addSource(OptionableSource.ofSystemProperties("sourcetest."));
+			container.addSource(OptionableSource.of(environment, "APP_"));
+			container.addSource(OptionableSource.ofFile(write("max-count=3\nverbose=true\nports=1,2\nhost=file\n").toPath()));
+			assertTrue(container.bootstrap(new String[] {"-h", "command"}));
+			assertEquals("command", container.host);
+			assertEquals("property", container.name);
+			assertEquals(2, container.maxCount);
+			assertTrue(container.verbose);
+			assertArrayEquals(new int[] {1, 2}, container.ports);
+		}
+		finally {
+			System.clearProperty("sourcetest.name");
+		}
+	}
+
+	/** Test required option provided by a source and defaults kept. **/
+	@Test
+	public void testRequired() {
+		final Map<String, String> values = new HashMap<>();
+		values.put("host", "localhost");
+		values.put("verbose", "false");
+		final MySourceContainer container = new MySourceContainer();
+		assertFalse(container.bootstrap(new String[0]));
+		container.addSource(OptionableSource.of(values));
+		assertTrue(container.bootstrap(new String[0]));
+		assertEquals("localhost", container.host);
+		assertEquals("default", container.name);
+		assertEquals(1, container.maxCount);
+		assertFalse(container.verbose);
+	}
+
+	/** Test blank environment prefix is rejected. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testBlankEnvironmentPrefix() {
+		OptionableSource.ofEnvironment("");
+	}
+
+	/** Test blank system properties prefix is rejected. **/
+	@Test(expected=IllegalArgumentException.class)
+	public void testBlankPropertiesPrefix() {
+		OptionableSource.ofSystemProperties(" ");
+	}
+
+	/** Test options sharing a source key are rejected once sources are used. **/
+	@Test(expected=IllegalStateException.class)
+	public void testKeyConflict() {
+		final MyConflictContainer container = new MyConflictContainer();
+		container.addSource(OptionableSource.of(new HashMap<>()));
+		container.bootstrap(new String[0]);
+	}
+
+	/** Test options sharing a source key are allowed without sources. **/
+	@Test
+	public void testKeyConflictWithoutSources() {
+		final MyConflictContainer container = new MyConflictContainer();
+		assertTrue(container.bootstrap(new String[] {"--max-count", "1", "--maxCount", "2"}));
+		assertEquals(1, container.first);
+		assertEquals(2, container.second);
+	}
+
+	/** Test sources cannot be added to a Commons CLI container. **/
+	@Test(expected=IllegalStateException.class)
+	public void testCommonsCliSource() {
+		final MySourceContainer container = new MySourceContainer();
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+		container.addSource(OptionableSource.of(new HashMap<>()));
+	}
+
+	/** Test Commons CLI engine cannot be selected once sources are added. **/
+	@Test(expected=IllegalStateException.class)
+	public void testCommonsCliEngine() {
+		final MySourceContainer container = new MySourceContainer();
+		container.addSource(OptionableSource.of(new HashMap<>()));
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+	}
+
+}
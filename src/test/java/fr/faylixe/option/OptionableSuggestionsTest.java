@@ -0,0 +1,122 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableSuggestions} class.
+ * 
+ * @author fv
+ */
+public final class OptionableSuggestionsTest {
+
+	/**
+	 * Container with long option names.
+	 * 
+	 * @author fv
+	 */
+	private static class MySuggestedContainer extends OptionableContainer {
+
+		/** Flag parameter testing. **/
+		@Optionable
+		private boolean verbose;
+
+		/** String parameter testing. **/
+		@Optionable(shortName="o")
+		private String output;
+
+		/** Integer parameter testing. **/
+		@Optionable(shortName="n")
+		private int count;
+
+	}
+
+	/** Test Damerau-Levenshtein distance. **/
+	@Test
+	public void testDistance() {
+		assertEquals(0, OptionableSuggestions.distance("output", "output"));
+		assertEquals(1, OptionableSuggestions.distance("outpt", "output"));
+		assertEquals(3, OptionableSuggestions.distance("kitten", "sitting"));
+		assertEquals(6, OptionableSuggestions.distance("", "output"));
+		assertEquals(6, OptionableSuggestions.distance("output", ""));
+	}
+
+	/** Test transpositions of adjacent characters count as a single edit. **/
+	@Test
+	public void testTransposition() {
+		assertEquals(1, OptionableSuggestions.distance("otuput", "output"));
+		assertEquals(1, OptionableSuggestions.distance("coutn", "count"));
+		assertEquals(2, OptionableSuggestions.distance("ca", "abc"));
+		assertEquals(Arrays.asList("count"), new OptionableSuggestions(Arrays.asList("count", "output")).suggest("coutn"));
+	}
+
+	/** Test suggestions order and tolerance. **/
+	@Test
+	public void testSuggest() {
+		final OptionableSuggestions suggestions = new OptionableSuggestions(Arrays.asList("verbose", "version", "output", "input", "verbose"));
+		assertEquals(Arrays.asList("verbose"), suggestions.suggest("verbsoe"));
+		assertEquals(Arrays.asList("verbose", "version"), suggestions.suggest("versoe"));
+		assertEquals(Arrays.asList("input"), suggestions.suggest("inpt"));
+		assertEquals(Collections.emptyList(), suggestions.suggest("foo"));
+		assertEquals(Collections.emptyList(), new OptionableSuggestions(Collections.emptyList()).suggest("foo"));
+	}
+
+	/** Test suggestions among many names match an exhaustive scan. **/
+	@Test
+	public void testManyNames() {
+		final List<String> names = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			names.add("option-" + Integer.toString(i * 7919, 36));
+		}
+		final OptionableSuggestions suggestions = new OptionableSuggestions(names);
+		final String query = "optoin-" + Integer.toString(500 * 7919, 36);
+		final List<String> expected = new ArrayList<>();
+		for (final String name : names) {
+			if (OptionableSuggestions.distance(query, name) <= 3) {
+				expected.add(name);
+			}
+		}
+		final List<String> actual = suggestions.suggest(query);
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(expected, actual);
+	}
+
+	/** Test unknown option error prints suggestions instead of help. **/
+	@Test
+	public void testContainer() {
+		final PrintStream out = System.out;
+		final PrintStream err = System.err;
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ByteArrayOutputStream error = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(output, true));
+		System.setErr(new PrintStream(error, true));
+		try {
+			assertFalse(new MySuggestedContainer().bootstrap(new String[] {"--verbsoe"}));
+			assertFalse(new MySuggestedContainer().bootstrap(new String[] {"--foo"}));
+			assertFalse(new MySuggestedContainer().bootstrap(new String[] {"--coutn"}));
+		}
+		finally {
+			System.setOut(out);
+			System.setErr(err);
+		}
+		final String [] lines = error.toString().split(System.lineSeparator());
+		assertEquals(OptionableContainer.PARSING_ERROR + "Unrecognized option: --verbsoe", lines[0]);
+		assertEquals("Did you mean --verbose ?", lines[1]);
+		assertEquals(OptionableContainer.PARSING_ERROR + "Unrecognized option: --foo", lines[2]);
+		assertEquals(OptionableContainer.PARSING_ERROR + "Unrecognized option: --coutn", lines[3]);
+		assertEquals("Did you mean --count ?", lines[4]);
+		assertTrue(output.toString().startsWith("usage: "));
+	}
+
+}
@@ -2,12 +2,28 @@ package fr.faylixe.option;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Test case for {@link OptionableValueFactories} class.
@@ -16,6 +32,10 @@ import org.junit.Test;
  */
 public final class OptionableValueFactoriesTest {
 
+	/** Folder for context class loader services. **/
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
 	/**
 	 * Testing class for getting test fields.
 	 * 
@@ -33,6 +53,48 @@ public final class OptionableValueFactoriesTest {
 
 	}
 
+	/**
+	 * Service converter for testing registry extension.
+	 * 
+	 * @author fv
+	 */
+	public static final class StringBuilderConverter implements OptionableValueConverter<StringBuilder> {
+
+		/** {@inheritDoc} **/
+		@Override
+		public Class<StringBuilder> getType() {
+			return StringBuilder.class;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public StringBuilder convert(final String value) {
+			return new StringBuilder(value);
+		}
+
+	}
+
+	/**
+	 * Service converter only registered through a context class loader.
+	 * 
+	 * @author fv
+	 */
+	public static final class StringBufferConverter implements OptionableValueConverter<StringBuffer> {
+
+		/** {@inheritDoc} **/
+		@Override
+		public Class<StringBuffer> getType() {
+			return StringBuffer.class;
+		}
+
+		/** {@inheritDoc} **/
+		@Override
+		public StringBuffer convert(final String value) {
+			return new StringBuffer(value);
+		}
+
+	}
+
 	/** Test for support() method. **/
 	@Test
 	public void testSupport() {
@@ -78,4 +140,61 @@ public final class OptionableValueFactoriesTest {
 		}
 	}
 
+	/** Test built-in converters. **/
+	@Test
+	public void testBuiltinConverters() {
+		assertTrue(OptionableValueFactories.PATH.support(Path.class));
+		assertEquals(Paths.get("foo"), OptionableValueFactories.getConverter(Path.class).apply("foo"));
+		assertEquals(Duration.ofSeconds(2), OptionableValueFactories.getConverter(Duration.class).apply("PT2S"));
+		assertEquals(java.net.URI.create("http://foo"), OptionableValueFactories.getConverter(java.net.URI.class).apply("http://foo"));
+		assertNull(OptionableValueFactories.getConverter(Object.class));
+	}
+
+	/** Test enumeration converter. **/
+	@Test
+	public void testEnumConverter() {
+		assertEquals(TimeUnit.SECONDS, OptionableValueFactories.getConverter(TimeUnit.class).apply("SECONDS"));
+		assertTrue(OptionableValueFactories.getConverter(TimeUnit.class) == OptionableValueFactories.getConverter(TimeUnit.class));
+	}
+
+	/** Test service converter. **/
+	@Test
+	public void testServiceConverter() {
+		final Object value = OptionableValueFactories.getConverter(StringBuilder.class).apply("foo");
+		assertTrue(value instanceof StringBuilder);
+		assertEquals("foo", value.toString());
+	}
+
+	/**
+	 * Test service converter from the thread context class loader,
+	 * a broken provider being reported and skipped.
+	 * 
+	 * @throws IOException If any error occurs while writing the service file.
+	 */
+	@Test(timeout=10000)
+	public void testContextServiceConverter() throws IOException {
+		final Path services = folder.newFolder("META-INF", "services").toPath();
+		final String content = "fr.faylixe.option.MissingConverter\n" + StringBufferConverter.class.getName() + "\n";
+		Files.write(services.resolve(OptionableValueConverter.class.getName()), content.getBytes(StandardCharsets.UTF_8));
+		assertNull(OptionableValueFactories.getConverter(StringBuffer.class));
+		final Thread thread = Thread.currentThread();
+		final ClassLoader previous = thread.getContextClassLoader();
+		final List<ServiceConfigurationError> errors = new ArrayList<>();
+		OptionableValueFactories.setErrorHandler(errors::add);
+		try (final URLClassLoader loader = new URLClassLoader(new URL[] {folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+			thread.setContextClassLoader(loader);
+			final Function<String, ?> converter = OptionableValueFactories.getConverter(StringBuffer.class);
+			assertEquals("foo", converter.apply("foo").toString());
+			assertTrue(converter == OptionableValueFactories.getConverter(StringBuffer.class));
+			assertEquals("foo", OptionableValueFactories.getConverter(StringBuilder.class).apply("foo").toString());
+			assertEquals(1, errors.size());
+			assertTrue(errors.get(0).getMessage().contains("MissingConverter"));
+		}
+		finally {
+			thread.setContextClassLoader(previous);
+			OptionableValueFactories.setErrorHandler(null);
+		}
+		assertNull(OptionableValueFactories.getConverter(StringBuffer.class));
+	}
+
 }
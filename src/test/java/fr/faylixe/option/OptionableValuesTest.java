@@ -0,0 +1,186 @@
+package fr.faylixe.option;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableValues} class and multi valued options.
+ * 
+ * @author fv
+ */
+public final class OptionableValuesTest {
+
+	/**
+	 * Simple {@link OptionableContainer} implementation for testing.
+	 * 
+	 * @author fv
+	 */
+	private static class MyMultipleContainer extends OptionableContainer {
+
+		/** Integer array parameter testing. **/
+		@Optionable(shortName = "i")
+		private int [] integers;
+
+		/** Long array parameter testing. **/
+		@Optionable(shortName = "l")
+		private long [] longs;
+
+		/** Double array parameter testing. **/
+		@Optionable(shortName = "d")
+		private double [] doubles;
+
+		/** String array parameter testing. **/
+		@Optionable(shortName = "s")
+		private String [] strings;
+
+		/** List parameter testing. **/
+		@Optionable(shortName = "p")
+		private List<Path> paths;
+
+		/** Set parameter testing. **/
+		@Optionable(shortName = "n")
+		private Set<String> names;
+
+		/** Not split parameter testing. **/
+		@Optionable(shortName = "t", separator = "")
+		private List<String> texts;
+
+		/** Custom separator parameter testing. **/
+		@Optionable(shortName = "r", separator = "::")
+		private int [] ranges;
+
+		/** Boolean array parameter testing. **/
+		@Optionable(shortName = "b")
+		private boolean [] switches;
+
+		/** Boolean list parameter testing. **/
+		@Optionable(shortName = "f")
+		private List<Boolean> flags;
+
+	}
+
+	/** Test elements iteration over several occurrences. **/
+	@Test
+	public void testForEach() {
+		final OptionableValues values = new OptionableValues();
+		values.add("a,bc");
+		values.add("");
+		values.add("d,");
+		assertEquals(5, values.count(OptionableValues.SEPARATOR));
+		final StringBuilder builder = new StringBuilder();
+		values.forEach(OptionableValues.SEPARATOR, (value, start, end, index) -> builder.append(index).append(value, start, end).append(';'));
+		assertEquals("0a;1bc;2;3d;4;", builder.toString());
+	}
+
+	/** Test elements iteration with multiple characters and empty separators. **/
+	@Test
+	public void testSeparator() {
+		final OptionableValues values = new OptionableValues(new String[] {"a::b:c::", "d"});
+		assertEquals(4, values.count("::"));
+		final StringBuilder builder = new StringBuilder();
+		values.forEach("::", (value, start, end, index) -> builder.append(index).append(value, start, end).append(';'));
+		assertEquals("0a;1b:c;2;3d;", builder.toString());
+		assertEquals(2, values.count(""));
+		builder.setLength(0);
+		values.forEach("", (value, start, end, index) -> builder.append(index).append(value, start, end).append(';'));
+		assertEquals("0a::b:c::;1d;", builder.toString());
+	}
+
+	/** Test option declared separator, on both engines. **/
+	@Test
+	public void testDeclaredSeparator() {
+		for (final OptionableEngine engine : OptionableEngine.values()) {
+			final MyMultipleContainer container = new MyMultipleContainer();
+			container.setEngine(engine);
+			assertTrue(container.bootstrap(new String[] {"-t", "a,b", "-t", "c", "-r", "1::2", "-r", "3"}));
+			assertEquals(Arrays.asList("a,b", "c"), container.texts);
+			assertArrayEquals(new int[] {1, 2, 3}, container.ranges);
+		}
+	}
+
+	/** Test boolean elements are converted rather than set, on both engines. **/
+	@Test
+	public void testBooleanElements() {
+		for (final OptionableEngine engine : OptionableEngine.values()) {
+			final MyMultipleContainer container = new MyMultipleContainer();
+			container.setEngine(engine);
+			assertTrue(container.bootstrap(new String[] {"-b", "false,true", "-b", "no", "--flags", "false,TRUE"}));
+			assertEquals(3, container.switches.length);
+			assertFalse(container.switches[0]);
+			assertTrue(container.switches[1]);
+			assertFalse(container.switches[2]);
+			assertEquals(Arrays.asList(false, true), container.flags);
+		}
+	}
+
+	/** Test repeated and comma separated values. **/
+	@Test
+	public void testBootstrap() {
+		final MyMultipleContainer container = new MyMultipleContainer();
+		assertTrue(container.bootstrap(new String[] {
+			"-i", "1,2", "--integers", "3",
+			"-l", "4",
+			"-d", "0.5,1.5",
+			"--strings=a,b",
+			"-p", "foo", "-p", "bar",
+			"-n", "x,y,x"
+		}));
+		assertArrayEquals(new int[] {1, 2, 3}, container.integers);
+		assertArrayEquals(new long[] {4}, container.longs);
+		assertArrayEquals(new double[] {0.5, 1.5}, container.doubles, 0);
+		assertArrayEquals(new String[] {"a", "b"}, container.strings);
+		assertEquals(Arrays.asList(Paths.get("foo"), Paths.get("bar")), container.paths);
+		assertEquals(new LinkedHashSet<>(Arrays.asList("x", "y")), container.names);
+	}
+
+	/** Test missing options are left untouched. **/
+	@Test
+	public void testMissing() {
+		final MyMultipleContainer container = new MyMultipleContainer();
+		assertTrue(container.bootstrap(new String[] {"-i", "1"}));
+		assertArrayEquals(new int[] {1}, container.integers);
+		assertNull(container.paths);
+	}
+
+	/** Test invalid element is reported. **/
+	@Test
+	public void testInvalidElement() {
+		final MyMultipleContainer container = new MyMultipleContainer();
+		assertFalse(container.bootstrap(new String[] {"-i", "1,foo"}));
+	}
+
+	/** Test legacy engine collects repeated and comma separated values. **/
+	@Test
+	public void testLegacyBootstrap() {
+		final MyMultipleContainer container = new MyMultipleContainer();
+		container.setEngine(OptionableEngine.COMMONS_CLI);
+		assertTrue(container.bootstrap(new String[] {"-i", "1,2", "-i", "3", "-p", "foo"}));
+		assertArrayEquals(new int[] {1, 2, 3}, container.integers);
+		assertEquals(Arrays.asList(Paths.get("foo")), container.paths);
+	}
+
+	/** Test legacy engine takes a single value per occurrence, as the built-in engine. **/
+	@Test
+	public void testLegacySingleValue() {
+		for (final OptionableEngine engine : OptionableEngine.values()) {
+			final MyMultipleContainer container = new MyMultipleContainer();
+			container.setEngine(engine);
+			assertTrue(container.bootstrap(new String[] {"-i", "1", "2", "-l", "3"}));
+			assertArrayEquals(new int[] {1}, container.integers);
+			assertArrayEquals(new long[] {3}, container.longs);
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package fr.faylixe.option.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import org.junit.Test;
+
+/**
+ * Test case for {@link OptionableMetadata} class, asserting generated
+ * native image metadata without requiring the native image toolchain.
+ *
+ * @author fv
+ */
+public final class OptionableMetadataTest {
+
+	/** Binary name of the sample container compiled with the test sources. **/
+	private static final String SAMPLE = "fr.faylixe.option.NativeSampleApplication";
+
+	/** Expected reflection metadata of the sample container. **/
+	private static final String SAMPLE_REFLECTION = "[\n"
+			+ "  {\n"
+			+ "    \"name\": \"" + SAMPLE + "\",\n"
+			+ "    \"fields\": [{\"name\": \"count\", \"allowWrite\": true}, {\"name\": \"name\", \"allowWrite\": true}, "
+			+ "{\"name\": \"tags\", \"allowWrite\": true}, {\"name\": \"unit\", \"allowWrite\": true}]\n"
+			+ "  },\n"
+			+ "  {\n"
+			+ "    \"name\": \"" + SAMPLE + "$$OptionableBinder\",\n"
+			+ "    \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]\n"
+			+ "  },\n"
+			+ "  {\n"
+			+ "    \"name\": \"java.util.concurrent.TimeUnit\",\n"
+			+ "    \"allDeclaredFields\": true,\n"
+			+ "    \"allPublicMethods\": true\n"
+			+ "  }\n"
+			+ "]\n";
+
+	/** Expected resource metadata of the sample container. **/
+	private static final String SAMPLE_RESOURCES = "{\n"
+			+ "  \"resources\": {\n"
+			+ "    \"includes\": [\n"
+			+ "      {\"pattern\": \"\\\\QMETA-INF/option/index/" + SAMPLE + "\\\\E\"}\n"
+			+ "    ]\n"
+			+ "  }\n"
+			+ "}\n";
+
+	/**
+	 * Reads the given generated metadata resource.
+	 *
+	 * @param name Name of the metadata file, relative to {@link OptionableMetadata#DIRECTORY}.
+	 * @return Content of the metadata file.
+	 * @throws IOException If the metadata file cannot be read.
+	 */
+	private static String read(final String name) throws IOException {
+		try (final InputStream stream = OptionableMetadataTest.class.getClassLoader().getResourceAsStream(OptionableMetadata.DIRECTORY + name)) {
+			assertNotNull(name, stream);
+			try (final Scanner scanner = new Scanner(stream, StandardCharsets.UTF_8.name())) {
+				return scanner.useDelimiter("\\A").next().replace("\r\n", "\n");
+			}
+		}
+	}
+
+	/**
+	 * Writes the given <tt>metadata</tt> as reflection or resource content.
+	 *
+	 * @param metadata Metadata to write.
+	 * @param reflection Indicates if reflection content is written rather than resource one.
+	 * @return Written content.
+	 */
+	private static String write(final OptionableMetadata metadata, final boolean reflection) {
+		final StringWriter buffer = new StringWriter();
+		try (final PrintWriter writer = new PrintWriter(buffer)) {
+			if (reflection) {
+				metadata.writeReflection(writer);
+			}
+			else {
+				metadata.writeResources(writer);
+			}
+		}
+		return buffer.toString().replace("\r\n", "\n");
+	}
+
+	/** Test reflection and resource content of collected metadata. **/
+	@Test
+	public void testContent() {
+		final OptionableMetadata metadata = new OptionableMetadata();
+		metadata.addField(SAMPLE, "unit");
+		metadata.addField(SAMPLE, "count");
+		metadata.addField(SAMPLE, "tags");
+		metadata.addField(SAMPLE, "name");
+		metadata.addConstructor(SAMPLE + "$$OptionableBinder");
+		metadata.addEnumeration("java.util.concurrent.TimeUnit");
+		metadata.addResource("META-INF/option/index/" + SAMPLE);
+		assertEquals(SAMPLE_REFLECTION, write(metadata, true));
+		assertEquals(SAMPLE_RESOURCES, write(metadata, false));
+	}
+
+	/** Test metadata generated for the sample container is written as its own fragment. **/
+	@Test
+	public void testGenerated() throws IOException {
+		assertEquals(SAMPLE_REFLECTION, read(SAMPLE + "/reflect-config.json"));
+		assertEquals(SAMPLE_RESOURCES, read(SAMPLE + "/resource-config.json"));
+	}
+
+	/** Test subcommand table is registered as a resource. **/
+	@Test
+	public void testCommands() throws IOException {
+		final String expected = "{\n"
+				+ "  \"resources\": {\n"
+				+ "    \"includes\": [\n"
+				+ "      {\"pattern\": \"\\\\QMETA-INF/option/commands\\\\E\"}\n"
+				+ "    ]\n"
+				+ "  }\n"
+				+ "}\n";
+		assertEquals(expected, read("fr.faylixe.option.OptionableCommands/resource-config.json"));
+	}
+
+}